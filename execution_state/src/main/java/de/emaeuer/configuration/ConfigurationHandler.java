@@ -1,6 +1,8 @@
 package de.emaeuer.configuration;
 
 import de.emaeuer.configuration.value.AbstractConfigurationValue;
+import de.emaeuer.configuration.value.CompiledExpression;
+import de.emaeuer.configuration.value.ExpressionConfigurationValue;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -97,6 +99,18 @@ public class ConfigurationHandler<T extends Enum<T> & DefaultConfiguration<T>> {
         return getValue(key, expectedValueType, Collections.emptyMap());
     }
 
+    /**
+     * @return the compiled form of the expression which is configured for the key
+     * @see ExpressionConfigurationValue#compile()
+     */
+    public CompiledExpression getCompiledExpression(T key) {
+        if (this.configurationValues.get(key) instanceof ExpressionConfigurationValue expression) {
+            return expression.compile();
+        }
+
+        throw new IllegalArgumentException(String.format("The configuration %s is not an expression", key.getKeyName()));
+    }
+
     public <S> S getValue(T key, Class<S> expectedValueType, Map<String, Double> variables) {
         var value = this.configurationValues.get(key).getValueForState(variables);
 
@@ -0,0 +1,22 @@
+package de.emaeuer.configuration.value;
+
+/**
+ * Compiled form of an {@link ExpressionConfigurationValue}. The variables are bound to slots by the ordinal of the
+ * corresponding {@link de.emaeuer.configuration.ConfigurationVariable}. Evaluation doesn't modify any state and can
+ * be done concurrently by multiple threads.
+ */
+public interface CompiledExpression {
+
+    /**
+     * @param slots values of the variables indexed by the ordinal of the variable
+     * @return the result of the expression
+     */
+    double evaluate(double[] slots);
+
+    /**
+     * @param slot ordinal of the variable
+     * @return true if the result depends on the value of the variable
+     */
+    boolean dependsOn(int slot);
+
+}
@@ -0,0 +1,143 @@
+package de.emaeuer.configuration.value;
+
+import de.emaeuer.configuration.ConfigurationVariable;
+import net.objecthunter.exp4j.function.Function;
+import net.objecthunter.exp4j.operator.Operator;
+import net.objecthunter.exp4j.shuntingyard.ShuntingYard;
+import net.objecthunter.exp4j.tokenizer.*;
+
+import java.util.*;
+
+/**
+ * Compiles an exp4j expression into a tree of closures. The expression is parsed by exp4j, so the syntax and the
+ * semantics (including the division by zero exception) are the same as those of {@link net.objecthunter.exp4j.Expression}.
+ */
+final class ExpressionCompiler {
+
+    @FunctionalInterface
+    interface ExpressionNode {
+        double evaluate(double[] slots);
+    }
+
+    // constants which are predefined by exp4j
+    private static final Map<String, Double> CONSTANTS = Map.of("pi", Math.PI, "π", Math.PI, "e", Math.E, "φ", 1.61803398874d);
+
+    private ExpressionCompiler() {}
+
+    /**
+     * @param expression the expression to compile
+     * @param functions additional functions which can be used in the expression
+     * @param operators additional operators which can be used in the expression
+     * @param variables enum class of the variables
+     * @param usedSlots is filled with the slots of the variables which are used by the expression
+     */
+    static ExpressionNode compile(String expression, Function[] functions, Operator[] operators, Class<? extends ConfigurationVariable> variables, BitSet usedSlots) {
+        ConfigurationVariable[] constants = variables.getEnumConstants();
+
+        Map<String, Integer> slots = new HashMap<>();
+        for (int i = 0; i < constants.length; i++) {
+            slots.put(constants[i].getEquationAbbreviation(), i);
+        }
+
+        Map<String, Function> functionMap = new HashMap<>();
+        Arrays.stream(functions).forEach(f -> functionMap.put(f.getName(), f));
+        Map<String, Operator> operatorMap = new HashMap<>();
+        Arrays.stream(operators).forEach(o -> operatorMap.put(o.getSymbol(), o));
+
+        Set<String> variableNames = new HashSet<>(slots.keySet());
+        variableNames.addAll(CONSTANTS.keySet());
+
+        Token[] tokens = ShuntingYard.convertToRPN(expression, functionMap, operatorMap, variableNames, true);
+
+        Deque<ExpressionNode> stack = new ArrayDeque<>();
+        for (Token token : tokens) {
+            switch (token.getType()) {
+                case Token.TOKEN_NUMBER -> stack.push(constant(((NumberToken) token).getValue()));
+                case Token.TOKEN_VARIABLE -> stack.push(variable(((VariableToken) token).getName(), slots, usedSlots));
+                case Token.TOKEN_OPERATOR -> stack.push(operator(((OperatorToken) token).getOperator(), stack));
+                case Token.TOKEN_FUNCTION -> stack.push(function(((FunctionToken) token).getFunction(), stack));
+                default -> throw new IllegalArgumentException(String.format("Unexpected token type %d in expression %s", token.getType(), expression));
+            }
+        }
+
+        if (stack.size() != 1) {
+            throw new IllegalArgumentException(String.format("Invalid number of operands in expression %s", expression));
+        }
+
+        return stack.pop();
+    }
+
+    /* ### Helper Methods ### */
+
+    private static ExpressionNode constant(double value) {
+        return s -> value;
+    }
+
+    private static ExpressionNode variable(String name, Map<String, Integer> slots, BitSet usedSlots) {
+        if (CONSTANTS.containsKey(name)) {
+            return constant(CONSTANTS.get(name));
+        }
+
+        int slot = slots.get(name);
+        usedSlots.set(slot);
+        return s -> s[slot];
+    }
+
+    private static ExpressionNode operator(Operator operator, Deque<ExpressionNode> stack) {
+        if (stack.size() < operator.getNumOperands()) {
+            throw new IllegalArgumentException(String.format("Invalid number of operands for operator %s", operator.getSymbol()));
+        }
+
+        if (operator.getNumOperands() == 1) {
+            ExpressionNode operand = stack.pop();
+            return switch (operator.getSymbol()) {
+                case "-" -> s -> -operand.evaluate(s);
+                case "+" -> operand;
+                default -> s -> operator.apply(operand.evaluate(s));
+            };
+        }
+
+        ExpressionNode right = stack.pop();
+        ExpressionNode left = stack.pop();
+        return switch (operator.getSymbol()) {
+            case "+" -> s -> left.evaluate(s) + right.evaluate(s);
+            case "-" -> s -> left.evaluate(s) - right.evaluate(s);
+            case "*" -> s -> left.evaluate(s) * right.evaluate(s);
+            case "/" -> s -> divide(left.evaluate(s), right.evaluate(s));
+            case "^" -> s -> Math.pow(left.evaluate(s), right.evaluate(s));
+            default -> s -> operator.apply(left.evaluate(s), right.evaluate(s));
+        };
+    }
+
+    private static double divide(double dividend, double divisor) {
+        if (divisor == 0) {
+            // same behaviour as exp4j
+            throw new ArithmeticException("Division by zero!");
+        }
+        return dividend / divisor;
+    }
+
+    private static ExpressionNode function(Function function, Deque<ExpressionNode> stack) {
+        int numberOfArguments = function.getNumArguments();
+        if (stack.size() < numberOfArguments) {
+            throw new IllegalArgumentException(String.format("Invalid number of arguments for function %s", function.getName()));
+        }
+
+        ExpressionNode[] arguments = new ExpressionNode[numberOfArguments];
+        for (int i = numberOfArguments - 1; i >= 0; i--) {
+            arguments[i] = stack.pop();
+        }
+
+        return switch (numberOfArguments) {
+            case 1 -> s -> function.apply(arguments[0].evaluate(s));
+            case 2 -> s -> function.apply(arguments[0].evaluate(s), arguments[1].evaluate(s));
+            default -> s -> {
+                double[] values = new double[numberOfArguments];
+                for (int i = 0; i < numberOfArguments; i++) {
+                    values[i] = arguments[i].evaluate(s);
+                }
+                return function.apply(values);
+            };
+        };
+    }
+}
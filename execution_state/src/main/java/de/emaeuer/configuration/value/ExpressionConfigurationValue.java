@@ -1,8 +1,7 @@
 package de.emaeuer.configuration.value;
 
 import de.emaeuer.configuration.ConfigurationVariable;
-import net.objecthunter.exp4j.Expression;
-import net.objecthunter.exp4j.ExpressionBuilder;
+import de.emaeuer.configuration.value.ExpressionCompiler.ExpressionNode;
 import net.objecthunter.exp4j.function.Function;
 import net.objecthunter.exp4j.operator.Operator;
 import org.apache.logging.log4j.Level;
@@ -10,7 +9,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.Serial;
-import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Map;
 
 public class ExpressionConfigurationValue extends AbstractConfigurationValue<Double> {
@@ -20,7 +19,7 @@ public class ExpressionConfigurationValue extends AbstractConfigurationValue<Dou
     @Serial
     private static final long serialVersionUID = -8223344718883992821L;
 
-    private static final Function[] ADDITIONAL_FUNCTIONS = new Function[]{
+    static final Function[] ADDITIONAL_FUNCTIONS = new Function[]{
             new Function("max", 2) {
                 @Override
                 public double apply(double... doubles) {
@@ -47,11 +46,12 @@ public class ExpressionConfigurationValue extends AbstractConfigurationValue<Dou
             }
     };
 
-    private static final Operator[] ADDITIONAL_OPERATORS = new Operator[]{};
+    static final Operator[] ADDITIONAL_OPERATORS = new Operator[]{};
 
     private String expressionString;
 
-    private transient Expression expression; // transient --> exclude expression from serialization because is not serializable
+    // transient --> exclude compiled expression from serialization because is not serializable
+    private transient volatile CompiledExpression compiledExpression;
 
     private final Class<? extends ConfigurationVariable> variables;
 
@@ -63,7 +63,7 @@ public class ExpressionConfigurationValue extends AbstractConfigurationValue<Dou
     @Override
     public void setValue(String value) {
         this.expressionString = value;
-        this.expression = null; // just invalidate expression because it is initialized lazily
+        this.compiledExpression = null; // just invalidate expression because it is initialized lazily
     }
 
     @Override
@@ -73,19 +73,39 @@ public class ExpressionConfigurationValue extends AbstractConfigurationValue<Dou
 
     @Override
     public Double getValueForState(Map<String, Double> variables) {
-        if (this.expression == null) {
-            // lazy initialization of expression because of serialization
-            initializeExpression();
+        CompiledExpression expression = compile();
+        ConfigurationVariable[] constants = this.variables.getEnumConstants();
+
+        double[] slots = new double[constants.length];
+        for (int i = 0; i < constants.length; i++) {
+            Double value = variables.get(constants[i].getEquationAbbreviation());
+            if (value != null) {
+                slots[i] = value;
+            } else if (expression.dependsOn(i)) {
+                throw new IllegalArgumentException(String.format("No value has been set for the variable %s", constants[i].getEquationAbbreviation()));
+            }
         }
 
-        try {
-            return this.expression
-                    .setVariables(variables)
-                    .evaluate();
-        } catch (ArithmeticException e) {
-            LOG.log(Level.WARN, "Division by zero detected. Returned 0 as result", e);
-            return 0.0;
+        return expression.evaluate(slots);
+    }
+
+    /**
+     * Returns the compiled form of this expression which is evaluated with the values of the variables indexed by
+     * their ordinal. In contrast to {@link #getValueForState(Map)} no map has to be created and the evaluation is
+     * thread safe. A division by zero results in 0 (like in {@link #getValueForState(Map)}).
+     */
+    public CompiledExpression compile() {
+        CompiledExpression expression = this.compiledExpression;
+
+        if (expression == null) {
+            // lazy initialization of expression because of serialization
+            BitSet usedSlots = new BitSet();
+            ExpressionNode root = ExpressionCompiler.compile(this.expressionString, ADDITIONAL_FUNCTIONS, ADDITIONAL_OPERATORS, this.variables, usedSlots);
+            expression = new CompiledForm(root, usedSlots);
+            this.compiledExpression = expression;
         }
+
+        return expression;
     }
 
     @Override
@@ -93,16 +113,22 @@ public class ExpressionConfigurationValue extends AbstractConfigurationValue<Dou
         return new ExpressionConfigurationValue(this.expressionString, this.variables);
     }
 
-    private void initializeExpression() {
-        String[] variables = Arrays.stream(this.variables.getEnumConstants())
-                .map(ConfigurationVariable::getEquationAbbreviation)
-                .toArray(String[]::new);
+    private static record CompiledForm(ExpressionNode root, BitSet usedSlots) implements CompiledExpression {
 
-        this.expression = new ExpressionBuilder(this.expressionString)
-                .functions(ADDITIONAL_FUNCTIONS)
-                .operator(ADDITIONAL_OPERATORS)
-                .variables(variables)
-                .build();
+        @Override
+        public double evaluate(double[] slots) {
+            try {
+                return this.root.evaluate(slots);
+            } catch (ArithmeticException e) {
+                LOG.log(Level.WARN, "Division by zero detected. Returned 0 as result", e);
+                return 0.0;
+            }
+        }
+
+        @Override
+        public boolean dependsOn(int slot) {
+            return this.usedSlots.get(slot);
+        }
     }
 
     public Class<? extends ConfigurationVariable> getVariables() {
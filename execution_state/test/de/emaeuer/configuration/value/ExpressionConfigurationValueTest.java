@@ -0,0 +1,156 @@
+package de.emaeuer.configuration.value;
+
+import de.emaeuer.configuration.ConfigurationVariable;
+import net.objecthunter.exp4j.Expression;
+import net.objecthunter.exp4j.ExpressionBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExpressionConfigurationValueTest {
+
+    private enum TestVariable implements ConfigurationVariable {
+        SUM_OF_DIFFERENCES("s"),
+        POPULATION_SIZE("k"),
+        NUMBER_OF_VALUES("n"),
+        CONNECTION_PHEROMONE("c"),
+        TOPOLOGY_PHEROMONE("t"),
+        NUMBER_OF_VALUES_PENALTY("z"),
+        STANDARD_DEVIATION("d");
+
+        private final String abbreviation;
+
+        TestVariable(String abbreviation) {
+            this.abbreviation = abbreviation;
+        }
+
+        @Override
+        public String getName() {
+            return name();
+        }
+
+        @Override
+        public String getEquationAbbreviation() {
+            return this.abbreviation;
+        }
+    }
+
+    // the default expressions of the dann aco configuration
+    private static final String[] DEFAULT_EXPRESSIONS = {
+            "0.75(n/k)^2+0.1",
+            "0.75(n/k)+0.1",
+            "(k-n)/(n+1)",
+            "(s+z)/(k - 1)",
+            "max(min((c*t)/d, 1), 0)"
+    };
+
+    private static final String[] EDGE_CASES = {
+            // unary operators
+            "-k", "--k", "+k", "-k^2", "-(k^2)", "2*-k", "k - -n",
+            // associativity and precedence
+            "2^3^2", "k^n^0.5", "k-n-s", "k/n/s", "k/n*s", "k+n*s^2",
+            // implicit multiplication and constants
+            "2k", "2(k+n)", "k(n)", "pi*k", "e^k", "2pi",
+            // built in and additional functions
+            "sqrt(k)", "abs(-k)", "log(k+1)", "sin(k)*cos(n)", "pow(k, n)", "signum(n-k)",
+            "max(k, n)", "min(k, n)", "leq(k, n)", "geq(k, n)", "max(min(k, n), min(s, z))",
+            // modulo and division by zero
+            "k%3", "k/(n-n)", "0/0", "1/(k-k)+k"
+    };
+
+    /*
+     ##########################################################
+     ##################### Test Methods #######################
+     ##########################################################
+    */
+
+    @Test
+    public void testDefaultExpressionsEqualExp4j() {
+        Arrays.stream(DEFAULT_EXPRESSIONS).forEach(this::assertEqualsExp4j);
+    }
+
+    @Test
+    public void testEdgeCasesEqualExp4j() {
+        Arrays.stream(EDGE_CASES).forEach(this::assertEqualsExp4j);
+    }
+
+    @Test
+    public void testDivisionByZeroIsZero() {
+        ExpressionConfigurationValue value = new ExpressionConfigurationValue("k/(n-n)", TestVariable.class);
+        assertEquals(0, value.compile().evaluate(new double[]{0, 5, 2, 0, 0, 0, 0}));
+        assertEquals(0, value.getValueForState(Map.of("k", 5.0, "n", 2.0)));
+    }
+
+    @Test
+    public void testUsedVariables() {
+        CompiledExpression expression = new ExpressionConfigurationValue("(s+z)/(k - 1)", TestVariable.class).compile();
+
+        for (TestVariable variable : TestVariable.values()) {
+            boolean used = variable == TestVariable.SUM_OF_DIFFERENCES
+                    || variable == TestVariable.NUMBER_OF_VALUES_PENALTY
+                    || variable == TestVariable.POPULATION_SIZE;
+            assertEquals(used, expression.dependsOn(variable.ordinal()), variable.name());
+        }
+
+        ExpressionConfigurationValue value = new ExpressionConfigurationValue("k+n", TestVariable.class);
+        assertThrows(IllegalArgumentException.class, () -> value.getValueForState(Map.of("k", 1.0)));
+    }
+
+    @Test
+    public void testInvalidExpression() {
+        assertThrows(IllegalArgumentException.class, () -> new ExpressionConfigurationValue("k+", TestVariable.class).compile());
+        assertThrows(IllegalArgumentException.class, () -> new ExpressionConfigurationValue("k+x", TestVariable.class).compile());
+    }
+
+    /* ### Helper Methods ### */
+
+    private void assertEqualsExp4j(String expressionString) {
+        ExpressionConfigurationValue value = new ExpressionConfigurationValue(expressionString, TestVariable.class);
+        CompiledExpression compiled = value.compile();
+        Expression reference = createExp4jExpression(expressionString);
+
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            Map<String, Double> state = new HashMap<>();
+            double[] slots = new double[TestVariable.values().length];
+
+            for (TestVariable variable : TestVariable.values()) {
+                // small integers provoke zeros and equal values, the others cover the general case
+                double variableValue = i % 2 == 0 ? random.nextInt(5) : random.nextGaussian() * 10;
+                state.put(variable.getEquationAbbreviation(), variableValue);
+                slots[variable.ordinal()] = variableValue;
+            }
+
+            double expected = evaluateExp4j(reference, state);
+            String message = String.format("%s for %s", expressionString, state);
+            assertEquals(expected, compiled.evaluate(slots), 0, message);
+            assertEquals(expected, value.getValueForState(state), 0, message);
+        }
+    }
+
+    private Expression createExp4jExpression(String expressionString) {
+        // same configuration as the former exp4j based evaluation of the expression configuration value
+        String[] variables = Arrays.stream(TestVariable.values())
+                .map(ConfigurationVariable::getEquationAbbreviation)
+                .toArray(String[]::new);
+
+        return new ExpressionBuilder(expressionString)
+                .functions(ExpressionConfigurationValue.ADDITIONAL_FUNCTIONS)
+                .operator(ExpressionConfigurationValue.ADDITIONAL_OPERATORS)
+                .variables(variables)
+                .build();
+    }
+
+    private double evaluateExp4j(Expression expression, Map<String, Double> state) {
+        try {
+            return expression.setVariables(state).evaluate();
+        } catch (ArithmeticException e) {
+            return 0;
+        }
+    }
+}
@@ -153,12 +153,18 @@ public class WeightedRouletteSelector extends NaturalSelector {
 				chromosomes[ i ] = currentChromosome;
 			}
 
+			// The slots of the chromosomes are summed up in a binary indexed
+			// tree, so finding the selected slot and removing one instance
+			// of a chromosome from the wheel both take logarithmic time.
+			// ------------------------------------------------------------
+			long[] slotTree = createSlotTree( counterValues );
+
 			// To select each chromosome, we just "spin" the wheel and grab
 			// whichever chromosome it lands on.
 			// ------------------------------------------------------------
 			while ( result.size() < a_howManyToSelect ) {
 				Chromosome selectedChromosome = spinWheel( generator, fitnessValues, counterValues,
-						chromosomes );
+						slotTree, chromosomes );
 				selectedChromosome.setIsSelectedForNextGeneration( true );
 				result.add( selectedChromosome );
 			}
@@ -175,51 +181,46 @@ public class WeightedRouletteSelector extends NaturalSelector {
 	 * @param a_generator The random number generator to be used during the spinning process.
 	 * @param a_fitnessValues
 	 * @param a_counterValues
+	 * @param a_slotTree binary indexed tree of the counter values (see createSlotTree)
 	 * @param a_chromosomes
 	 * @return selected chromosome
 	 */
 	private Chromosome spinWheel( Random a_generator, int[] a_fitnessValues,
-			long[] a_counterValues, Chromosome[] a_chromosomes ) 
+			long[] a_counterValues, long[] a_slotTree, Chromosome[] a_chromosomes ) 
 {
 		// Randomly choose a slot on the wheel.
 		// ------------------------------------
 		long selectedSlot = Math.abs( a_generator.nextLong() % m_totalNumberOfUsedSlots );
 
-		// Loop through the wheel until we find our selected slot. Here's
-		// how this works: we have three arrays, one with the fitness values
-		// of the chromosomes, one with the total number of slots on the
-		// wheel that each chromosome occupies (its counter value), and
-		// one with the chromosomes themselves. The array indices associate
-		// each of the three together (eg, if a chromosome is at index 5,
-		// then its fitness value and counter value are also at index 5 of
-		// their respective arrays).
-		//
-		// We've already chosen a random slot number on the wheel from which
-		// we want to select the Chromosome. We loop through each of the
-		// array indices and, for each one, we add the number of occupied slots
-		// (the counter value) to an ongoing total until that total
-		// reaches or exceeds the chosen slot number. When that happenes,
-		// we've found the chromosome sitting in that slot and we return it.
+		// Descend the tree to find the first chromosome whose accumulated
+		// number of occupied slots exceeds the selected slot number. This
+		// is the same chromosome a linear walk over the counter values
+		// would land on.
 		// ------------------------------------------------------------------
-		long currentSlot = 0;
+		int position = 0;
+		long remainingSlots = selectedSlot;
+
+		for ( int step = Integer.highestOneBit( a_counterValues.length ); step > 0; step >>= 1 ) {
+			int next = position + step;
+			if ( next < a_slotTree.length && a_slotTree[ next ] <= remainingSlots ) {
+				position = next;
+				remainingSlots -= a_slotTree[ next ];
+			}
+		}
 
-		for ( int i = 0; i < a_counterValues.length; i++ ) {
-			// Increment our ongoing total and see if we've landed on the
-			// selected slot.
-			// ----------------------------------------------------------
-			currentSlot += a_counterValues[ i ];
-
-			if ( currentSlot > selectedSlot ) {
-				// Remove one instance of the chromosome from the wheel by
-				// decrementing the slot counter by the fitness value.
-				// --------------------------------------------------------
-				a_counterValues[ i ] -= a_fitnessValues[ i ];
-				m_totalNumberOfUsedSlots -= a_fitnessValues[ i ];
-
-				// Now return our selected Chromosome
-				// ----------------------------------
-				return a_chromosomes[ i ];
+		if ( position < a_counterValues.length ) {
+			// Remove one instance of the chromosome from the wheel by
+			// decrementing the slot counter by the fitness value.
+			// --------------------------------------------------------
+			a_counterValues[ position ] -= a_fitnessValues[ position ];
+			m_totalNumberOfUsedSlots -= a_fitnessValues[ position ];
+			for ( int i = position + 1; i < a_slotTree.length; i += Integer.lowestOneBit( i ) ) {
+				a_slotTree[ i ] -= a_fitnessValues[ position ];
 			}
+
+			// Now return our selected Chromosome
+			// ----------------------------------
+			return a_chromosomes[ position ];
 		}
 
 		// If we have reached here, it means we have not found any chromosomes
@@ -239,6 +240,27 @@ public class WeightedRouletteSelector extends NaturalSelector {
 				+ selectedSlot + " " + "exceeded " + totalSlotsLeft + " number of slots left." );
 	}
 
+	/**
+	 * Builds a binary indexed tree (1-based) over the counter values in linear time. The entry i
+	 * holds the sum of the counter values in the range (i - lowestOneBit(i), i].
+	 * 
+	 * @param a_counterValues
+	 * @return the tree
+	 */
+	private static long[] createSlotTree( long[] a_counterValues ) {
+		long[] tree = new long[ a_counterValues.length + 1 ];
+
+		for ( int i = 1; i < tree.length; i++ ) {
+			tree[ i ] += a_counterValues[ i - 1 ];
+			int parent = i + Integer.lowestOneBit( i );
+			if ( parent < tree.length ) {
+				tree[ parent ] += tree[ i ];
+			}
+		}
+
+		return tree;
+	}
+
 	/**
 	 * Empty out the working pool of Chromosomes.
 	 */
@@ -1,22 +1,37 @@
 package de.emaeuer.ann;
 
+import de.emaeuer.ann.util.MathUtil;
+
 import java.util.Arrays;
-import java.util.function.DoubleFunction;
+import java.util.function.DoubleUnaryOperator;
 
-public enum ActivationFunction implements DoubleFunction<Double> {
+/**
+ * Activation functions of the neurons. Each function has an exact implementation and an approximation which is used
+ * if fast math is enabled ({@link de.emaeuer.ann.configuration.NeuralNetworkConfiguration#FAST_MATH}). The
+ * approximations of {@link #TANH} and {@link #SIGMOID} have an absolute error below 1e-4 and 5e-5 respectively
+ * (see {@link MathUtil#fastTanh(double)}), all other functions are exact anyway.
+ */
+public enum ActivationFunction implements DoubleUnaryOperator {
 
     LINEAR_UNTIL_SATURATION(v -> Math.max(Math.min(v, 1), 0), 0, 1),
     IDENTITY(v -> v, Integer.MIN_VALUE, Integer.MAX_VALUE),
     RELU(v -> Math.max(0, v), 0, Integer.MAX_VALUE),
-    SIGMOID(v -> 1 / (1 + Math.exp(-v * 4.9)), 0, 1),
-    TANH(Math::tanh, -1 , 1);
+    // 1 / (1 + e^(-4.9v)) = 0.5 + 0.5 * tanh(2.45v)
+    SIGMOID(v -> 1 / (1 + Math.exp(-v * 4.9)), v -> 0.5 + 0.5 * MathUtil.fastTanh(2.45 * v), 0, 1),
+    TANH(Math::tanh, MathUtil::fastTanh, -1 , 1);
 
-    private final DoubleFunction<Double> activationFunction;
+    private final DoubleUnaryOperator activationFunction;
+    private final DoubleUnaryOperator approximation;
     private final double minActivation;
     private final double maxActivation;
 
-    ActivationFunction(DoubleFunction<Double> activationFunction, double minActivation, double maxActivation) {
+    ActivationFunction(DoubleUnaryOperator activationFunction, double minActivation, double maxActivation) {
+        this(activationFunction, activationFunction, minActivation, maxActivation);
+    }
+
+    ActivationFunction(DoubleUnaryOperator activationFunction, DoubleUnaryOperator approximation, double minActivation, double maxActivation) {
         this.activationFunction = activationFunction;
+        this.approximation = approximation;
         this.minActivation = minActivation;
         this.maxActivation = maxActivation;
     }
@@ -27,13 +42,31 @@ public enum ActivationFunction implements DoubleFunction<Double> {
                 .toArray(String[]::new);
     }
 
-    public DoubleFunction<Double> getActivationFunction() {
+    public DoubleUnaryOperator getActivationFunction() {
         return activationFunction;
     }
 
+    public DoubleUnaryOperator getActivationFunction(boolean fastMath) {
+        return fastMath ? this.approximation : this.activationFunction;
+    }
+
     @Override
-    public Double apply(double value) {
-        return this.activationFunction.apply(value);
+    public double applyAsDouble(double value) {
+        return this.activationFunction.applyAsDouble(value);
+    }
+
+    public double applyAsDouble(double value, boolean fastMath) {
+        return fastMath ? this.approximation.applyAsDouble(value) : this.activationFunction.applyAsDouble(value);
+    }
+
+    /**
+     * Applies the activation function in place to all values in the range [from, to).
+     */
+    public void apply(double[] values, int from, int to, boolean fastMath) {
+        DoubleUnaryOperator function = getActivationFunction(fastMath);
+        for (int i = from; i < to; i++) {
+            values[i] = function.applyAsDouble(values[i]);
+        }
     }
 
     public double getMaxActivation() {
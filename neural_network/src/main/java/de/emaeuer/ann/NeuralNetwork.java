@@ -1,6 +1,7 @@
 package de.emaeuer.ann;
 
 import de.emaeuer.ann.impl.layer.based.NeuralNetworkBuilderImpl;
+import de.emaeuer.ann.util.NeuralNetworkUtil;
 import org.apache.commons.math3.linear.RealVector;
 
 import java.util.List;
@@ -13,6 +14,22 @@ public interface NeuralNetwork {
 
     RealVector process(RealVector input);
 
+    /**
+     * Allocation free variant of {@link #process(RealVector)}.
+     *
+     * @param input activation of the input neurons
+     * @param output array which is filled with the activation of the output neurons (has to match the output layer size)
+     */
+    void process(double[] input, double[] output);
+
+    /**
+     * Processes multiple inputs at once. The result is equal to sequential processing of all inputs.
+     *
+     * @param inputs one input per row
+     * @return the activation of the output neurons for each input (one row per input)
+     */
+    double[][] processBatch(double[][] inputs);
+
     NeuralNetworkModifier modify();
 
     int getDepth();
@@ -37,6 +54,13 @@ public interface NeuralNetwork {
 
     NeuralNetwork copy();
 
+    /**
+     * Marks this neural network as template which is copied often. Implementations may share the topology with all
+     * further copies until one of them is modified. Copying never modifies the copied neural network, hence only this
+     * method has to be called before the neural network is copied concurrently.
+     */
+    default void shareTopologyWithCopies() {}
+
     boolean isOutputNeuron(NeuronID currentNeuron);
 
     boolean isInputNeuron(NeuronID currentNeuron);
@@ -54,4 +78,14 @@ public interface NeuralNetwork {
     boolean recurrentIsDisabled();
 
     int getNumberOfHiddenNeurons();
+
+    int getNumberOfConnections();
+
+    /**
+     * Order independent 64 bit fingerprint of the connections of this neural network. Neural networks with the same
+     * connections have the same fingerprint. Implementations may maintain the fingerprint incrementally.
+     */
+    default long getTopologyFingerprint() {
+        return NeuralNetworkUtil.calculateTopologyFingerprint(this);
+    }
 }
@@ -13,7 +13,12 @@ public enum NeuralNetworkConfiguration implements DefaultConfiguration<NeuralNet
     OUTPUT_ACTIVATION_FUNCTION("Output layer activation function", new StringConfigurationValue(ActivationFunction.TANH.name(), ActivationFunction.getNames())),
     INPUT_ACTIVATION_FUNCTION("Input layer activation function", new StringConfigurationValue(ActivationFunction.TANH.name(), ActivationFunction.getNames())),
     HIDDEN_ACTIVATION_FUNCTION("Hidden layer activation function", new StringConfigurationValue(ActivationFunction.TANH.name(), ActivationFunction.getNames())),
-    DISABLE_RECURRENT_CONNECTIONS("Disable recurrent connections", new BooleanConfigurationValue(false));
+    DISABLE_RECURRENT_CONNECTIONS("Disable recurrent connections", new BooleanConfigurationValue(false)),
+    COMPILED_EVALUATION("Evaluate with compiled flat array representation", new BooleanConfigurationValue(false)),
+    // approximation error of the activation functions is below 1e-4 (see ActivationFunction)
+    FAST_MATH("Use fast approximations of the activation functions", new BooleanConfigurationValue(false)),
+    SHARED_TOPOLOGY_COPY("Share the topology of copies until it is modified", new BooleanConfigurationValue(false)),
+    ADJACENCY_INDEX("Keep a bitset adjacency matrix for connection queries", new BooleanConfigurationValue(false));
 
     private final String name;
     private final AbstractConfigurationValue<?> defaultValue;
@@ -4,10 +4,12 @@ import de.emaeuer.ann.NeuralNetwork;
 import de.emaeuer.ann.NeuronID;
 import de.emaeuer.ann.configuration.NeuralNetworkConfiguration;
 import de.emaeuer.configuration.ConfigurationHandler;
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.RealMatrix;
 import org.apache.commons.math3.linear.RealVector;
 
 import java.util.*;
-import java.util.function.Predicate;
 
 public class NeuralNetworkImpl implements NeuralNetwork {
 
@@ -19,26 +21,72 @@ public class NeuralNetworkImpl implements NeuralNetwork {
 
     private boolean usesExplicitBias = true;
 
+    private final boolean fastMath;
+
     public NeuralNetworkImpl() {
         this(new ConfigurationHandler<>(NeuralNetworkConfiguration.class));
     }
     public NeuralNetworkImpl(ConfigurationHandler<NeuralNetworkConfiguration> configuration) {
         this.configuration = configuration;
+        this.fastMath = configuration.getValue(NeuralNetworkConfiguration.FAST_MATH, Boolean.class);
     }
 
     @Override
     public RealVector process(RealVector input) {
-        if (!usesExplicitBias()) {
-            // append 1 as activation of on neuron which represents the bias neuron
-            input = input.append(1);
-        }
+        double[] output = new double[this.layers.get(this.layers.size() - 1).getNumberOfNeurons()];
+        process(input.toArray(), output);
+        return new ArrayRealVector(output, false);
+    }
+
+    @Override
+    public void process(double[] input, double[] output) {
+        // if no explicit bias is used the on neuron which represents the bias neuron has always the activation 1
+        this.layers.get(0).processExternalInput(input, !usesExplicitBias());
 
-        RealVector output = this.layers.get(0).process(input);
         for (int i = 1; i < this.layers.size(); i++) {
             // input vector doesn't have to be passed to the other layers because they retrieve the data from the input layer
-            output = this.layers.get(i).process();
+            this.layers.get(i).processInternalInput();
+        }
+
+        this.layers.get(this.layers.size() - 1).copyActivation(output);
+    }
+
+    /**
+     * Processes all inputs in one pass by matrix multiplications if the neural network is feed forward. Otherwise
+     * the inputs are processed sequentially because the result of each input depends on the previous ones.
+     */
+    @Override
+    public double[][] processBatch(double[][] inputs) {
+        if (inputs.length == 0) {
+            // a matrix without rows can't be created
+            return new double[0][];
+        }
+
+        NeuralNetworkLayerImpl outputLayer = this.layers.get(this.layers.size() - 1);
+
+        if (!isFeedForward()) {
+            double[][] outputs = new double[inputs.length][outputLayer.getNumberOfNeurons()];
+            for (int i = 0; i < inputs.length; i++) {
+                process(inputs[i], outputs[i]);
+            }
+            return outputs;
+        }
+
+        List<RealMatrix> batchActivations = new ArrayList<>(this.layers.size());
+        batchActivations.add(this.layers.get(0).processExternalInputBatch(inputs, !usesExplicitBias()));
+
+        for (int i = 1; i < this.layers.size(); i++) {
+            batchActivations.add(this.layers.get(i).processInternalInputBatch(batchActivations, inputs.length));
         }
-        return output;
+
+        RealMatrix output = batchActivations.get(batchActivations.size() - 1);
+        return output instanceof Array2DRowRealMatrix matrix ? matrix.getDataRef() : output.getData();
+    }
+
+    private boolean isFeedForward() {
+        return this.layers.stream()
+                .skip(1)
+                .allMatch(NeuralNetworkLayerImpl::isFeedForward);
     }
 
     @Override
@@ -185,11 +233,27 @@ public class NeuralNetworkImpl implements NeuralNetwork {
 
     @Override
     public int getNumberOfHiddenNeurons() {
-        return this.layers.stream()
-                .filter(Predicate.not(NeuralNetworkLayerImpl::isInputLayer))
-                .filter(Predicate.not(NeuralNetworkLayerImpl::isOutputLayer))
-                .mapToInt(NeuralNetworkLayerImpl::getNumberOfNeurons)
-                .sum();
+        int numberOfHiddenNeurons = 0;
+        for (NeuralNetworkLayerImpl layer : this.layers) {
+            if (!layer.isInputLayer() && !layer.isOutputLayer()) {
+                numberOfHiddenNeurons += layer.getNumberOfNeurons();
+            }
+        }
+        return numberOfHiddenNeurons;
+    }
+
+    @Override
+    public int getNumberOfConnections() {
+        // each layer counts the connections to its neurons
+        int numberOfConnections = 0;
+        for (NeuralNetworkLayerImpl layer : this.layers) {
+            numberOfConnections += layer.getNumberOfIncomingConnections();
+        }
+        return numberOfConnections;
+    }
+
+    public boolean usesFastMath() {
+        return this.fastMath;
     }
 
     public void setUsesExplicitBias(boolean value) {
@@ -148,8 +148,9 @@ public class NeuralNetworkLayerBuilderImpl implements NeuralNetworkLayerBuilder
         }
 
         for (Entry<NeuronID, Map<NeuronID, Double>> entry : this.connections.entrySet()) {
-            // add input neuron
-            NeuronID start = entry.getKey();
+            // add input neuron (use the reference of the start layer because shifting a neuron changes it in place)
+            NeuralNetworkLayerImpl startLayer = this.layer.getNeuralNetwork().getLayer(entry.getKey().getLayerIndex());
+            NeuronID start = startLayer.getNeurons().get(entry.getKey().getNeuronIndex());
             this.layer.getInputNeurons().add(start);
             for (Entry<NeuronID, Double> connection : entry.getValue().entrySet()) {
                 NeuronID end = connection.getKey();
@@ -159,9 +160,7 @@ public class NeuralNetworkLayerBuilderImpl implements NeuralNetworkLayerBuilder
                 this.layer.getWeights().setEntry(end.getNeuronIndex(), this.layer.getInputNeurons().indexOf(start), weight);
 
                 // register connection in corresponding layers
-                this.layer.getIncomingConnections().putIfAbsent(end, new ArrayList<>());
-                this.layer.getIncomingConnections().get(end).add(start);
-                NeuralNetworkLayerImpl startLayer = this.layer.getNeuralNetwork().getLayer(start.getLayerIndex());
+                this.layer.addIncomingConnection(start, end);
                 startLayer.getOutgoingConnections().putIfAbsent(start, new ArrayList<>());
                 startLayer.getOutgoingConnections().get(start).add(end);
             }
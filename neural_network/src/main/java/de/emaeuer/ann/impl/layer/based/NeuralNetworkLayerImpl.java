@@ -3,6 +3,7 @@ package de.emaeuer.ann.impl.layer.based;
 import de.emaeuer.ann.ActivationFunction;
 import de.emaeuer.ann.LayerType;
 import de.emaeuer.ann.NeuronID;
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
 import org.apache.commons.math3.linear.ArrayRealVector;
 import org.apache.commons.math3.linear.RealMatrix;
 import org.apache.commons.math3.linear.RealVector;
@@ -23,6 +24,12 @@ public class NeuralNetworkLayerImpl {
     private RealVector bias;
     private RealVector activation = null;
 
+    // gather plan of the input neurons (layer and neuron index) which is refreshed after structural changes
+    private int[] sourceLayers;
+    private int[] sourceNeurons;
+    private double[][] sourceActivations;
+    private double[] inputBuffer;
+
     private final List<NeuronID> neuronsOfLayer = new ArrayList<>();
     private final List<NeuronID> inputNeurons = new ArrayList<>();
 
@@ -30,6 +37,7 @@ public class NeuralNetworkLayerImpl {
 
     private final Map<NeuronID, List<NeuronID>> incomingConnections = new HashMap<>();
     private final Map<NeuronID, List<NeuronID>> outgoingConnections = new HashMap<>();
+    private int numberOfIncomingConnections = 0;
 
     private final NeuralNetworkLayerModifier modifier = new NeuralNetworkLayerModifier(this);
 
@@ -41,52 +49,234 @@ public class NeuralNetworkLayerImpl {
     }
 
     public RealVector process(RealVector externalInput) {
+        processExternalInput(externalInput.toArray(), false);
+        return this.activation;
+    }
+
+    public RealVector process() {
+        processInternalInput();
+        return this.activation;
+    }
+
+    /**
+     * Applies the activation function to the external input and writes the result into the activation of this
+     * input layer. If an on neuron is used its value (1) is appended to the external input.
+     */
+    void processExternalInput(double[] externalInput, boolean appendOnNeuron) {
         if (!isInputLayer()) {
             throw new IllegalArgumentException("Only the input layer can process an external input vector");
         }
-        return processVector(externalInput);
+
+        int inputSize = externalInput.length + (appendOnNeuron ? 1 : 0);
+        if (this.activation == null || this.activation.getDimension() != inputSize) {
+            // the input layer adapts to the size of the external input
+            this.activation = new ArrayRealVector(inputSize);
+        }
+
+        double[] activationData = getActivationData();
+        System.arraycopy(externalInput, 0, activationData, 0, externalInput.length);
+
+        if (appendOnNeuron) {
+            activationData[externalInput.length] = 1;
+        }
+
+        this.activationFunction.apply(activationData, 0, activationData.length, usesFastMath());
     }
 
-    public RealVector process() {
+    /**
+     * Calculates the activation of this hidden or output layer based on the last activations of its input neurons
+     * and writes the result into the activation of this layer.
+     */
+    void processInternalInput() {
         if (isInputLayer()) {
             throw new IllegalArgumentException("The input layer needs an input vector to process");
         }
-        return processVector(buildInputVector());
+
+        // the complete input is gathered before the activation is changed because of recurrent connections in this layer
+        double[] input = buildInputVector();
+        double[] activationData = getActivationData();
+        double[][] weightData = getWeightData();
+
+        for (int neuron = 0; neuron < activationData.length; neuron++) {
+            double weightedSum = 0;
+            if (weightData != null) {
+                double[] weightsOfNeuron = weightData[neuron];
+                for (int i = 0; i < input.length; i++) {
+                    weightedSum += weightsOfNeuron[i] * input[i];
+                }
+            }
+
+            // bias is optional and can be realized by the use of an on neuron and its weights
+            if (this.bias != null) {
+                weightedSum += this.bias.getEntry(neuron);
+            }
+
+            activationData[neuron] = weightedSum;
+        }
+
+        this.activationFunction.apply(activationData, 0, activationData.length, usesFastMath());
     }
 
-    private RealVector processVector(RealVector vector) {
-        // the activation of the input layer is the result of the activation function applied to the external input
-        RealVector output = switch (type) {
-            case INPUT -> vector.map(this.activationFunction.getActivationFunction()::apply);
-            case OUTPUT, HIDDEN -> applyWeightsBiasAndActivation(vector);
-        };
+    /**
+     * Batch variant of {@link #processExternalInput(double[], boolean)}. Each row of the result contains the
+     * activation of this layer for the corresponding input row.
+     */
+    RealMatrix processExternalInputBatch(double[][] externalInputs, boolean appendOnNeuron) {
+        if (!isInputLayer()) {
+            throw new IllegalArgumentException("Only the input layer can process an external input vector");
+        }
+
+        double[][] result = new double[externalInputs.length][];
+        for (int sample = 0; sample < externalInputs.length; sample++) {
+            double[] input = externalInputs[sample];
+            double[] row = Arrays.copyOf(input, input.length + (appendOnNeuron ? 1 : 0));
+            if (appendOnNeuron) {
+                row[input.length] = 1;
+            }
+            this.activationFunction.apply(row, 0, row.length, usesFastMath());
+            result[sample] = row;
+        }
 
-        this.activation = output;
-        return output;
+        return storeLastSample(new Array2DRowRealMatrix(result, false));
     }
 
-    private RealVector applyWeightsBiasAndActivation(RealVector vector) {
-        RealVector weightedResult;
+    /**
+     * Batch variant of {@link #processInternalInput()} which calculates the activations of all samples by one matrix
+     * multiplication. Only valid for layers without recurrent connections because the samples are processed
+     * independently of each other.
+     *
+     * @param batchActivations the activations (samples x neurons) of all previous layers indexed by the layer index
+     */
+    RealMatrix processInternalInputBatch(List<RealMatrix> batchActivations, int numberOfSamples) {
+        if (isInputLayer()) {
+            throw new IllegalArgumentException("The input layer needs an input vector to process");
+        } else if (!isFeedForward()) {
+            throw new IllegalStateException(String.format("Layer %d can't process a batch because it has recurrent connections", this.layerIndex));
+        }
+
+        RealMatrix weightedSums;
         if (this.weights == null) {
             // this layer has no incoming connections --> activation equals bias
-            weightedResult = new ArrayRealVector(this.getNumberOfNeurons());
+            weightedSums = new Array2DRowRealMatrix(numberOfSamples, getNumberOfNeurons());
         } else {
-            weightedResult = weights.operate(vector);
+            refreshGatherPlan();
+            double[][] input = new double[numberOfSamples][this.sourceLayers.length];
+            for (int i = 0; i < this.sourceLayers.length; i++) {
+                RealMatrix sourceActivation = batchActivations.get(this.sourceLayers[i]);
+                for (int sample = 0; sample < numberOfSamples; sample++) {
+                    input[sample][i] = sourceActivation.getEntry(sample, this.sourceNeurons[i]);
+                }
+            }
+            weightedSums = new Array2DRowRealMatrix(input, false).multiply(this.weights.transpose());
+        }
+
+        double[][] result = weightedSums.getData();
+        for (double[] row : result) {
+            // bias is optional and can be realized by the use of an on neuron and its weights
+            if (this.bias != null) {
+                for (int neuron = 0; neuron < row.length; neuron++) {
+                    row[neuron] += this.bias.getEntry(neuron);
+                }
+            }
+            this.activationFunction.apply(row, 0, row.length, usesFastMath());
+        }
+
+        return storeLastSample(new Array2DRowRealMatrix(result, false));
+    }
+
+    private RealMatrix storeLastSample(RealMatrix batchActivation) {
+        // the activation of the layer equals the activation after sequential processing of all samples
+        if (batchActivation.getRowDimension() > 0) {
+            this.activation = batchActivation.getRowVector(batchActivation.getRowDimension() - 1);
         }
+        return batchActivation;
+    }
+
+    /**
+     * @return true if this layer only receives input from previous layers
+     */
+    boolean isFeedForward() {
+        return this.inputNeurons.stream()
+                .allMatch(n -> n.getLayerIndex() < this.layerIndex);
+    }
 
-        // bias is optional and can be realized by the use of an on neuron and its weights
-        if (this.bias != null) {
-            weightedResult = weightedResult.add(this.bias);
+    private double[] buildInputVector() {
+        refreshGatherPlan();
+
+        List<NeuralNetworkLayerImpl> layers = this.neuralNetwork.getLayers();
+        if (this.sourceActivations == null || this.sourceActivations.length != layers.size()) {
+            this.sourceActivations = new double[layers.size()][];
+        }
+        for (int i = 0; i < this.sourceActivations.length; i++) {
+            // the activation vectors are replaced if a layer grows or shrinks --> retrieve the current ones each time
+            this.sourceActivations[i] = layers.get(i).getActivationData();
         }
 
-        return weightedResult.map(this.activationFunction.getActivationFunction()::apply);
+        for (int i = 0; i < this.inputBuffer.length; i++) {
+            this.inputBuffer[i] = this.sourceActivations[this.sourceLayers[i]][this.sourceNeurons[i]];
+        }
+
+        return this.inputBuffer;
     }
 
+    private void refreshGatherPlan() {
+        if (this.sourceLayers != null) {
+            return;
+        }
 
-    private RealVector buildInputVector() {
-        return new ArrayRealVector(this.inputNeurons.stream()
-                .mapToDouble(this.neuralNetwork::getLastActivationOf)
-                .toArray());
+        int numberOfInputs = this.inputNeurons.size();
+        this.sourceLayers = new int[numberOfInputs];
+        this.sourceNeurons = new int[numberOfInputs];
+        for (int i = 0; i < numberOfInputs; i++) {
+            NeuronID source = this.inputNeurons.get(i);
+            this.sourceLayers[i] = source.getLayerIndex();
+            this.sourceNeurons[i] = source.getNeuronIndex();
+        }
+
+        if (this.inputBuffer == null || this.inputBuffer.length != numberOfInputs) {
+            this.inputBuffer = new double[numberOfInputs];
+        }
+    }
+
+    /**
+     * Discards the gather plan of the input neurons. Has to be called if the input neurons of this layer or the
+     * ids of neurons in the neural network change.
+     */
+    void invalidateGatherPlan() {
+        this.sourceLayers = null;
+        this.sourceNeurons = null;
+    }
+
+    private boolean usesFastMath() {
+        return this.neuralNetwork != null && this.neuralNetwork.usesFastMath();
+    }
+
+    private double[] getActivationData() {
+        if (!(this.activation instanceof ArrayRealVector)) {
+            this.activation = new ArrayRealVector(this.activation);
+        }
+        return ((ArrayRealVector) this.activation).getDataRef();
+    }
+
+    private double[][] getWeightData() {
+        if (this.weights == null) {
+            // this layer has no incoming connections --> activation equals bias
+            return null;
+        } else if (this.weights instanceof Array2DRowRealMatrix matrix) {
+            return matrix.getDataRef();
+        }
+        return this.weights.getData();
+    }
+
+    void copyActivation(double[] output) {
+        if (output.length != getNumberOfNeurons()) {
+            throw new IllegalArgumentException(String.format(
+                    "The size of the output array %d doesn't match the number of neurons %d", output.length, getNumberOfNeurons()));
+        }
+
+        for (int i = 0; i < output.length; i++) {
+            output[i] = this.activation.getEntry(i);
+        }
     }
 
     public int getLayerIndex() {
@@ -260,6 +450,17 @@ public class NeuralNetworkLayerImpl {
 
         this.getIncomingConnections().putIfAbsent(end, new ArrayList<>());
         this.getIncomingConnectionsOfNeuron(end).add(start);
+        this.numberOfIncomingConnections++;
+    }
+
+    public void removeIncomingConnection(NeuronID start, NeuronID end) {
+        if (this.getIncomingConnectionsOfNeuron(end).remove(start)) {
+            this.numberOfIncomingConnections--;
+        }
+    }
+
+    public int getNumberOfIncomingConnections() {
+        return this.numberOfIncomingConnections;
     }
 
     public NeuralNetworkLayerImpl copy(NeuralNetworkImpl copyNn, Map<NeuronID, NeuronID> existingNeurons) {
@@ -279,6 +480,7 @@ public class NeuralNetworkLayerImpl {
         copyNeuronCollection(existingNeurons, this.inputNeurons, copy.inputNeurons);
         copyNeuronCollection(existingNeurons, this.incomingConnections, copy.incomingConnections);
         copyNeuronCollection(existingNeurons, this.outgoingConnections, copy.outgoingConnections);
+        copy.numberOfIncomingConnections = this.numberOfIncomingConnections;
 
         return copy;
     }
@@ -5,6 +5,7 @@ import de.emaeuer.ann.NeuronID;
 import de.emaeuer.ann.util.MathUtil;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.IntStream;
 
 public class NeuralNetworkLayerModifier {
@@ -21,7 +22,7 @@ public class NeuralNetworkLayerModifier {
         }
 
         // unregister the connection
-        this.layer.getIncomingConnectionsOfNeuron(end).remove(start);
+        this.layer.removeIncomingConnection(start, end);
         this.layer.getNeuralNetwork().getLayer(start.getLayerIndex()).getOutgoingConnectionsOfNeuron(start).remove(end);
 
         // update the weight matrix
@@ -80,6 +81,7 @@ public class NeuralNetworkLayerModifier {
             // this layer doesn't already have connections to the start neuron --> add it to input neurons and new column to matrix
             this.layer.getInputNeurons().add(start);
             this.layer.setWeights(MathUtil.addColumnToMatrix(this.layer.getWeights()));
+            this.layer.invalidateGatherPlan();
         }
         this.layer.getWeights().setEntry(end.getNeuronIndex(), this.layer.getInputNeurons().indexOf(start), weight);
 
@@ -154,6 +156,7 @@ public class NeuralNetworkLayerModifier {
         // apply changes to the oldValue to keep all references to the old value
         oldValue.setLayerIndex(newValue.getLayerIndex());
         oldValue.setNeuronIndex(newValue.getNeuronIndex());
+        invalidateGatherPlans();
 
         // add the connections under the new key (only if the key existed previously)
         if (!outgoingConnections.isEmpty()) {
@@ -175,9 +178,22 @@ public class NeuralNetworkLayerModifier {
         if (neuronIndex != -1) {
             this.layer.getInputNeurons().remove(neuronIndex);
             this.layer.setWeights(MathUtil.removeColumnFromMatrix(this.layer.getWeights(), neuronIndex));
+            this.layer.invalidateGatherPlan();
         }
     }
 
+    private void invalidateGatherPlans() {
+        // the changed neuron may be an input neuron of every layer
+        if (this.layer.getNeuralNetwork() == null) {
+            this.layer.invalidateGatherPlan();
+            return;
+        }
+
+        this.layer.getNeuralNetwork().getLayers().stream()
+                .filter(Objects::nonNull) // placeholder of a layer which is currently inserted
+                .forEach(NeuralNetworkLayerImpl::invalidateGatherPlan);
+    }
+
 
 
 }
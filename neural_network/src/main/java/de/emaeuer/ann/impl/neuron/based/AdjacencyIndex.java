@@ -0,0 +1,163 @@
+package de.emaeuer.ann.impl.neuron.based;
+
+import de.emaeuer.ann.NeuronID;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Dense bitset adjacency matrix of a {@link NeuronBasedNeuralNetwork}. The neurons are addressed by compact ordinals
+ * which are derived from their ids: input (and bias) neurons first, followed by the output and the hidden neurons.
+ * Hidden neurons are appended at the end, so only the removal of a hidden neuron shifts ordinals.
+ */
+class AdjacencyIndex {
+
+    private static final BitSet EMPTY_ROW = new BitSet();
+
+    private final int numberOfInputNeurons;
+    private final int numberOfOutputNeurons;
+
+    // row i contains the ordinals of the targets (sources) of neuron i
+    private final List<BitSet> outgoing;
+    private final List<BitSet> incoming;
+
+    /**
+     * @param numberOfInputNeurons number of neurons in layer 0 (including the bias neuron)
+     * @param numberOfOutputNeurons number of neurons in layer 2
+     */
+    AdjacencyIndex(int numberOfInputNeurons, int numberOfOutputNeurons) {
+        this.numberOfInputNeurons = numberOfInputNeurons;
+        this.numberOfOutputNeurons = numberOfOutputNeurons;
+        this.outgoing = new ArrayList<>();
+        this.incoming = new ArrayList<>();
+    }
+
+    private AdjacencyIndex(AdjacencyIndex other) {
+        this.numberOfInputNeurons = other.numberOfInputNeurons;
+        this.numberOfOutputNeurons = other.numberOfOutputNeurons;
+        this.outgoing = copyRows(other.outgoing);
+        this.incoming = copyRows(other.incoming);
+    }
+
+    AdjacencyIndex copy() {
+        return new AdjacencyIndex(this);
+    }
+
+    void addConnection(NeuronID start, NeuronID end) {
+        int startOrdinal = ordinalOf(start);
+        int endOrdinal = ordinalOf(end);
+
+        modifiableRow(this.outgoing, startOrdinal).set(endOrdinal);
+        modifiableRow(this.incoming, endOrdinal).set(startOrdinal);
+    }
+
+    void removeConnection(NeuronID start, NeuronID end) {
+        int startOrdinal = ordinalOf(start);
+        int endOrdinal = ordinalOf(end);
+
+        modifiableRow(this.outgoing, startOrdinal).clear(endOrdinal);
+        modifiableRow(this.incoming, endOrdinal).clear(startOrdinal);
+    }
+
+    /**
+     * Removes the ordinal of a disconnected hidden neuron and shifts the ordinals of all following hidden neurons.
+     */
+    void removeHiddenNeuron(NeuronID neuron) {
+        int ordinal = ordinalOf(neuron);
+
+        if (!row(this.outgoing, ordinal).isEmpty() || !row(this.incoming, ordinal).isEmpty()) {
+            throw new IllegalStateException(String.format("Can't remove neuron %s because it is still connected", neuron));
+        }
+
+        if (ordinal < this.outgoing.size()) {
+            this.outgoing.remove(ordinal);
+        }
+        if (ordinal < this.incoming.size()) {
+            this.incoming.remove(ordinal);
+        }
+
+        this.outgoing.forEach(r -> removeBit(r, ordinal));
+        this.incoming.forEach(r -> removeBit(r, ordinal));
+    }
+
+    boolean hasConnection(NeuronID start, NeuronID end) {
+        return row(this.outgoing, ordinalOf(start)).get(ordinalOf(end));
+    }
+
+    boolean hasConnectionToLayer(NeuronID start, int layerIndex) {
+        int firstOrdinal = firstOrdinalOfLayer(layerIndex);
+        int next = row(this.outgoing, ordinalOf(start)).nextSetBit(firstOrdinal);
+
+        // hidden neurons are the last ordinals
+        return next >= 0 && (layerIndex == 1 || next < firstOrdinal + (layerIndex == 0 ? this.numberOfInputNeurons : this.numberOfOutputNeurons));
+    }
+
+    /**
+     * @return the ordinals of the targets of the neuron (must not be modified)
+     */
+    BitSet getOutgoing(NeuronID neuron) {
+        return row(this.outgoing, ordinalOf(neuron));
+    }
+
+    /**
+     * @return the ordinals of the sources of the neuron (must not be modified)
+     */
+    BitSet getIncoming(NeuronID neuron) {
+        return row(this.incoming, ordinalOf(neuron));
+    }
+
+    int ordinalOf(NeuronID neuron) {
+        return firstOrdinalOfLayer(neuron.getLayerIndex()) + neuron.getNeuronIndex();
+    }
+
+    int layerOf(int ordinal) {
+        if (ordinal < this.numberOfInputNeurons) {
+            return 0;
+        } else if (ordinal < this.numberOfInputNeurons + this.numberOfOutputNeurons) {
+            return 2;
+        }
+        return 1;
+    }
+
+    int neuronIndexOf(int ordinal) {
+        return ordinal - firstOrdinalOfLayer(layerOf(ordinal));
+    }
+
+    /* ### Helper Methods ### */
+
+    private int firstOrdinalOfLayer(int layerIndex) {
+        return switch (layerIndex) {
+            case 0 -> 0;
+            case 1 -> this.numberOfInputNeurons + this.numberOfOutputNeurons;
+            case 2 -> this.numberOfInputNeurons;
+            default -> throw new IndexOutOfBoundsException(String.format("Can't access neurons of layer %d", layerIndex));
+        };
+    }
+
+    private static BitSet row(List<BitSet> rows, int ordinal) {
+        return ordinal < rows.size() ? rows.get(ordinal) : EMPTY_ROW;
+    }
+
+    private static BitSet modifiableRow(List<BitSet> rows, int ordinal) {
+        while (rows.size() <= ordinal) {
+            rows.add(new BitSet());
+        }
+        return rows.get(ordinal);
+    }
+
+    private static List<BitSet> copyRows(List<BitSet> rows) {
+        List<BitSet> copy = new ArrayList<>(rows.size());
+        rows.forEach(r -> copy.add((BitSet) r.clone()));
+        return copy;
+    }
+
+    private static void removeBit(BitSet row, int position) {
+        for (int i = row.nextSetBit(position); i >= 0; i = row.nextSetBit(i + 1)) {
+            row.clear(i);
+            if (i > position) {
+                row.set(i - 1);
+            }
+        }
+    }
+}
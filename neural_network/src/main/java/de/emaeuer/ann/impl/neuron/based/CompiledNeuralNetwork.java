@@ -0,0 +1,292 @@
+package de.emaeuer.ann.impl.neuron.based;
+
+import de.emaeuer.ann.ActivationFunction;
+
+import java.util.*;
+
+/**
+ * Flat array representation of a {@link NeuronBasedNeuralNetwork}. All neurons are stored in the order in which
+ * {@link Neuron#activate()} would visit them (input and bias neurons first, afterwards the depth first post order
+ * starting with the hidden and output neurons). The incoming connections are stored in compressed sparse row format.
+ * <p>
+ * Because of this order one persistent activation buffer reproduces the recurrent semantics of the neuron graph: sources
+ * which come before a neuron already hold the activation of the current step, sources which come after the neuron
+ * (including the neuron itself) still hold the activation of the previous step. The weighted sums are calculated by
+ * plain summation, therefore the results may differ from the neuron graph in the last bits.
+ */
+final class CompiledNeuralNetwork {
+
+    private final Neuron[] neurons;
+    private final Map<Neuron, Integer> indexOfNeuron;
+
+    private final int[] connectionOffsets;
+    private final int[] sourceIndices;
+    private final double[] weights;
+
+    private final double[] bias;
+    private final ActivationFunction[] activationFunctions;
+    private final double[] activation;
+
+    private final int[] inputIndices;
+    private final int[] outputIndices;
+    private final int firstComputedNeuron;
+
+    private final boolean fastMath;
+
+    private CompiledNeuralNetwork(List<Neuron> order, int firstComputedNeuron, List<Neuron> inputs, List<Neuron> outputs, boolean fastMath) {
+        int numberOfNeurons = order.size();
+
+        this.fastMath = fastMath;
+
+        this.indexOfNeuron = new IdentityHashMap<>();
+        this.neurons = order.toArray(Neuron[]::new);
+        this.firstComputedNeuron = firstComputedNeuron;
+        this.bias = new double[numberOfNeurons];
+        this.activationFunctions = new ActivationFunction[numberOfNeurons];
+        this.activation = new double[numberOfNeurons];
+        this.connectionOffsets = new int[numberOfNeurons + 1];
+
+        for (int i = 0; i < numberOfNeurons; i++) {
+            Neuron neuron = this.neurons[i];
+            this.indexOfNeuron.put(neuron, i);
+            this.bias[i] = neuron.getBias();
+            this.activationFunctions[i] = neuron.getActivationFunction();
+            this.activation[i] = neuron.getActivation();
+        }
+
+        int numberOfConnections = 0;
+        for (int i = firstComputedNeuron; i < numberOfNeurons; i++) {
+            numberOfConnections += this.neurons[i].getIncomingConnections().size();
+        }
+
+        this.sourceIndices = new int[numberOfConnections];
+        this.weights = new double[numberOfConnections];
+
+        int connection = 0;
+        for (int i = 0; i < numberOfNeurons; i++) {
+            this.connectionOffsets[i] = connection;
+            if (i < firstComputedNeuron) {
+                // input and bias neurons ignore incoming connections
+                continue;
+            }
+            Neuron neuron = this.neurons[i];
+            for (Neuron source : neuron.getIncomingConnections()) {
+                this.sourceIndices[connection] = this.indexOfNeuron.get(source);
+                this.weights[connection] = neuron.getWeightOfInput(source);
+                connection++;
+            }
+        }
+        this.connectionOffsets[numberOfNeurons] = connection;
+
+        this.inputIndices = inputs.stream()
+                .mapToInt(this.indexOfNeuron::get)
+                .toArray();
+        this.outputIndices = outputs.stream()
+                .mapToInt(this.indexOfNeuron::get)
+                .toArray();
+    }
+
+    /**
+     * Constructor for copying only. The structure is shared and only the weights, biases and activations are copied.
+     */
+    private CompiledNeuralNetwork(CompiledNeuralNetwork other) {
+        this.neurons = other.neurons;
+        this.indexOfNeuron = other.indexOfNeuron;
+        this.connectionOffsets = other.connectionOffsets;
+        this.sourceIndices = other.sourceIndices;
+        this.activationFunctions = other.activationFunctions;
+        this.inputIndices = other.inputIndices;
+        this.outputIndices = other.outputIndices;
+        this.firstComputedNeuron = other.firstComputedNeuron;
+        this.fastMath = other.fastMath;
+
+        this.weights = other.weights.clone();
+        this.bias = other.bias.clone();
+        this.activation = new double[other.activation.length];
+
+        // like Neuron#copyWithoutConnections() only the activation of the bias neuron is kept
+        for (int i = 0; i < this.neurons.length; i++) {
+            if (this.neurons[i].getType() == NeuronType.BIAS) {
+                this.activation[i] = other.activation[i];
+            }
+        }
+    }
+
+    static CompiledNeuralNetwork compile(Neuron biasNeuron, List<Neuron> inputs, List<Neuron> hidden, List<Neuron> outputs, boolean fastMath) {
+        List<Neuron> order = new ArrayList<>(inputs);
+        if (biasNeuron != null) {
+            order.add(biasNeuron);
+        }
+        int firstComputedNeuron = order.size();
+
+        Set<Neuron> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        hidden.forEach(n -> visit(n, visited, order));
+        outputs.forEach(n -> visit(n, visited, order));
+
+        return new CompiledNeuralNetwork(order, firstComputedNeuron, inputs, outputs, fastMath);
+    }
+
+    private static void visit(Neuron neuron, Set<Neuron> visited, List<Neuron> order) {
+        // same traversal as Neuron#activate() (input and bias neurons are already part of the order)
+        if (neuron.getType() == NeuronType.INPUT || neuron.getType() == NeuronType.BIAS || !visited.add(neuron)) {
+            return;
+        }
+
+        for (Neuron source : neuron.getIncomingConnections()) {
+            visit(source, visited, order);
+        }
+
+        order.add(neuron);
+    }
+
+    void process(double[] input, double[] output) {
+        for (int i = 0; i < this.inputIndices.length; i++) {
+            int index = this.inputIndices[i];
+            this.activation[index] = this.activationFunctions[index].applyAsDouble(input[i] + this.bias[index], this.fastMath);
+        }
+
+        for (int i = this.firstComputedNeuron; i < this.neurons.length; i++) {
+            double weightedSum = 0;
+            for (int c = this.connectionOffsets[i]; c < this.connectionOffsets[i + 1]; c++) {
+                weightedSum += this.weights[c] * this.activation[this.sourceIndices[c]];
+            }
+            this.activation[i] = this.activationFunctions[i].applyAsDouble(weightedSum + this.bias[i], this.fastMath);
+        }
+
+        for (int i = 0; i < output.length; i++) {
+            output[i] = this.activation[this.outputIndices[i]];
+        }
+    }
+
+    /**
+     * Creates a copy in the initial state which shares the structure (and the neurons) with this compiled form.
+     */
+    CompiledNeuralNetwork copyWithInitialActivation() {
+        return new CompiledNeuralNetwork(this);
+    }
+
+    double getWeight(Neuron start, Neuron end) {
+        int endIndex = this.indexOfNeuron.get(end);
+        int startIndex = this.indexOfNeuron.get(start);
+
+        for (int c = this.connectionOffsets[endIndex]; c < this.connectionOffsets[endIndex + 1]; c++) {
+            if (this.sourceIndices[c] == startIndex) {
+                return this.weights[c];
+            }
+        }
+
+        // same behaviour as Neuron#getWeightOfInput(Neuron)
+        return 0;
+    }
+
+    double getBiasOf(Neuron neuron) {
+        return this.bias[this.indexOfNeuron.get(neuron)];
+    }
+
+    double getActivationOf(Neuron neuron) {
+        return this.activation[this.indexOfNeuron.get(neuron)];
+    }
+
+    void updateWeight(Neuron start, Neuron end, double weight) {
+        int endIndex = this.indexOfNeuron.get(end);
+        int startIndex = this.indexOfNeuron.get(start);
+
+        for (int c = this.connectionOffsets[endIndex]; c < this.connectionOffsets[endIndex + 1]; c++) {
+            if (this.sourceIndices[c] == startIndex) {
+                this.weights[c] = weight;
+                return;
+            }
+        }
+
+        throw new IllegalArgumentException("Can't change weight of non existing connection");
+    }
+
+    void updateBias(Neuron neuron, double bias) {
+        this.bias[this.indexOfNeuron.get(neuron)] = bias;
+    }
+
+    /**
+     * Checks if both compiled forms have the same neurons in the same order with the same connections. Only the
+     * weights, biases and activations may differ.
+     */
+    boolean hasSameStructure(CompiledNeuralNetwork other) {
+        if (this.neurons.length != other.neurons.length || this.firstComputedNeuron != other.firstComputedNeuron
+                || this.fastMath != other.fastMath
+                || !Arrays.equals(this.connectionOffsets, other.connectionOffsets)
+                || !Arrays.equals(this.sourceIndices, other.sourceIndices)
+                || !Arrays.equals(this.inputIndices, other.inputIndices)
+                || !Arrays.equals(this.outputIndices, other.outputIndices)
+                || !Arrays.equals(this.activationFunctions, other.activationFunctions)) {
+            return false;
+        }
+
+        for (int i = 0; i < this.neurons.length; i++) {
+            if (!this.neurons[i].getID().equals(other.neurons[i].getID())) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    boolean usesFastMath() {
+        return this.fastMath;
+    }
+
+    int getNumberOfNeurons() {
+        return this.neurons.length;
+    }
+
+    int getNumberOfConnections() {
+        return this.weights.length;
+    }
+
+    int getFirstComputedNeuron() {
+        return this.firstComputedNeuron;
+    }
+
+    int[] getConnectionOffsets() {
+        return this.connectionOffsets;
+    }
+
+    int[] getSourceIndices() {
+        return this.sourceIndices;
+    }
+
+    int[] getInputIndices() {
+        return this.inputIndices;
+    }
+
+    int[] getOutputIndices() {
+        return this.outputIndices;
+    }
+
+    ActivationFunction[] getActivationFunctions() {
+        return this.activationFunctions;
+    }
+
+    double[] getWeights() {
+        return this.weights;
+    }
+
+    double[] getBias() {
+        return this.bias;
+    }
+
+    double[] getActivation() {
+        return this.activation;
+    }
+
+    /**
+     * Writes the activations back to the neurons so that a new compilation or the neuron graph can continue with
+     * the current state of the recurrent connections.
+     */
+    void storeActivations() {
+        for (int i = 0; i < this.neurons.length; i++) {
+            if (this.neurons[i].getType() != NeuronType.BIAS) {
+                this.neurons[i].setActivation(this.activation[i]);
+            }
+        }
+    }
+
+}
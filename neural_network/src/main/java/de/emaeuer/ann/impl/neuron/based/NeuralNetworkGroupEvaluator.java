@@ -0,0 +1,206 @@
+package de.emaeuer.ann.impl.neuron.based;
+
+import de.emaeuer.ann.ActivationFunction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Evaluates multiple neural networks with the same structure (same neurons, connections and evaluation order) in
+ * lockstep. The topology is stored once and the weights, biases and activations of all networks are stored in
+ * structure of arrays layout. The values of one connection (or neuron) are stored consecutively for all networks
+ * (index = connection * numberOfNetworks + network) so that the innermost loops run over the networks with unit stride.
+ * <p>
+ * Each network is processed exactly like {@link NeuronBasedNeuralNetwork#process(double[], double[])} with the compiled
+ * evaluation. The weights and biases are copied on creation, later changes of the networks are not considered.
+ */
+public class NeuralNetworkGroupEvaluator {
+
+    private final List<NeuronBasedNeuralNetwork> networks;
+    private final List<CompiledNeuralNetwork> compiledNetworks;
+    private final int numberOfNetworks;
+
+    private final int numberOfNeurons;
+    private final int firstComputedNeuron;
+    private final int[] connectionOffsets;
+    private final int[] sourceIndices;
+    private final int[] inputIndices;
+    private final int[] outputIndices;
+    private final ActivationFunction[] activationFunctions;
+    private final boolean fastMath;
+
+    private final double[] weights;
+    private final double[] bias;
+    private final double[] activation;
+
+    private final double[] weightedSums;
+    private final boolean[] active;
+
+    public NeuralNetworkGroupEvaluator(List<NeuronBasedNeuralNetwork> networks) {
+        if (networks.isEmpty()) {
+            throw new IllegalArgumentException("Can't create an evaluator for an empty group of neural networks");
+        }
+
+        this.networks = new ArrayList<>(networks);
+        this.compiledNetworks = new ArrayList<>(networks.size());
+        this.numberOfNetworks = networks.size();
+
+        CompiledNeuralNetwork template = networks.get(0).compile();
+        for (NeuronBasedNeuralNetwork network : networks) {
+            CompiledNeuralNetwork compiled = network == networks.get(0) ? template : network.compile();
+            if (!template.hasSameStructure(compiled)) {
+                throw new IllegalArgumentException("Only neural networks with the same structure can be evaluated in lockstep");
+            }
+            this.compiledNetworks.add(compiled);
+        }
+
+        this.numberOfNeurons = template.getNumberOfNeurons();
+        this.firstComputedNeuron = template.getFirstComputedNeuron();
+        this.connectionOffsets = template.getConnectionOffsets();
+        this.sourceIndices = template.getSourceIndices();
+        this.inputIndices = template.getInputIndices();
+        this.outputIndices = template.getOutputIndices();
+        this.activationFunctions = template.getActivationFunctions();
+        this.fastMath = template.usesFastMath();
+
+        this.weights = new double[template.getNumberOfConnections() * this.numberOfNetworks];
+        this.bias = new double[this.numberOfNeurons * this.numberOfNetworks];
+        this.activation = new double[this.numberOfNeurons * this.numberOfNetworks];
+
+        for (int network = 0; network < this.numberOfNetworks; network++) {
+            CompiledNeuralNetwork compiled = this.compiledNetworks.get(network);
+            scatter(compiled.getWeights(), this.weights, network);
+            scatter(compiled.getBias(), this.bias, network);
+            scatter(compiled.getActivation(), this.activation, network);
+        }
+
+        this.weightedSums = new double[this.numberOfNetworks];
+        this.active = new boolean[this.numberOfNetworks];
+        Arrays.fill(this.active, true);
+    }
+
+    /**
+     * Checks if both neural networks can be evaluated by the same group evaluator.
+     */
+    public static boolean haveSameStructure(NeuronBasedNeuralNetwork first, NeuronBasedNeuralNetwork second) {
+        return first.compile().hasSameStructure(second.compile());
+    }
+
+    /**
+     * Processes one step of all networks.
+     *
+     * @param inputs one input per network. A network with the input null is inactive, its state isn't changed anymore
+     *               and is written back to the neural network
+     * @param outputs one output array per network which is filled with the activations of the output neurons
+     */
+    public void process(double[][] inputs, double[][] outputs) {
+        if (inputs.length != this.numberOfNetworks || outputs.length != this.numberOfNetworks) {
+            throw new IllegalArgumentException(String.format("Expected inputs and outputs for %d neural networks but got %d and %d",
+                    this.numberOfNetworks, inputs.length, outputs.length));
+        }
+
+        refreshActiveNetworks(inputs);
+
+        int n = this.numberOfNetworks;
+
+        for (int i = 0; i < this.inputIndices.length; i++) {
+            int offset = this.inputIndices[i] * n;
+            ActivationFunction function = this.activationFunctions[this.inputIndices[i]];
+            for (int network = 0; network < n; network++) {
+                if (this.active[network]) {
+                    this.activation[offset + network] = function.applyAsDouble(inputs[network][i] + this.bias[offset + network], this.fastMath);
+                }
+            }
+        }
+
+        for (int neuron = this.firstComputedNeuron; neuron < this.numberOfNeurons; neuron++) {
+            Arrays.fill(this.weightedSums, 0);
+
+            for (int c = this.connectionOffsets[neuron]; c < this.connectionOffsets[neuron + 1]; c++) {
+                int weightOffset = c * n;
+                int sourceOffset = this.sourceIndices[c] * n;
+                for (int network = 0; network < n; network++) {
+                    this.weightedSums[network] += this.weights[weightOffset + network] * this.activation[sourceOffset + network];
+                }
+            }
+
+            int offset = neuron * n;
+            for (int network = 0; network < n; network++) {
+                this.weightedSums[network] += this.bias[offset + network];
+            }
+
+            this.activationFunctions[neuron].apply(this.weightedSums, 0, n, this.fastMath);
+
+            for (int network = 0; network < n; network++) {
+                if (this.active[network]) {
+                    this.activation[offset + network] = this.weightedSums[network];
+                }
+            }
+        }
+
+        for (int network = 0; network < n; network++) {
+            if (this.active[network]) {
+                double[] output = outputs[network];
+                for (int i = 0; i < this.outputIndices.length; i++) {
+                    output[i] = this.activation[this.outputIndices[i] * n + network];
+                }
+            }
+        }
+    }
+
+    private void refreshActiveNetworks(double[][] inputs) {
+        for (int network = 0; network < this.numberOfNetworks; network++) {
+            boolean isActive = inputs[network] != null;
+            if (this.active[network] && !isActive) {
+                // the network won't be processed anymore --> keep the current state for later evaluations
+                storeActivations(network);
+            }
+            this.active[network] = isActive;
+        }
+    }
+
+    /**
+     * Writes the activations of all networks back so that the networks can be processed individually afterwards.
+     */
+    public void storeActivations() {
+        for (int network = 0; network < this.numberOfNetworks; network++) {
+            if (this.active[network]) {
+                storeActivations(network);
+            }
+        }
+    }
+
+    private void storeActivations(int network) {
+        CompiledNeuralNetwork compiled = this.compiledNetworks.get(network);
+        gather(this.activation, compiled.getActivation(), network);
+
+        if (!this.networks.get(network).keepsStateInCompiledForm()) {
+            // the compilation is only temporary --> write activation back to the neurons
+            compiled.storeActivations();
+        }
+    }
+
+    public int getNumberOfNetworks() {
+        return this.numberOfNetworks;
+    }
+
+    public int getNumberOfOutputs() {
+        return this.outputIndices.length;
+    }
+
+    /* ### Helper Methods ### */
+
+    private void scatter(double[] values, double[] target, int network) {
+        for (int i = 0; i < values.length; i++) {
+            target[i * this.numberOfNetworks + network] = values[i];
+        }
+    }
+
+    private void gather(double[] source, double[] values, int network) {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = source[i * this.numberOfNetworks + network];
+        }
+    }
+
+}
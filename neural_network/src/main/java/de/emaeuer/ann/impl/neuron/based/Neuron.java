@@ -138,6 +138,8 @@ public class Neuron {
 
     private boolean wasAlreadyActivated = false;
 
+    private boolean fastMath = false;
+
     private final NeuronModifier modifier = new NeuronModifier(this);
 
     private Neuron() {}
@@ -152,7 +154,7 @@ public class Neuron {
 
     public void activate(double activation) {
         if (this.type == NeuronType.INPUT) {
-            this.lastActivation = this.activationFunction.apply(activation + this.bias);
+            this.lastActivation = this.activationFunction.applyAsDouble(activation + this.bias, this.fastMath);
         } else {
             throw new UnsupportedOperationException("Can't set external value of hidden, bias or output neuron");
         }
@@ -174,7 +176,7 @@ public class Neuron {
 
         weightedSum += this.bias;
 
-        this.lastActivation = this.activationFunction.apply(weightedSum);
+        this.lastActivation = this.activationFunction.applyAsDouble(weightedSum, this.fastMath);
         return this.lastActivation;
     }
 
@@ -193,6 +195,7 @@ public class Neuron {
         copy.id = new NeuronID(this.id.getLayerIndex(), this.id.getNeuronIndex());
         copy.bias = this.bias;
         copy.recurrentID = this.recurrentID;
+        copy.fastMath = this.fastMath;
 
         if (this.type == NeuronType.BIAS) {
             copy.lastActivation = this.lastActivation;
@@ -205,6 +208,18 @@ public class Neuron {
         return this.lastActivation;
     }
 
+    void setActivation(double activation) {
+        this.lastActivation = activation;
+    }
+
+    boolean usesFastMath() {
+        return this.fastMath;
+    }
+
+    void setFastMath(boolean fastMath) {
+        this.fastMath = fastMath;
+    }
+
     public NeuronID getID() {
         return this.id;
     }
@@ -11,7 +11,7 @@ import org.apache.commons.math3.linear.RealVector;
 
 import java.util.*;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 public class NeuronBasedNeuralNetwork implements NeuralNetwork {
 
@@ -19,10 +19,26 @@ public class NeuronBasedNeuralNetwork implements NeuralNetwork {
 
     private final ConfigurationHandler<NeuralNetworkConfiguration> configuration;
 
-    private final Neuron biasNeuron;
-    private final List<Neuron> inputNeurons;
-    private final List<Neuron> hiddenNeurons;
-    private final List<Neuron> outputNeurons;
+    private Neuron biasNeuron;
+    private List<Neuron> inputNeurons;
+    private List<Neuron> hiddenNeurons;
+    private List<Neuron> outputNeurons;
+
+    private final boolean compiledEvaluation;
+    private final boolean fastMath;
+    private CompiledNeuralNetwork compiled;
+
+    // if the topology is shared the neurons must not be modified and the compiled form holds weights, biases and activations
+    private final boolean shareTopologyOnCopy;
+    private boolean sharedTopology = false;
+
+    // fingerprint is calculated lazily and updated incrementally by the modifier afterwards
+    private long topologyFingerprint;
+    private boolean topologyFingerprintIsValid = false;
+    private int numberOfConnections;
+
+    // optional index for connection queries, shared with copies as long as the topology is shared
+    private AdjacencyIndex adjacency;
 
     public NeuronBasedNeuralNetwork(ConfigurationHandler<NeuralNetworkConfiguration> configuration, Neuron biasNeuron, List<Neuron> inputLayer, List<Neuron> hiddenLayer, List<Neuron> outputLayer) {
         this.configuration = configuration;
@@ -35,6 +51,27 @@ public class NeuronBasedNeuralNetwork implements NeuralNetwork {
         double maxWeight = this.configuration.getValue(NeuralNetworkConfiguration.WEIGHT_MAX, Double.class);
         double minWeight = this.configuration.getValue(NeuralNetworkConfiguration.WEIGHT_MIN, Double.class);
         this.modifier = new NeuronBasedNeuralNetworkModifier(this, minWeight, maxWeight);
+        this.compiledEvaluation = this.configuration.getValue(NeuralNetworkConfiguration.COMPILED_EVALUATION, Boolean.class);
+        this.fastMath = this.configuration.getValue(NeuralNetworkConfiguration.FAST_MATH, Boolean.class);
+        this.shareTopologyOnCopy = this.configuration.getValue(NeuralNetworkConfiguration.SHARED_TOPOLOGY_COPY, Boolean.class);
+
+        Stream.of(inputLayer, hiddenLayer, outputLayer)
+                .flatMap(List::stream)
+                .forEach(n -> n.setFastMath(this.fastMath));
+
+        // input and bias neurons can't have incoming connections
+        this.numberOfConnections = Stream.of(hiddenLayer, outputLayer)
+                .flatMap(List::stream)
+                .mapToInt(n -> n.getIncomingConnections().size())
+                .sum();
+
+        if (this.configuration.getValue(NeuralNetworkConfiguration.ADJACENCY_INDEX, Boolean.class)) {
+            int numberOfInputNeurons = inputLayer.size() + (biasNeuron == null ? 0 : 1);
+            this.adjacency = new AdjacencyIndex(numberOfInputNeurons, outputLayer.size());
+            Stream.of(hiddenLayer, outputLayer)
+                    .flatMap(List::stream)
+                    .forEach(end -> end.getIncomingConnections().forEach(start -> this.adjacency.addConnection(start.getID(), end.getID())));
+        }
     }
 
     /**
@@ -46,6 +83,9 @@ public class NeuronBasedNeuralNetwork implements NeuralNetwork {
         double maxWeight = this.configuration.getValue(NeuralNetworkConfiguration.WEIGHT_MAX, Double.class);
         double minWeight = this.configuration.getValue(NeuralNetworkConfiguration.WEIGHT_MIN, Double.class);
         this.modifier = new NeuronBasedNeuralNetworkModifier(this, minWeight, maxWeight);
+        this.compiledEvaluation = other.compiledEvaluation;
+        this.fastMath = other.fastMath;
+        this.shareTopologyOnCopy = other.shareTopologyOnCopy;
 
         this.biasNeuron = other.biasNeuron == null ? null : other.biasNeuron.copyWithoutConnections();
 
@@ -63,18 +103,67 @@ public class NeuronBasedNeuralNetwork implements NeuralNetwork {
         // add all connections
         NeuralNetworkUtil.iterateNeuralNetworkConnections(other)
                 .forEachRemaining(c -> this.getNeuron(c.end()).modify().addInput(this.getNeuron(c.start()), c.weight()));
+
+        this.topologyFingerprint = other.topologyFingerprint;
+        this.topologyFingerprintIsValid = other.topologyFingerprintIsValid;
+        this.numberOfConnections = other.numberOfConnections;
+        this.adjacency = other.adjacency == null ? null : other.adjacency.copy();
+    }
+
+    /**
+     * Constructor for copying with shared topology only
+     */
+    private NeuronBasedNeuralNetwork(NeuronBasedNeuralNetwork other, CompiledNeuralNetwork values) {
+        this.configuration = other.configuration;
+
+        double maxWeight = this.configuration.getValue(NeuralNetworkConfiguration.WEIGHT_MAX, Double.class);
+        double minWeight = this.configuration.getValue(NeuralNetworkConfiguration.WEIGHT_MIN, Double.class);
+        this.modifier = new NeuronBasedNeuralNetworkModifier(this, minWeight, maxWeight);
+        this.compiledEvaluation = other.compiledEvaluation;
+        this.fastMath = other.fastMath;
+        this.shareTopologyOnCopy = other.shareTopologyOnCopy;
+
+        this.biasNeuron = other.biasNeuron;
+        this.inputNeurons = other.inputNeurons;
+        this.hiddenNeurons = other.hiddenNeurons;
+        this.outputNeurons = other.outputNeurons;
+
+        this.compiled = values;
+        this.sharedTopology = true;
+
+        this.topologyFingerprint = other.topologyFingerprint;
+        this.topologyFingerprintIsValid = other.topologyFingerprintIsValid;
+        this.numberOfConnections = other.numberOfConnections;
+        this.adjacency = other.adjacency;
     }
 
     @Override
     public RealVector process(RealVector input) {
-        if (input.getDimension() != inputNeurons.size()) {
+        double[] output = new double[this.outputNeurons.size()];
+        process(input.toArray(), output);
+        return new ArrayRealVector(output, false);
+    }
+
+    @Override
+    public void process(double[] input, double[] output) {
+        if (input.length != inputNeurons.size()) {
             throw new IllegalArgumentException(String.format(
                     "The size of the input vector %d doesn't match the number of input neurons %d",
-                    input.getDimension(), inputNeurons.size()));
+                    input.length, inputNeurons.size()));
+        } else if (output.length != outputNeurons.size()) {
+            throw new IllegalArgumentException(String.format(
+                    "The size of the output array %d doesn't match the number of output neurons %d",
+                    output.length, outputNeurons.size()));
         }
 
-        IntStream.range(0, input.getDimension())
-                .forEach(i -> inputNeurons.get(i).activate(input.getEntry(i)));
+        if (keepsStateInCompiledForm()) {
+            getCompiledForm().process(input, output);
+            return;
+        }
+
+        for (int i = 0; i < input.length; i++) {
+            this.inputNeurons.get(i).activate(input[i]);
+        }
 
         this.hiddenNeurons.forEach(Neuron::activate);
         this.outputNeurons.forEach(Neuron::activate);
@@ -82,11 +171,173 @@ public class NeuronBasedNeuralNetwork implements NeuralNetwork {
         this.hiddenNeurons.forEach(Neuron::reactivate);
         this.outputNeurons.forEach(Neuron::reactivate);
 
-        double[] result = outputNeurons.stream()
-                .mapToDouble(Neuron::getActivation)
-                .toArray();
+        for (int i = 0; i < output.length; i++) {
+            output[i] = this.outputNeurons.get(i).getActivation();
+        }
+    }
+
+    /**
+     * Processes the inputs sequentially because the neuron graph may contain recurrent connections.
+     */
+    @Override
+    public double[][] processBatch(double[][] inputs) {
+        double[][] outputs = new double[inputs.length][this.outputNeurons.size()];
+        for (int i = 0; i < inputs.length; i++) {
+            process(inputs[i], outputs[i]);
+        }
+        return outputs;
+    }
+
+    private CompiledNeuralNetwork getCompiledForm() {
+        if (this.compiled == null) {
+            this.compiled = CompiledNeuralNetwork.compile(this.biasNeuron, this.inputNeurons, this.hiddenNeurons, this.outputNeurons, this.fastMath);
+        }
+        return this.compiled;
+    }
+
+    /**
+     * Returns the compiled form which is used for the evaluation of this neural network or a new compilation of the
+     * current state if the compiled evaluation is disabled.
+     */
+    CompiledNeuralNetwork compile() {
+        if (keepsStateInCompiledForm()) {
+            return getCompiledForm();
+        }
+        return CompiledNeuralNetwork.compile(this.biasNeuron, this.inputNeurons, this.hiddenNeurons, this.outputNeurons, this.fastMath);
+    }
+
+    /**
+     * @return true if the compiled form holds the activations of this neural network instead of the neurons
+     */
+    boolean keepsStateInCompiledForm() {
+        return this.compiledEvaluation || this.sharedTopology;
+    }
+
+    boolean usesFastMath() {
+        return this.fastMath;
+    }
+
+    /**
+     * Has to be called before every change of the topology (before neurons are retrieved for the modification). A
+     * shared topology is copied and the compiled form is rebuilt lazily on the next call of
+     * {@link #process(double[], double[])}.
+     */
+    void prepareTopologyChange() {
+        if (this.sharedTopology) {
+            copySharedTopology();
+        } else if (this.compiled != null) {
+            this.compiled.storeActivations();
+        }
+        this.compiled = null;
+    }
+
+    private void copySharedTopology() {
+        CompiledNeuralNetwork values = this.compiled;
+        Map<Neuron, Neuron> copies = new IdentityHashMap<>();
+
+        // only hidden and output neurons have incoming connections
+        List<Neuron> targets = Stream.of(this.hiddenNeurons, this.outputNeurons)
+                .flatMap(List::stream)
+                .toList();
+
+        this.biasNeuron = this.biasNeuron == null ? null : copyNeuron(this.biasNeuron, values, copies);
+        this.inputNeurons = copyNeurons(this.inputNeurons, values, copies);
+        this.hiddenNeurons = copyNeurons(this.hiddenNeurons, values, copies);
+        this.outputNeurons = copyNeurons(this.outputNeurons, values, copies);
+
+        for (Neuron original : targets) {
+            copyIncomingConnections(original, copies.get(original), values, copies);
+        }
+
+        if (this.adjacency != null) {
+            this.adjacency = this.adjacency.copy();
+        }
+
+        this.sharedTopology = false;
+    }
+
+    private List<Neuron> copyNeurons(List<Neuron> neurons, CompiledNeuralNetwork values, Map<Neuron, Neuron> copies) {
+        return neurons.stream()
+                .map(n -> copyNeuron(n, values, copies))
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    private Neuron copyNeuron(Neuron neuron, CompiledNeuralNetwork values, Map<Neuron, Neuron> copies) {
+        Neuron copy = neuron.copyWithoutConnections();
+        copy.modify().bias(values.getBiasOf(neuron));
+        if (neuron.getType() != NeuronType.BIAS) {
+            copy.setActivation(values.getActivationOf(neuron));
+        }
+        copies.put(neuron, copy);
+        return copy;
+    }
+
+    private void copyIncomingConnections(Neuron original, Neuron copy, CompiledNeuralNetwork values, Map<Neuron, Neuron> copies) {
+        for (Neuron source : original.getIncomingConnections()) {
+            copy.modify().addInput(copies.get(source), values.getWeight(source, original));
+        }
+    }
+
+    /**
+     * Registers (or unregisters) the connection in the connection counter, the topology fingerprint and the adjacency
+     * index. Has to be called for each added (or removed) connection while the neuron ids are valid.
+     */
+    void updateConnectionStatistics(Neuron start, Neuron end, boolean added) {
+        this.numberOfConnections += added ? 1 : -1;
+
+        if (this.adjacency != null && added) {
+            this.adjacency.addConnection(start.getID(), end.getID());
+        } else if (this.adjacency != null) {
+            this.adjacency.removeConnection(start.getID(), end.getID());
+        }
+
+        if (this.topologyFingerprintIsValid) {
+            long hash = NeuralNetworkUtil.hashConnection(start.getID(), end.getID());
+            this.topologyFingerprint += added ? hash : -hash;
+        }
+    }
 
-        return new ArrayRealVector(result);
+    /**
+     * Has to be called after a disconnected hidden neuron was removed (before the ids of the following neurons change).
+     */
+    void removeFromAdjacencyIndex(NeuronID neuron) {
+        if (this.adjacency != null) {
+            this.adjacency.removeHiddenNeuron(neuron);
+        }
+    }
+
+    /**
+     * Has to be called if the ids of connected neurons change.
+     */
+    void invalidateTopologyFingerprint() {
+        this.topologyFingerprintIsValid = false;
+    }
+
+    @Override
+    public long getTopologyFingerprint() {
+        if (!this.topologyFingerprintIsValid) {
+            this.topologyFingerprint = NeuralNetworkUtil.calculateTopologyFingerprint(this);
+            this.topologyFingerprintIsValid = true;
+        }
+        return this.topologyFingerprint;
+    }
+
+    void changeWeight(Neuron start, Neuron end, double weight) {
+        if (!this.sharedTopology) {
+            end.modify().changeWeightOfConnection(start, weight);
+        }
+        if (this.compiled != null) {
+            this.compiled.updateWeight(start, end, weight);
+        }
+    }
+
+    void changeBias(Neuron neuron, double bias) {
+        if (!this.sharedTopology) {
+            neuron.modify().bias(bias);
+        }
+        if (this.compiled != null) {
+            this.compiled.updateBias(neuron, bias);
+        }
     }
 
     @Override
@@ -101,6 +352,10 @@ public class NeuronBasedNeuralNetwork implements NeuralNetwork {
 
     @Override
     public List<NeuronID> getOutgoingConnectionsOfNeuron(NeuronID neuronID) {
+        if (this.adjacency != null) {
+            return getNeuronIDsOfOrdinals(this.adjacency.getOutgoing(neuronID));
+        }
+
         Neuron neuron = getNeuron(neuronID);
 
         return neuron.getOutgoingConnections()
@@ -111,6 +366,10 @@ public class NeuronBasedNeuralNetwork implements NeuralNetwork {
 
     @Override
     public List<NeuronID> getIncomingConnectionsOfNeuron(NeuronID neuronID) {
+        if (this.adjacency != null) {
+            return getNeuronIDsOfOrdinals(this.adjacency.getIncoming(neuronID));
+        }
+
         Neuron neuron = getNeuron(neuronID);
 
         return neuron.getIncomingConnections()
@@ -121,6 +380,10 @@ public class NeuronBasedNeuralNetwork implements NeuralNetwork {
 
     @Override
     public boolean neuronHasConnectionTo(NeuronID startID, NeuronID endID) {
+        if (this.adjacency != null) {
+            return this.adjacency.hasConnection(startID, endID);
+        }
+
         Neuron start = getNeuron(startID);
         Neuron end = getNeuron(endID);
 
@@ -129,18 +392,30 @@ public class NeuronBasedNeuralNetwork implements NeuralNetwork {
 
     @Override
     public boolean neuronHasConnectionToLayer(NeuronID neuronID, int layerIndex) {
+        if (this.adjacency != null) {
+            return this.adjacency.hasConnectionToLayer(neuronID, layerIndex);
+        }
+
         return getOutgoingConnectionsOfNeuron(neuronID)
             .stream()
             .map(NeuronID::getLayerIndex)
             .anyMatch(l -> l == layerIndex);
     }
 
+    private List<NeuronID> getNeuronIDsOfOrdinals(BitSet ordinals) {
+        List<NeuronID> ids = new ArrayList<>(ordinals.cardinality());
+        for (int i = ordinals.nextSetBit(0); i >= 0; i = ordinals.nextSetBit(i + 1)) {
+            ids.add(getNeuron(this.adjacency.layerOf(i), this.adjacency.neuronIndexOf(i)).getID());
+        }
+        return ids;
+    }
+
     @Override
     public double getWeightOfConnection(NeuronID startID, NeuronID endID) {
         Neuron start = getNeuron(startID);
         Neuron end = getNeuron(endID);
 
-        return end.getWeightOfInput(start);
+        return this.sharedTopology ? this.compiled.getWeight(start, end) : end.getWeightOfInput(start);
     }
 
     @Override
@@ -148,19 +423,19 @@ public class NeuronBasedNeuralNetwork implements NeuralNetwork {
         Neuron start = getNeuron(startID);
         Neuron end = getNeuron(endID);
 
-        end.modify().changeWeightOfConnection(start, weight);
+        changeWeight(start, end, weight);
     }
 
     @Override
     public double getBiasOfNeuron(NeuronID neuronID) {
         Neuron neuron = getNeuron(neuronID);
-        return neuron.getBias();
+        return this.sharedTopology ? this.compiled.getBiasOf(neuron) : neuron.getBias();
     }
 
     @Override
     public void setBiasOfNeuron(NeuronID neuronID, double biasValue) {
         Neuron neuron = getNeuron(neuronID);
-        neuron.modify().bias(biasValue);
+        changeBias(neuron, biasValue);
     }
 
     @Override
@@ -190,9 +465,24 @@ public class NeuronBasedNeuralNetwork implements NeuralNetwork {
 
     @Override
     public NeuralNetwork copy() {
+        if (this.sharedTopology) {
+            return new NeuronBasedNeuralNetwork(this, this.compiled.copyWithInitialActivation());
+        }
         return new NeuronBasedNeuralNetwork(this);
     }
 
+    /**
+     * Shares the topology with all further copies if this is enabled by the configuration
+     */
+    @Override
+    public void shareTopologyWithCopies() {
+        if (this.shareTopologyOnCopy && !this.sharedTopology) {
+            // from now on this neural network and its copies copy the topology on the first modification
+            getCompiledForm();
+            this.sharedTopology = true;
+        }
+    }
+
     @Override
     public boolean isOutputNeuron(NeuronID currentNeuron) {
         return currentNeuron.getLayerIndex() == 2;
@@ -244,26 +534,35 @@ public class NeuronBasedNeuralNetwork implements NeuralNetwork {
     }
 
     public Neuron getNeuron(NeuronID id) {
+        return getNeuron(id.getLayerIndex(), id.getNeuronIndex());
+    }
+
+    private Neuron getNeuron(int layerIndex, int neuronIndex) {
         // if the neural network uses an on-neuron as bias the 0-0 neuron is the bias neuron
-        if (id.getLayerIndex() == 0 && !usesExplicitBias()) {
-            if (id.getNeuronIndex() == 0) {
+        if (layerIndex == 0 && !usesExplicitBias()) {
+            if (neuronIndex == 0) {
                 return this.biasNeuron;
             } else {
-                return this.inputNeurons.get(id.getNeuronIndex() - 1);
+                return this.inputNeurons.get(neuronIndex - 1);
             }
-        } else if (id.getLayerIndex() == 0) {
-            return this.inputNeurons.get(id.getNeuronIndex());
-        } else if (id.getLayerIndex() == 1) {
-            return this.hiddenNeurons.get(id.getNeuronIndex());
-        } else if (id.getLayerIndex() == 2) {
-            return this.outputNeurons.get(id.getNeuronIndex());
+        } else if (layerIndex == 0) {
+            return this.inputNeurons.get(neuronIndex);
+        } else if (layerIndex == 1) {
+            return this.hiddenNeurons.get(neuronIndex);
+        } else if (layerIndex == 2) {
+            return this.outputNeurons.get(neuronIndex);
         }
 
-        throw new IndexOutOfBoundsException(String.format("Can't access neurons of layer %d", id.getLayerIndex()));
+        throw new IndexOutOfBoundsException(String.format("Can't access neurons of layer %d", layerIndex));
     }
 
     @Override
     public int getNumberOfHiddenNeurons() {
         return this.hiddenNeurons.size();
     }
+
+    @Override
+    public int getNumberOfConnections() {
+        return this.numberOfConnections;
+    }
 }
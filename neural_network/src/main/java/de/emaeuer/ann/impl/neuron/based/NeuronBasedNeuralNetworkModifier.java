@@ -30,6 +30,7 @@ public class NeuronBasedNeuralNetworkModifier implements NeuralNetworkModifier {
      * @return This modifier
      */
     public NeuralNetworkModifier splitNeuron(NeuronID neuronID) {
+        this.nn.prepareTopologyChange();
         Neuron start = this.nn.getNeuron(neuronID);
 
         addNeuron(1, 0);
@@ -39,17 +40,21 @@ public class NeuronBasedNeuralNetworkModifier implements NeuralNetworkModifier {
 
         for (Neuron output : outputs) {
             double weight = output.getWeightOfInput(start);
+            this.nn.updateConnectionStatistics(start, output, false);
             output.modify().addInput(end, weight);
             output.modify().removeInput(start);
+            this.nn.updateConnectionStatistics(end, output, true);
         }
 
         end.modify().addInput(start, 1);
+        this.nn.updateConnectionStatistics(start, end, true);
 
         return this;
     }
 
     @Override
     public NeuralNetworkModifier splitConnection(NeuronID startID, NeuronID endID) {
+        this.nn.prepareTopologyChange();
         Neuron start = nn.getNeuron(startID);
         Neuron end = nn.getNeuron(endID);
 
@@ -64,9 +69,12 @@ public class NeuronBasedNeuralNetworkModifier implements NeuralNetworkModifier {
 
         refreshRecurrentIDsIfNecessary(end, intermediate);
 
+        this.nn.updateConnectionStatistics(start, end, false);
         end.modify().addInput(intermediate, 1);
         intermediate.modify().addInput(start, weight);
         end.modify().removeInput(start);
+        this.nn.updateConnectionStatistics(start, intermediate, true);
+        this.nn.updateConnectionStatistics(intermediate, end, true);
 
         return this;
     }
@@ -104,12 +112,17 @@ public class NeuronBasedNeuralNetworkModifier implements NeuralNetworkModifier {
 
     @Override
     public NeuralNetworkModifier addConnection(NeuronID startID, NeuronID endID, double weight) {
+        this.nn.prepareTopologyChange();
         Neuron start = nn.getNeuron(startID);
         Neuron end = nn.getNeuron(endID);
 
         validateRecurrent(startID.getLayerIndex(), endID.getLayerIndex(), start, end);
 
+        boolean isNewConnection = !start.hasConnectionTo(end);
         end.modify().addInput(start, weight);
+        if (isNewConnection) {
+            this.nn.updateConnectionStatistics(start, end, true);
+        }
         this.lastModifiedNeuron = null;
         return this;
     }
@@ -124,9 +137,13 @@ public class NeuronBasedNeuralNetworkModifier implements NeuralNetworkModifier {
 
     @Override
     public NeuralNetworkModifier removeConnection(NeuronID startID, NeuronID endID) {
+        this.nn.prepareTopologyChange();
         Neuron start = nn.getNeuron(startID);
         Neuron end = nn.getNeuron(endID);
 
+        if (start.hasConnectionTo(end)) {
+            this.nn.updateConnectionStatistics(start, end, false);
+        }
         end.modify().removeInput(start);
         this.lastModifiedNeuron = null;
         return this;
@@ -138,6 +155,8 @@ public class NeuronBasedNeuralNetworkModifier implements NeuralNetworkModifier {
             throw new IllegalArgumentException("Can't add neuron to layer other than hidden layer (index = 1)");
         }
 
+        this.nn.prepareTopologyChange();
+
         String activationFunction = this.nn.getConfiguration().getValue(NeuralNetworkConfiguration.HIDDEN_ACTIVATION_FUNCTION, String.class);
         NeuronID id = new NeuronID(1, this.nn.getHiddenNeurons().size());
         Neuron neuron = Neuron.build()
@@ -146,6 +165,7 @@ public class NeuronBasedNeuralNetworkModifier implements NeuralNetworkModifier {
                 .id(id)
                 .bias(bias)
                 .finish();
+        neuron.setFastMath(this.nn.usesFastMath());
 
         this.nn.getHiddenNeurons().add(neuron);
         this.lastModifiedNeuron = neuron;
@@ -155,6 +175,7 @@ public class NeuronBasedNeuralNetworkModifier implements NeuralNetworkModifier {
 
     @Override
     public NeuralNetworkModifier removeNeuron(NeuronID neuronID) {
+        this.nn.prepareTopologyChange();
         Neuron neuron = this.nn.getNeuron(neuronID);
 
         if (NeuronType.HIDDEN != neuron.getType()) {
@@ -162,8 +183,16 @@ public class NeuronBasedNeuralNetworkModifier implements NeuralNetworkModifier {
         }
 
         int oldNeuronIndex = neuron.getID().getNeuronIndex();
+        // the ids of the following neurons change --> fingerprint has to be recalculated
+        this.nn.invalidateTopologyFingerprint();
+        neuron.getIncomingConnections().forEach(source -> this.nn.updateConnectionStatistics(source, neuron, false));
+        neuron.getOutgoingConnections()
+                .stream()
+                .filter(target -> target != neuron) // self recurrent connection was already considered
+                .forEach(target -> this.nn.updateConnectionStatistics(neuron, target, false));
         neuron.modify().disconnectAll();
         this.nn.getHiddenNeurons().remove(neuron);
+        this.nn.removeFromAdjacencyIndex(neuron.getID());
 
         // decrease neuron index for all which came later
         this.nn.getHiddenNeurons()
@@ -185,7 +214,7 @@ public class NeuronBasedNeuralNetworkModifier implements NeuralNetworkModifier {
         Neuron start = nn.getNeuron(startID);
         Neuron end = nn.getNeuron(endID);
 
-        end.modify().changeWeightOfConnection(start, weight);
+        this.nn.changeWeight(start, end, weight);
 
         this.lastModifiedNeuron = null;
         return this;
@@ -194,7 +223,7 @@ public class NeuronBasedNeuralNetworkModifier implements NeuralNetworkModifier {
     @Override
     public NeuralNetworkModifier setBiasOfNeuron(NeuronID neuronID, double bias) {
         Neuron neuron = this.nn.getNeuron(neuronID);
-        neuron.modify().bias(bias);
+        this.nn.changeBias(neuron, bias);
         this.lastModifiedNeuron = neuron;
         return this;
     }
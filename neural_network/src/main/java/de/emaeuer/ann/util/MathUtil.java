@@ -5,7 +5,7 @@ import org.apache.commons.math3.linear.MatrixUtils;
 import org.apache.commons.math3.linear.RealMatrix;
 import org.apache.commons.math3.linear.RealVector;
 
-import java.util.function.DoubleFunction;
+import java.util.function.DoubleUnaryOperator;
 import java.util.stream.IntStream;
 
 public class MathUtil {
@@ -78,12 +78,30 @@ public class MathUtil {
         return vector.append(0);
     }
 
-    public static void modifyMatrix(RealMatrix matrix, DoubleFunction<Double> modifier) {
+    public static void modifyMatrix(RealMatrix matrix, DoubleUnaryOperator modifier) {
         matrix.walkInRowOrder(new DefaultRealMatrixChangingVisitor() {
             @Override
             public double visit(int row, int column, double value) {
-                return modifier.apply(value);
+                return modifier.applyAsDouble(value);
             }
         });
     }
+
+    /**
+     * Rational approximation of tanh (continued fraction of Lambert with the terms up to x^7). The result is clamped
+     * to [-1, 1] which is reached at |x| = 4.97. The absolute error is below 1e-4 for all x (maximal at the clamping
+     * point) and below 1e-6 for |x| < 3.
+     */
+    public static double fastTanh(double x) {
+        if (x >= 4.97) {
+            return 1;
+        } else if (x <= -4.97) {
+            return -1;
+        }
+
+        double x2 = x * x;
+        double numerator = x * (135135 + x2 * (17325 + x2 * (378 + x2)));
+        double denominator = 135135 + x2 * (62370 + x2 * (3150 + 28 * x2));
+        return Math.max(-1, Math.min(1, numerator / denominator));
+    }
 }
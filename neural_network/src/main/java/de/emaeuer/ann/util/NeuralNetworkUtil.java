@@ -3,6 +3,8 @@ package de.emaeuer.ann.util;
 import de.emaeuer.ann.NeuralNetwork;
 import de.emaeuer.ann.NeuronID;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.stream.IntStream;
@@ -84,34 +86,56 @@ public class NeuralNetworkUtil {
     }
 
     public static int countHiddenNodes(NeuralNetwork neuralNetwork) {
-        // don't count neurons of input layer (i = 0) and output layer (i = depth - 1)
-        return IntStream.range(1, neuralNetwork.getDepth() - 1)
-                .mapToObj(neuralNetwork::getNeuronsOfLayer)
-                .mapToInt(List::size)
-                .sum();
+        // the neural networks maintain the number of hidden neurons and connections
+        return neuralNetwork.getNumberOfHiddenNeurons();
     }
 
     public static int countConnections(NeuralNetwork neuralNetwork) {
-        // iterate over all neurons and count their outgoing connections
-        return IntStream.range(0, neuralNetwork.getDepth())
-                .mapToObj(neuralNetwork::getNeuronsOfLayer)
-                .flatMap(List::stream)
-                .map(neuralNetwork::getOutgoingConnectionsOfNeuron)
-                .mapToInt(List::size)
-                .sum();
+        return neuralNetwork.getNumberOfConnections();
     }
 
     /**
-     * Builds a string that contains all connections
+     * Builds a string that contains all connections in sorted order. Because this is expensive
+     * {@link NeuralNetwork#getTopologyFingerprint()} should be used to identify equal prototypes.
      *
      * @return String that contains all connections which can be used to identify equal prototypes
      */
     public static String getTopologySummary(NeuralNetwork nn) {
-        StringBuilder builder = new StringBuilder();
+        List<String> connections = new ArrayList<>();
         NeuralNetworkUtil.iterateNeuralNetworkConnections(nn)
-                .forEachRemaining(c -> builder.append(String.format("[%d-%d->%d-%d]",
+                .forEachRemaining(c -> connections.add(String.format("[%d-%d->%d-%d]",
                         c.start().getLayerIndex(), c.start().getNeuronIndex(), c.end().getLayerIndex(), c.end().getNeuronIndex())));
-        return builder.toString();
+        Collections.sort(connections);
+        return String.join("", connections);
+    }
+
+    /**
+     * Calculates the order independent fingerprint of all connections (sum of the connection hashes).
+     */
+    public static long calculateTopologyFingerprint(NeuralNetwork nn) {
+        long fingerprint = 0;
+        Iterator<Connection> connections = iterateNeuralNetworkConnections(nn);
+        while (connections.hasNext()) {
+            Connection connection = connections.next();
+            fingerprint += hashConnection(connection.start(), connection.end());
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Hash of a connection which is used for the topology fingerprint. Adding (subtracting) the hash to (from) the
+     * fingerprint registers (unregisters) the connection.
+     */
+    public static long hashConnection(NeuronID start, NeuronID end) {
+        long key = ((long) start.getLayerIndex() << 48)
+                ^ ((long) (start.getNeuronIndex() & 0xFFFF) << 32)
+                ^ ((long) (end.getLayerIndex() & 0xFFFF) << 16)
+                ^ (end.getNeuronIndex() & 0xFFFF);
+
+        // finalizer of splitmix64 to spread the bits over the whole value range
+        key = (key ^ (key >>> 30)) * 0xBF58476D1CE4E5B9L;
+        key = (key ^ (key >>> 27)) * 0x94D049BB133111EBL;
+        return key ^ (key >>> 31);
     }
 
     public static boolean isSmaller(NeuralNetwork nn1, NeuralNetwork nn2) {
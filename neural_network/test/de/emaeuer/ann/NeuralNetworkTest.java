@@ -2,11 +2,15 @@ package de.emaeuer.ann;
 
 import de.emaeuer.ann.impl.layer.based.NeuralNetworkBuilderImpl;
 import de.emaeuer.ann.impl.layer.based.NeuralNetworkImpl;
+import de.emaeuer.ann.impl.layer.based.NeuralNetworkLayerBuilderImpl;
 import de.emaeuer.ann.impl.layer.based.NeuralNetworkLayerImpl;
 import org.apache.commons.math3.linear.ArrayRealVector;
 import org.apache.commons.math3.linear.RealVector;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+import java.util.function.Consumer;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class NeuralNetworkTest {
@@ -43,6 +47,37 @@ public class NeuralNetworkTest {
         return nn;
     }
 
+    private record Connection(NeuronID start, NeuronID end, double weight) {}
+
+    private Connection connection(int startLayer, int startNeuron, int endLayer, int endNeuron, double weight) {
+        return new Connection(new NeuronID(startLayer, startNeuron), new NeuronID(endLayer, endNeuron), weight);
+    }
+
+    /**
+     * Builds a new neural network with the given layer sizes and only the given (forward) connections
+     */
+    private NeuralNetworkImpl buildNeuralNetwork(int[] layerSizes, Connection... connections) {
+        NeuralNetworkBuilderImpl builder = (NeuralNetworkBuilderImpl) NeuralNetwork.build()
+                .inputLayer(layerSizes[0]);
+
+        for (int i = 1; i < layerSizes.length; i++) {
+            int layerIndex = i;
+            Consumer<NeuralNetworkLayerBuilderImpl> layer = b -> {
+                b.numberOfNeurons(layerSizes[layerIndex])
+                        .activationFunction(ActivationFunction.TANH);
+                Arrays.stream(connections)
+                        .filter(c -> c.end().getLayerIndex() == layerIndex)
+                        .forEach(c -> b.addConnection(c.start(), c.end(), c.weight()));
+            };
+
+            builder = i < layerSizes.length - 1
+                    ? builder.hiddenLayer(layer)
+                    : builder.outputLayer(layer);
+        }
+
+        return (NeuralNetworkImpl) builder.finish();
+    }
+
     /*
      ##########################################################
      ##################### Test Methods #######################
@@ -90,6 +125,28 @@ public class NeuralNetworkTest {
         assertArrayEquals(new double[]{0, 0}, nn.getLayer(1).getActivation().toArray());
     }
 
+    @Test
+    public void testBatchProcessing() {
+        NeuralNetworkImpl nn = (NeuralNetworkImpl) buildNeuralNetwork(2, 3, 2, 2);
+        nn.modify().addConnection(new NeuronID(0, 1), new NeuronID(3, 0), 0.5);
+
+        double[][] inputs = {{0, 0}, {0, 1}, {1, 0}, {1, 1}, {0.3, -0.7}};
+        double[][] batchOutputs = nn.processBatch(inputs);
+
+        assertEquals(inputs.length, batchOutputs.length);
+        for (int i = 0; i < inputs.length; i++) {
+            double[] output = new double[2];
+            nn.process(inputs[i], output);
+            assertArrayEquals(output, batchOutputs[i], 1e-12);
+        }
+    }
+
+    @Test
+    public void testEmptyBatch() {
+        NeuralNetwork nn = buildNeuralNetwork(2, 3, 2);
+        assertEquals(0, nn.processBatch(new double[0][]).length);
+    }
+
     @Test
     public void testCopy() {
         NeuralNetworkImpl nn = (NeuralNetworkImpl) buildNeuralNetwork(2, 3, 2, 2);
@@ -162,10 +219,94 @@ public class NeuralNetworkTest {
         assertArrayEquals(new double[] {1, -1}, nn.process(new ArrayRealVector(new double[] {1, 1})).toArray());
     }
 
+    @Test
+    public void testProcessingAfterAddingConnection() {
+        Connection[] connections = {connection(0, 0, 1, 0, 0.5), connection(0, 1, 1, 1, -0.8), connection(1, 0, 2, 0, 0.7), connection(1, 1, 2, 0, 0.3)};
+        NeuralNetworkImpl nn = buildNeuralNetwork(new int[]{2, 2, 1}, connections);
+        assertProcessesLike(buildNeuralNetwork(new int[]{2, 2, 1}, connections), nn);
+
+        // the output layer gets a new input neuron
+        nn.modify().addConnection(new NeuronID(0, 1), new NeuronID(2, 0), -0.4);
+
+        assertProcessesLike(buildNeuralNetwork(new int[]{2, 2, 1}, connections[0], connections[1], connections[2], connections[3],
+                connection(0, 1, 2, 0, -0.4)), nn);
+    }
+
+    @Test
+    public void testProcessingAfterRemovingConnection() {
+        Connection[] connections = {connection(0, 0, 1, 0, 0.5), connection(0, 1, 1, 1, -0.8), connection(0, 0, 2, 0, 0.9), connection(1, 0, 2, 0, 0.7), connection(1, 1, 2, 0, 0.3)};
+        NeuralNetworkImpl nn = buildNeuralNetwork(new int[]{2, 2, 1}, connections);
+        assertProcessesLike(buildNeuralNetwork(new int[]{2, 2, 1}, connections), nn);
+
+        // the output layer loses the input neuron in front of the other ones
+        nn.modify().removeConnection(new NeuronID(0, 0), new NeuronID(2, 0));
+
+        assertProcessesLike(buildNeuralNetwork(new int[]{2, 2, 1}, connections[0], connections[1], connections[3], connections[4]), nn);
+    }
+
+    @Test
+    public void testProcessingAfterAddingNeuron() {
+        Connection[] connections = {connection(0, 0, 1, 0, 0.5), connection(0, 1, 1, 1, -0.8), connection(1, 0, 2, 0, 0.7), connection(1, 1, 2, 0, 0.3)};
+        NeuralNetworkImpl nn = buildNeuralNetwork(new int[]{2, 2, 1}, connections);
+        assertProcessesLike(buildNeuralNetwork(new int[]{2, 2, 1}, connections), nn);
+
+        nn.modify()
+                .addNeuron(1, 0)
+                .addConnection(new NeuronID(0, 0), new NeuronID(1, 2), -0.6)
+                .addConnection(new NeuronID(1, 2), new NeuronID(2, 0), 0.2);
+
+        assertProcessesLike(buildNeuralNetwork(new int[]{2, 3, 1}, connections[0], connections[1], connections[2], connections[3],
+                connection(0, 0, 1, 2, -0.6), connection(1, 2, 2, 0, 0.2)), nn);
+    }
+
+    @Test
+    public void testProcessingAfterRemovingNeuron() {
+        NeuralNetworkImpl nn = buildNeuralNetwork(new int[]{2, 3, 1},
+                connection(0, 0, 1, 0, 0.5), connection(0, 1, 1, 1, -0.8), connection(0, 0, 1, 2, -0.6),
+                connection(1, 0, 2, 0, 0.7), connection(1, 1, 2, 0, 0.3), connection(1, 2, 2, 0, 0.2));
+        nn.process(new double[]{0.1, 0.2}, new double[1]);
+
+        // the remaining neurons of the hidden layer are shifted
+        nn.modify().removeNeuron(new NeuronID(1, 0));
+
+        assertProcessesLike(buildNeuralNetwork(new int[]{2, 2, 1},
+                connection(0, 1, 1, 0, -0.8), connection(0, 0, 1, 1, -0.6),
+                connection(1, 0, 2, 0, 0.3), connection(1, 1, 2, 0, 0.2)), nn);
+    }
+
+    @Test
+    public void testProcessingAfterInsertingLayer() {
+        Connection[] connections = {connection(0, 0, 1, 0, 0.5), connection(0, 1, 1, 1, -0.8), connection(0, 0, 2, 0, 0.9), connection(1, 0, 2, 0, 0.7), connection(1, 1, 2, 0, 0.3)};
+        NeuralNetworkImpl nn = buildNeuralNetwork(new int[]{2, 2, 1}, connections);
+        assertProcessesLike(buildNeuralNetwork(new int[]{2, 2, 1}, connections), nn);
+
+        // a new layer is inserted in front of the output layer
+        nn.modify().splitConnection(new NeuronID(1, 0), new NeuronID(2, 0));
+
+        assertProcessesLike(buildNeuralNetwork(new int[]{2, 2, 1, 1},
+                connection(0, 0, 1, 0, 0.5), connection(0, 1, 1, 1, -0.8), connection(1, 0, 2, 0, 0.7),
+                connection(0, 0, 3, 0, 0.9), connection(1, 1, 3, 0, 0.3), connection(2, 0, 3, 0, 1)), nn);
+    }
+
     /*
      ##########################################################
      #################### Helper Methods ######################
      ##########################################################
     */
 
+    private void assertProcessesLike(NeuralNetworkImpl expected, NeuralNetworkImpl actual) {
+        double[][] inputs = {{0, 0}, {0, 1}, {1, 0}, {1, 1}, {0.3, -0.7}};
+
+        double[][] expectedOutputs = expected.processBatch(inputs);
+        double[][] actualOutputs = actual.processBatch(inputs);
+
+        for (int i = 0; i < inputs.length; i++) {
+            assertArrayEquals(expectedOutputs[i], actualOutputs[i], 1e-12);
+
+            double[] output = new double[expectedOutputs[i].length];
+            actual.process(inputs[i], output);
+            assertArrayEquals(expectedOutputs[i], output, 1e-12);
+        }
+    }
+
 }
@@ -4,14 +4,17 @@ import de.emaeuer.ann.ActivationFunction;
 import de.emaeuer.ann.NeuralNetwork;
 import de.emaeuer.ann.NeuronID;
 import de.emaeuer.ann.configuration.NeuralNetworkConfiguration;
+import de.emaeuer.ann.impl.neuron.based.NeuralNetworkGroupEvaluator;
 import de.emaeuer.ann.impl.neuron.based.NeuronBasedNeuralNetwork;
 import de.emaeuer.ann.impl.neuron.based.NeuronBasedNeuralNetworkBuilder;
+import de.emaeuer.ann.impl.neuron.based.NeuronBasedNeuralNetworkModifier;
 import de.emaeuer.ann.util.NeuralNetworkUtil;
 import de.emaeuer.configuration.ConfigurationHandler;
 import org.apache.commons.math3.linear.ArrayRealVector;
 import org.junit.jupiter.api.Test;
 
 import java.util.*;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -53,6 +56,45 @@ public class NeuralNetworkTest {
         return nn;
     }
 
+    private NeuronBasedNeuralNetwork buildRecurrentNeuralNetwork(boolean compiledEvaluation) {
+        return buildRecurrentNeuralNetwork(compiledEvaluation, false);
+    }
+
+    private NeuronBasedNeuralNetwork buildRecurrentNeuralNetwork(boolean compiledEvaluation, boolean sharedTopologyCopy) {
+        return buildRecurrentNeuralNetwork(compiledEvaluation, sharedTopologyCopy, false);
+    }
+
+    private NeuronBasedNeuralNetwork buildRecurrentNeuralNetwork(boolean compiledEvaluation, boolean sharedTopologyCopy, boolean adjacencyIndex) {
+        ConfigurationHandler<NeuralNetworkConfiguration> config = new ConfigurationHandler<>(NeuralNetworkConfiguration.class);
+        config.setValue(NeuralNetworkConfiguration.INPUT_LAYER_SIZE, 2);
+        config.setValue(NeuralNetworkConfiguration.OUTPUT_LAYER_SIZE, 2);
+        config.setValue(NeuralNetworkConfiguration.COMPILED_EVALUATION, compiledEvaluation);
+        config.setValue(NeuralNetworkConfiguration.SHARED_TOPOLOGY_COPY, sharedTopologyCopy);
+        config.setValue(NeuralNetworkConfiguration.ADJACENCY_INDEX, adjacencyIndex);
+
+        NeuronBasedNeuralNetwork nn = NeuronBasedNeuralNetworkBuilder.buildWithConfiguration(config)
+                .implicitBias()
+                .inputLayer()
+                .hiddenLayer(3)
+                .outputLayer()
+                .finish();
+
+        nn.modify()
+                .addConnection(new NeuronID(0, 0), new NeuronID(1, 0), 0.5)
+                .addConnection(new NeuronID(0, 1), new NeuronID(1, 0), 1)
+                .addConnection(new NeuronID(0, 2), new NeuronID(1, 2), -1)
+                .addConnection(new NeuronID(1, 2), new NeuronID(1, 1), 2)
+                .addConnection(new NeuronID(1, 1), new NeuronID(1, 2), 0.5)
+                .addConnection(new NeuronID(1, 1), new NeuronID(1, 1), -0.5)
+                .addConnection(new NeuronID(1, 0), new NeuronID(2, 0), 1.5)
+                .addConnection(new NeuronID(1, 1), new NeuronID(2, 0), -2)
+                .addConnection(new NeuronID(2, 0), new NeuronID(1, 0), 0.8)
+                .addConnection(new NeuronID(2, 1), new NeuronID(2, 0), 1)
+                .addConnection(new NeuronID(1, 2), new NeuronID(2, 1), 1);
+
+        return nn;
+    }
+
     /*
      ##########################################################
      ##################### Test Methods #######################
@@ -170,10 +212,263 @@ public class NeuralNetworkTest {
         assertEquals(-7.5, nn.process(new ArrayRealVector(new double[] {1})).getEntry(0));
     }
 
+    @Test
+    public void testCompiledActivation() {
+        NeuronBasedNeuralNetwork nn = buildRecurrentNeuralNetwork(false);
+        NeuronBasedNeuralNetwork compiled = buildRecurrentNeuralNetwork(true);
+
+        double[][] inputs = {{0, 0}, {0, 1}, {1, 0}, {1, 1}, {0.5, -0.5}, {-1, 0.25}};
+
+        for (double[] input : inputs) {
+            assertArrayEquals(nn.process(new ArrayRealVector(input)).toArray(), compiled.process(new ArrayRealVector(input)).toArray(), 1e-12);
+        }
+
+        // weight and bias changes are applied to the compiled form in place
+        for (NeuralNetwork network : Arrays.asList(nn, compiled)) {
+            network.modify()
+                    .setWeightOfConnection(new NeuronID(1, 2), new NeuronID(1, 1), -0.7)
+                    .setBiasOfNeuron(new NeuronID(2, 0), 0.3);
+        }
+
+        for (double[] input : inputs) {
+            assertArrayEquals(nn.process(new ArrayRealVector(input)).toArray(), compiled.process(new ArrayRealVector(input)).toArray(), 1e-12);
+        }
+
+        // topology changes rebuild the compiled form and keep the recurrent state
+        for (NeuralNetwork network : Arrays.asList(nn, compiled)) {
+            network.modify()
+                    .splitConnection(new NeuronID(1, 0), new NeuronID(2, 0))
+                    .addConnection(new NeuronID(2, 0), new NeuronID(1, 3), 0.4)
+                    .removeConnection(new NeuronID(0, 2), new NeuronID(1, 2));
+        }
+
+        for (double[] input : inputs) {
+            assertArrayEquals(nn.process(new ArrayRealVector(input)).toArray(), compiled.process(new ArrayRealVector(input)).toArray(), 1e-12);
+        }
+    }
+
+    @Test
+    public void testSharedTopologyCopy() {
+        NeuronBasedNeuralNetwork reference = buildRecurrentNeuralNetwork(false);
+        NeuronBasedNeuralNetwork nn = buildRecurrentNeuralNetwork(false, true);
+        nn.shareTopologyWithCopies();
+
+        NeuralNetwork referenceCopy = reference.copy();
+        NeuronBasedNeuralNetwork copy = (NeuronBasedNeuralNetwork) nn.copy();
+        assertSame(nn.getHiddenNeurons(), copy.getHiddenNeurons());
+
+        double[][] inputs = {{0, 0}, {0, 1}, {1, 0}, {1, 1}, {0.5, -0.5}, {-1, 0.25}};
+
+        // weight and bias changes only affect the changed copy
+        for (NeuralNetwork network : Arrays.asList(referenceCopy, copy)) {
+            network.modify()
+                    .setWeightOfConnection(new NeuronID(1, 2), new NeuronID(1, 1), -0.7)
+                    .setBiasOfNeuron(new NeuronID(2, 0), 0.3);
+        }
+
+        assertEquals(2, nn.getWeightOfConnection(new NeuronID(1, 2), new NeuronID(1, 1)));
+        assertEquals(-0.7, copy.getWeightOfConnection(new NeuronID(1, 2), new NeuronID(1, 1)));
+        assertEquals(0, nn.getBiasOfNeuron(new NeuronID(2, 0)));
+        assertEquals(0.3, copy.getBiasOfNeuron(new NeuronID(2, 0)));
+
+        assertSameActivations(reference, nn, inputs);
+        assertSameActivations(referenceCopy, copy, inputs);
+
+        // topology changes copy the shared topology first
+        for (NeuralNetwork network : Arrays.asList(referenceCopy, copy)) {
+            network.modify()
+                    .splitConnection(new NeuronID(1, 0), new NeuronID(2, 0))
+                    .addConnection(new NeuronID(2, 0), new NeuronID(1, 3), 0.4);
+        }
+        for (NeuralNetwork network : Arrays.asList(reference, nn)) {
+            network.modify().removeConnection(new NeuronID(0, 2), new NeuronID(1, 2));
+        }
+
+        assertEquals(3, nn.getNumberOfHiddenNeurons());
+        assertEquals(4, copy.getNumberOfHiddenNeurons());
+        assertTrue(copy.neuronHasConnectionTo(new NeuronID(0, 2), new NeuronID(1, 2)));
+        assertFalse(nn.neuronHasConnectionTo(new NeuronID(0, 2), new NeuronID(1, 2)));
+
+        assertSameActivations(reference, nn, inputs);
+        assertSameActivations(referenceCopy, copy, inputs);
+    }
+
+    @Test
+    public void testCopyDoesNotShareTopologyImplicitly() {
+        NeuronBasedNeuralNetwork reference = buildRecurrentNeuralNetwork(false);
+        NeuronBasedNeuralNetwork nn = buildRecurrentNeuralNetwork(false, true);
+
+        // only a neural network which was marked explicitly shares its topology
+        NeuronBasedNeuralNetwork copy = (NeuronBasedNeuralNetwork) nn.copy();
+        assertNotSame(nn.getHiddenNeurons(), copy.getHiddenNeurons());
+        assertNotSame(nn.getHiddenNeurons(), ((NeuronBasedNeuralNetwork) nn.copy()).getHiddenNeurons());
+
+        // the copied neural network is unchanged and keeps its activations in the neurons
+        double[][] inputs = {{0, 0}, {0, 1}, {1, 0}, {1, 1}, {0.5, -0.5}, {-1, 0.25}};
+        assertSameActivations(reference, nn, inputs);
+        assertSameActivations(reference.copy(), copy, inputs);
+        assertEquals(reference.getHiddenNeurons().get(0).getActivation(), nn.getHiddenNeurons().get(0).getActivation());
+    }
+
+    @Test
+    public void testTopologyFingerprint() {
+        NeuronBasedNeuralNetwork nn = buildRecurrentNeuralNetwork(false);
+        NeuronBasedNeuralNetwork other = buildRecurrentNeuralNetwork(false);
+
+        long initialFingerprint = nn.getTopologyFingerprint();
+        assertEquals(NeuralNetworkUtil.calculateTopologyFingerprint(nn), initialFingerprint);
+        assertEquals(initialFingerprint, other.getTopologyFingerprint());
+
+        // the fingerprint is updated incrementally and doesn't depend on the order of the modifications
+        nn.modify()
+                .splitConnection(new NeuronID(1, 0), new NeuronID(2, 0))
+                .addConnection(new NeuronID(2, 0), new NeuronID(1, 3), 0.4)
+                .removeConnection(new NeuronID(0, 2), new NeuronID(1, 2));
+        other.modify()
+                .removeConnection(new NeuronID(0, 2), new NeuronID(1, 2))
+                .splitConnection(new NeuronID(1, 0), new NeuronID(2, 0))
+                .addConnection(new NeuronID(2, 0), new NeuronID(1, 3), 0.4);
+
+        assertNotEquals(initialFingerprint, nn.getTopologyFingerprint());
+        assertEquals(NeuralNetworkUtil.calculateTopologyFingerprint(nn), nn.getTopologyFingerprint());
+        assertEquals(nn.getTopologyFingerprint(), other.getTopologyFingerprint());
+        assertEquals(nn.getTopologyFingerprint(), nn.copy().getTopologyFingerprint());
+
+        // removing the connection again restores the fingerprint
+        long fingerprint = nn.getTopologyFingerprint();
+        nn.modify()
+                .addConnection(new NeuronID(0, 1), new NeuronID(2, 1), 1)
+                .removeConnection(new NeuronID(0, 1), new NeuronID(2, 1));
+        assertEquals(fingerprint, nn.getTopologyFingerprint());
+
+        nn.modify().removeNeuron(new NeuronID(1, 0));
+        assertEquals(NeuralNetworkUtil.calculateTopologyFingerprint(nn), nn.getTopologyFingerprint());
+    }
+
+    @Test
+    public void testStructuralStatistics() {
+        NeuronBasedNeuralNetwork nn = buildRecurrentNeuralNetwork(false);
+        assertEquals(countConnections(nn), nn.getNumberOfConnections());
+        assertEquals(nn.getNeuronsOfLayer(1).size(), nn.getNumberOfHiddenNeurons());
+
+        nn.modify()
+                .splitConnection(new NeuronID(1, 0), new NeuronID(2, 0))
+                .addConnection(new NeuronID(2, 0), new NeuronID(1, 3), 0.4)
+                .removeConnection(new NeuronID(0, 2), new NeuronID(1, 2));
+        assertEquals(countConnections(nn), nn.getNumberOfConnections());
+        assertEquals(countConnections(nn), nn.copy().getNumberOfConnections());
+        assertEquals(nn.getNeuronsOfLayer(1).size(), nn.getNumberOfHiddenNeurons());
+
+        nn.modify().removeNeuron(new NeuronID(1, 0));
+        assertEquals(countConnections(nn), nn.getNumberOfConnections());
+        assertEquals(nn.getNeuronsOfLayer(1).size(), nn.getNumberOfHiddenNeurons());
+    }
+
+    @Test
+    public void testAdjacencyIndex() {
+        NeuronBasedNeuralNetwork reference = buildRecurrentNeuralNetwork(false);
+        NeuronBasedNeuralNetwork indexed = buildRecurrentNeuralNetwork(false, true, true);
+        NeuronBasedNeuralNetwork indexedCopy = (NeuronBasedNeuralNetwork) indexed.copy();
+        assertSameConnections(reference, indexed);
+
+        for (NeuronBasedNeuralNetwork nn : Arrays.asList(reference, indexed)) {
+            nn.modify()
+                    .splitConnection(new NeuronID(1, 0), new NeuronID(2, 0))
+                    .addConnection(new NeuronID(2, 0), new NeuronID(1, 3), 0.4)
+                    .removeConnection(new NeuronID(0, 2), new NeuronID(1, 2));
+            ((NeuronBasedNeuralNetworkModifier) nn.modify()).splitNeuron(new NeuronID(1, 2));
+        }
+        assertSameConnections(reference, indexed);
+        assertSameConnections(reference, indexed.copy());
+
+        // the copy with shared topology isn't affected by the modifications
+        assertSameConnections(buildRecurrentNeuralNetwork(false), indexedCopy);
+
+        for (NeuralNetwork nn : Arrays.asList(reference, indexed)) {
+            nn.modify().removeNeuron(new NeuronID(1, 1));
+        }
+        assertSameConnections(reference, indexed);
+    }
+
+    @Test
+    public void testGroupEvaluation() {
+        NeuronBasedNeuralNetwork first = buildRecurrentNeuralNetwork(false);
+        NeuronBasedNeuralNetwork second = (NeuronBasedNeuralNetwork) first.copy();
+        NeuronBasedNeuralNetwork third = (NeuronBasedNeuralNetwork) first.copy();
+        second.modify().setWeightOfConnection(new NeuronID(1, 2), new NeuronID(1, 1), -1.5);
+        third.modify().setBiasOfNeuron(new NeuronID(1, 0), 0.25);
+
+        List<NeuronBasedNeuralNetwork> networks = Arrays.asList(first, second, third);
+        List<NeuronBasedNeuralNetwork> references = networks.stream()
+                .map(NeuralNetwork::copy)
+                .map(NeuronBasedNeuralNetwork.class::cast)
+                .toList();
+
+        assertTrue(NeuralNetworkGroupEvaluator.haveSameStructure(first, second));
+        NeuralNetworkGroupEvaluator evaluator = new NeuralNetworkGroupEvaluator(networks);
+
+        double[][] inputs = {{0, 0}, {0, 1}, {1, 0}, {1, 1}, {0.5, -0.5}};
+        double[][] outputs = new double[3][2];
+
+        for (int step = 0; step < inputs.length; step++) {
+            // the third network is only active in the first two steps
+            double[][] groupInput = {inputs[step], inputs[step], step < 2 ? inputs[step] : null};
+            evaluator.process(groupInput, outputs);
+
+            for (int i = 0; i < 3; i++) {
+                if (groupInput[i] != null) {
+                    double[] expected = new double[2];
+                    references.get(i).process(groupInput[i], expected);
+                    assertArrayEquals(expected, outputs[i], 1e-12);
+                }
+            }
+        }
+
+        // after the state was written back the networks continue individually
+        evaluator.storeActivations();
+        for (int i = 0; i < 3; i++) {
+            assertArrayEquals(references.get(i).process(new ArrayRealVector(inputs[0])).toArray(), networks.get(i).process(new ArrayRealVector(inputs[0])).toArray(), 1e-12);
+        }
+    }
+
     /*
      ##########################################################
      #################### Helper Methods ######################
      ##########################################################
     */
 
+    private void assertSameActivations(NeuralNetwork expected, NeuralNetwork actual, double[][] inputs) {
+        for (double[] input : inputs) {
+            assertArrayEquals(expected.process(new ArrayRealVector(input)).toArray(), actual.process(new ArrayRealVector(input)).toArray(), 1e-12);
+        }
+    }
+
+    private void assertSameConnections(NeuralNetwork expected, NeuralNetwork actual) {
+        List<NeuronID> neurons = IntStream.rangeClosed(0, 2)
+                .mapToObj(expected::getNeuronsOfLayer)
+                .flatMap(List::stream)
+                .toList();
+
+        for (NeuronID start : neurons) {
+            assertEquals(new HashSet<>(expected.getOutgoingConnectionsOfNeuron(start)), new HashSet<>(actual.getOutgoingConnectionsOfNeuron(start)));
+            assertEquals(new HashSet<>(expected.getIncomingConnectionsOfNeuron(start)), new HashSet<>(actual.getIncomingConnectionsOfNeuron(start)));
+            for (int layer = 0; layer <= 2; layer++) {
+                assertEquals(expected.neuronHasConnectionToLayer(start, layer), actual.neuronHasConnectionToLayer(start, layer));
+            }
+            // neurons are hashed by their id which changes if a neuron is removed --> check with the outgoing connections
+            List<NeuronID> outgoing = expected.getOutgoingConnectionsOfNeuron(start);
+            for (NeuronID end : neurons) {
+                assertEquals(outgoing.contains(end), actual.neuronHasConnectionTo(start, end));
+            }
+        }
+    }
+
+    private int countConnections(NeuralNetwork nn) {
+        return IntStream.rangeClosed(0, 2)
+                .mapToObj(nn::getNeuronsOfLayer)
+                .flatMap(List::stream)
+                .mapToInt(n -> nn.getIncomingConnectionsOfNeuron(n).size())
+                .sum();
+    }
+
 }
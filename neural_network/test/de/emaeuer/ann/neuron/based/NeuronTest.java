@@ -103,10 +103,10 @@ public class NeuronTest {
     public void testActivationWithoutInput() {
         Neuron neuron = buildNeuron(new NeuronID(0, 0), ActivationFunction.SIGMOID, NeuronType.HIDDEN, 2);
         neuron.activate();
-        assertEquals(ActivationFunction.SIGMOID.apply(2), neuron.getActivation());
+        assertEquals(ActivationFunction.SIGMOID.applyAsDouble(2), neuron.getActivation());
         neuron.reactivate();
         neuron.activate();
-        assertEquals(ActivationFunction.SIGMOID.apply(2), neuron.getActivation());
+        assertEquals(ActivationFunction.SIGMOID.applyAsDouble(2), neuron.getActivation());
     }
 
     @Test
@@ -136,6 +136,16 @@ public class MathUtilTest {
 
     }
 
+    @Test
+    public void testFastTanh() {
+        for (double x = -10; x <= 10; x += 0.001) {
+            assertEquals(Math.tanh(x), MathUtil.fastTanh(x), 1e-4);
+        }
+        assertEquals(0, MathUtil.fastTanh(0));
+        assertEquals(1, MathUtil.fastTanh(Double.POSITIVE_INFINITY));
+        assertEquals(-1, MathUtil.fastTanh(Double.NEGATIVE_INFINITY));
+    }
+
     /*
      ##########################################################
      #################### Helper Methods ######################
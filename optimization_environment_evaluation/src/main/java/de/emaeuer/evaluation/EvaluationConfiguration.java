@@ -11,6 +11,11 @@ import java.util.function.BiConsumer;
 
 public enum EvaluationConfiguration implements DefaultConfiguration<EvaluationConfiguration> {
     MAX_TIME("Maximum optimization time in seconds", new IntegerConfigurationValue(0, 0, Integer.MAX_VALUE)),
+    LOCKSTEP_EVALUATION("Evaluate ants with the same topology in lockstep", new BooleanConfigurationValue(false)),
+    RACING("Stop agents early if they can't be selected by the optimization any more (only the cart pole with penalized oscillations after step 1000)", new BooleanConfigurationValue(false)),
+    FITNESS_CACHE_PRECISION("Precision of the weights which are considered equal by the fitness cache", new DoubleConfigurationValue(0.000001, 0.000000001, 1)),
+    FITNESS_CACHE_SIZE("Number of cached fitness values of evaluated networks (only for deterministic environments, 0 disables the cache)", new IntegerConfigurationValue(0, 0, 1000000),
+            (v, h) -> h.disableConfiguration(FITNESS_CACHE_PRECISION, Integer.parseInt(v.getStringRepresentation()) == 0)),
     OPTIMIZATION_CONFIGURATION("Optimization configuration", new EmbeddedConfiguration<>(new ConfigurationHandler<>(OptimizationConfiguration.class))),
     ENVIRONMENT_CONFIGURATION("Environment configuration", new EmbeddedConfiguration<>(new ConfigurationHandler<>(EnvironmentConfiguration.class))),
     SEED("Seed of the evaluation", new IntegerConfigurationValue(9369319),
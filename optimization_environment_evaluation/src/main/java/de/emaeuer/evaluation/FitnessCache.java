@@ -0,0 +1,120 @@
+package de.emaeuer.evaluation;
+
+import de.emaeuer.ann.NeuralNetwork;
+import de.emaeuer.ann.NeuronID;
+import de.emaeuer.ann.util.NeuralNetworkUtil;
+import de.emaeuer.ann.util.NeuralNetworkUtil.Connection;
+
+import java.util.*;
+
+/**
+ * Bounded cache of the fitness of neural networks which evicts the least recently used entries. Networks are equal if
+ * they have the same connections and the same weights and biases after rounding them to the precision of the cache.
+ * <p>
+ * The cache is only valid for deterministic environments because a network is never evaluated again.
+ */
+public class FitnessCache {
+
+    /**
+     * Canonical description of a neural network which contains the quantized biases of all neurons and the sorted
+     * connections with their quantized weights
+     */
+    public static final class Key {
+
+        private final long[] data;
+        private final int hash;
+
+        private Key(long[] data) {
+            this.data = data;
+            this.hash = Arrays.hashCode(data);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) return true;
+            if (obj == null || obj.getClass() != this.getClass()) return false;
+            return Arrays.equals(this.data, ((Key) obj).data);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+
+    private final double precision;
+
+    private final Map<Key, Double> cache;
+
+    public FitnessCache(int maxSize, double precision) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException(String.format("The size of the fitness cache must be positive but was %d", maxSize));
+        }
+
+        this.precision = precision;
+        // access order to evict the least recently used entry
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Double> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public Key createKey(NeuralNetwork nn) {
+        List<NeuronID> neurons = new ArrayList<>();
+        NeuralNetworkUtil.iterateNeurons(nn).forEachRemaining(neurons::add);
+
+        List<Connection> connections = new ArrayList<>(nn.getNumberOfConnections());
+        NeuralNetworkUtil.iterateNeuralNetworkConnections(nn).forEachRemaining(connections::add);
+        // the order of the connections depends on the order of their creation
+        connections.sort(Comparator.comparingLong(c -> encodeConnection(c.start(), c.end())));
+
+        long[] data = new long[2 * neurons.size() + 2 * connections.size()];
+        int index = 0;
+
+        for (NeuronID neuron : neurons) {
+            data[index++] = encodeNeuron(neuron);
+            data[index++] = nn.isInputNeuron(neuron) ? 0 : quantize(nn.getBiasOfNeuron(neuron));
+        }
+
+        for (Connection connection : connections) {
+            data[index++] = encodeConnection(connection.start(), connection.end());
+            data[index++] = quantize(connection.weight());
+        }
+
+        return new Key(data);
+    }
+
+    /**
+     * @return the cached fitness or null if the network wasn't evaluated or was evicted
+     */
+    public Double get(Key key) {
+        return this.cache.get(key);
+    }
+
+    public void put(Key key, double fitness) {
+        this.cache.put(key, fitness);
+    }
+
+    public int size() {
+        return this.cache.size();
+    }
+
+    /* ### Helper Methods ### */
+
+    private long quantize(double value) {
+        return Math.round(value / this.precision);
+    }
+
+    private static long encodeNeuron(NeuronID neuron) {
+        return ((long) neuron.getLayerIndex() << 32) | (neuron.getNeuronIndex() & 0xFFFFFFFFL);
+    }
+
+    private static long encodeConnection(NeuronID start, NeuronID end) {
+        return ((long) start.getLayerIndex() << 48)
+                | ((long) (start.getNeuronIndex() & 0xFFFF) << 32)
+                | ((long) (end.getLayerIndex() & 0xFFFF) << 16)
+                | (end.getNeuronIndex() & 0xFFFF);
+    }
+}
@@ -1,20 +1,36 @@
 package de.emaeuer.evaluation;
 
 import de.emaeuer.environment.AgentController;
+import de.emaeuer.ann.NeuralNetwork;
 import de.emaeuer.optimization.Solution;
-import org.apache.commons.math3.linear.ArrayRealVector;
 
 public class NeuralNetworkAgentController implements AgentController {
 
     private final Solution brain;
 
+    private final double[] action;
+
     public NeuralNetworkAgentController(Solution brain) {
         this.brain = brain;
+
+        NeuralNetwork nn = brain.getNeuralNetwork();
+        this.action = new double[nn.getNeuronsOfLayer(nn.getDepth() - 1).size()];
     }
 
     @Override
     public double[] getAction(double[] agentData) {
-        return brain.process(new ArrayRealVector(agentData)).toArray();
+        getAction(agentData, this.action);
+        return this.action;
+    }
+
+    @Override
+    public void getAction(double[] agentData, double[] action) {
+        this.brain.process(agentData, action);
+    }
+
+    @Override
+    public double[][] getActions(double[][] agentData) {
+        return this.brain.processBatch(agentData);
     }
 
     @Override
@@ -47,6 +63,10 @@ public class NeuralNetworkAgentController implements AgentController {
         return this.brain.getNeuralNetwork().getMinActivation();
     }
 
+    public Solution getSolution() {
+        return this.brain;
+    }
+
     @Override
     public AgentController copy() {
         return new NeuralNetworkAgentController(brain.copy());
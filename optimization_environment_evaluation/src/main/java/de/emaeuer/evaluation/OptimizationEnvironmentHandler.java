@@ -10,6 +10,7 @@ import de.emaeuer.environment.elements.AbstractElement;
 import de.emaeuer.environment.factory.EnvironmentFactory;
 import de.emaeuer.optimization.OptimizationMethod;
 import de.emaeuer.optimization.Solution;
+import de.emaeuer.optimization.SteadyStateOptimizationMethod;
 import de.emaeuer.optimization.configuration.OptimizationConfiguration;
 import de.emaeuer.optimization.configuration.OptimizationState;
 import de.emaeuer.optimization.factory.OptimizationMethodFactory;
@@ -17,7 +18,12 @@ import de.emaeuer.state.StateHandler;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -43,12 +49,21 @@ public class OptimizationEnvironmentHandler implements Runnable {
     private boolean automaticallyStartNextRun = true;
     private boolean currentlyAutomaticallyPaused = false;
     private boolean stoppedBecauseOfException = false;
+    private boolean steadyState = false;
+    private boolean racing = false;
 
     private StateHandler<OptimizationState> optimizationState;
     private ConfigurationHandler<EvaluationConfiguration> configuration;
 
     private AbstractEnvironment<?> environment;
     private OptimizationMethod optimization;
+    // the optimization method if it evaluates its solutions in the steady state mode otherwise null
+    private SteadyStateOptimizationMethod steadyStateOptimization;
+
+    // null if the fitness cache is disabled
+    private FitnessCache fitnessCache;
+    // solutions of the current iteration which are evaluated by the environment and their keys in the fitness cache
+    private final Map<Solution, FitnessCache.Key> uncachedSolutions = new IdentityHashMap<>();
 
     private final Lock updateLock = new ReentrantLock(true);
 
@@ -80,6 +95,25 @@ public class OptimizationEnvironmentHandler implements Runnable {
         this.maxFitness = this.configuration.getValue(EvaluationConfiguration.MAX_FITNESS_SCORE, Double.class);
         ConfigurationHandler<EnvironmentConfiguration> environmentConfig = ConfigurationHelper.extractEmbeddedConfiguration(this.configuration, EnvironmentConfiguration.class, EvaluationConfiguration.ENVIRONMENT_CONFIGURATION);
         this.environment = EnvironmentFactory.createEnvironment(environmentConfig);
+
+        if (this.configuration.getValue(EvaluationConfiguration.LOCKSTEP_EVALUATION, Boolean.class)) {
+            this.environment.setLockstepEvaluatorFactory(TopologyGroupLockstepEvaluator::new);
+        }
+
+        // the cache belongs to this environment and its seed, hence it is kept for all runs
+        int cacheSize = this.configuration.getValue(EvaluationConfiguration.FITNESS_CACHE_SIZE, Integer.class);
+        this.uncachedSolutions.clear();
+        if (cacheSize > 0 && this.configuration.getValue(EvaluationConfiguration.TEST_GENERALIZATION, Boolean.class)) {
+            LOG.warn("The fitness cache can't be used if the generalization is tested");
+            this.fitnessCache = null;
+        } else if (cacheSize > 0 && !this.environment.isDeterministic()) {
+            LOG.warn("The fitness cache can't be used because the environment isn't deterministic");
+            this.fitnessCache = null;
+        } else if (cacheSize > 0) {
+            this.fitnessCache = new FitnessCache(cacheSize, this.configuration.getValue(EvaluationConfiguration.FITNESS_CACHE_PRECISION, Double.class));
+        } else {
+            this.fitnessCache = null;
+        }
     }
 
     private void createOptimizationMethod() {
@@ -88,10 +122,31 @@ public class OptimizationEnvironmentHandler implements Runnable {
         this.maxEvaluations = optimizationConfig.getValue(OptimizationConfiguration.MAX_NUMBER_OF_EVALUATIONS, Integer.class);
         this.maxRuns = optimizationConfig.getValue(OptimizationConfiguration.NUMBER_OF_RUNS, Integer.class);
         this.optimization = OptimizationMethodFactory.createMethodForConfig(optimizationConfig, this.optimizationState);
+
+        this.steadyState = this.optimization instanceof SteadyStateOptimizationMethod method && method.isSteadyState();
+        if (this.steadyState && !this.environment.supportsSteadyStateEvaluation()) {
+            LOG.warn("The environment doesn't support the steady state evaluation, using iterations instead");
+            this.steadyState = false;
+        } else if (this.steadyState && this.configuration.getValue(EvaluationConfiguration.TEST_GENERALIZATION, Boolean.class)) {
+            LOG.warn("The generalization can't be tested in the steady state evaluation, using iterations instead");
+            this.steadyState = false;
+        }
+
+        this.steadyStateOptimization = this.steadyState ? (SteadyStateOptimizationMethod) this.optimization : null;
+
+        this.racing = this.configuration.getValue(EvaluationConfiguration.RACING, Boolean.class);
+        if (this.racing && this.steadyState) {
+            LOG.warn("Racing isn't supported in the steady state evaluation and is disabled");
+            this.racing = false;
+        } else if (this.racing && !this.environment.supportsRacing()) {
+            LOG.warn("The environment can't bound the fitness of its agents, racing is disabled");
+            this.racing = false;
+        }
     }
 
     public void reset() {
         this.optimization = null;
+        this.steadyStateOptimization = null;
         this.environment = null;
 
         this.evaluationCounter = 0;
@@ -104,6 +159,11 @@ public class OptimizationEnvironmentHandler implements Runnable {
     }
 
     public void update() {
+        if (this.steadyState) {
+            updateSteadyState();
+            return;
+        }
+
         if (environment.environmentFinished()) {
             handleRestart();
             this.updateNotifier = !this.updateNotifier;
@@ -126,9 +186,14 @@ public class OptimizationEnvironmentHandler implements Runnable {
 
         // optimization update only if the optimization already started
         if (optimization.getEvaluationCounter() > 0) {
+            cacheEvaluatedSolutions();
             this.optimization.update();
         }
 
+        continueOptimization();
+    }
+
+    private void continueOptimization() {
         if (optimization.isRunFinished() && !this.automaticallyStartNextRun && !this.currentlyAutomaticallyPaused) {
             // wait for user to continue with the next run
             this.pauseThread.set(true);
@@ -156,6 +221,103 @@ public class OptimizationEnvironmentHandler implements Runnable {
     private void handleNextIteration() {
         List<? extends Solution> neuralNetworksToEvaluate = this.optimization.nextIteration();
 
+        if (this.fitnessCache != null) {
+            neuralNetworksToEvaluate = applyFitnessCache(neuralNetworksToEvaluate);
+        }
+
+        if (this.racing) {
+            this.environment.setRacingThresholds(this.optimization.getAdmissionThreshold(), this.optimization.getNumberOfSelectableSolutions());
+        }
+
+        this.environment.setControllers(createControllers(neuralNetworksToEvaluate));
+    }
+
+    /**
+     * Sets the fitness of all cached solutions
+     *
+     * @return the solutions which must be evaluated by the environment
+     */
+    private List<? extends Solution> applyFitnessCache(List<? extends Solution> solutions) {
+        List<Solution> uncached = new ArrayList<>(solutions.size());
+
+        for (Solution solution : solutions) {
+            FitnessCache.Key key = this.fitnessCache.createKey(solution.getNeuralNetwork());
+            Double fitness = this.fitnessCache.get(key);
+
+            if (fitness == null) {
+                this.uncachedSolutions.put(solution, key);
+                uncached.add(solution);
+            } else {
+                solution.setFitness(fitness);
+            }
+        }
+
+        this.optimization.reportCachedEvaluations(solutions.size() - uncached.size());
+        return uncached;
+    }
+
+    private void cacheEvaluatedSolutions() {
+        if (this.fitnessCache == null) {
+            return;
+        }
+
+        // the fitness of stopped agents is only partial
+        Set<Solution> abortedSolutions = Collections.newSetFromMap(new IdentityHashMap<>());
+        this.environment.getAbortedControllers()
+                .forEach(c -> abortedSolutions.add(((NeuralNetworkAgentController) c).getSolution()));
+
+        this.uncachedSolutions.entrySet()
+                .stream()
+                .filter(e -> !abortedSolutions.contains(e.getKey()))
+                .forEach(e -> this.fitnessCache.put(e.getValue(), e.getKey().getFitness()));
+        this.uncachedSolutions.clear();
+    }
+
+    private void updateSteadyState() {
+        if (this.optimization.isRunFinished()) {
+            // the agents which are still evaluated belong to the finished run
+            this.environment.restart();
+            continueOptimization();
+            this.updateNotifier = !this.updateNotifier;
+            return;
+        }
+
+        // each finished agent is returned immediately and replaced by a new one
+        for (AgentController controller : this.environment.pollFinishedControllers()) {
+            if (this.steadyStateOptimization.updateSolution(((NeuralNetworkAgentController) controller).getSolution())) {
+                this.updateNotifier = !this.updateNotifier;
+            }
+
+            if (this.optimization.isRunFinished()) {
+                return;
+            }
+        }
+
+        fillSteadyState();
+
+        if (!this.finished && isPlaying()) {
+            step();
+        }
+    }
+
+    private void fillSteadyState() {
+        int numberOfMissingSolutions = this.steadyStateOptimization.getNumberOfSolutionsInFlight() - this.environment.getAgents().size();
+
+        List<Solution> neuralNetworksToEvaluate = new ArrayList<>(Math.max(0, numberOfMissingSolutions));
+        for (int i = 0; i < numberOfMissingSolutions; i++) {
+            Solution next = this.steadyStateOptimization.nextSolution();
+            if (next == null) {
+                break;
+            }
+            neuralNetworksToEvaluate.add(next);
+        }
+
+        if (!neuralNetworksToEvaluate.isEmpty()) {
+            this.environment.addControllers(createControllers(neuralNetworksToEvaluate));
+        }
+    }
+
+    private List<AgentController> createControllers(List<? extends Solution> neuralNetworksToEvaluate) {
         List<AgentController> solutions = neuralNetworksToEvaluate
                 .stream()
                 .map(NeuralNetworkAgentController::new)
@@ -172,7 +334,7 @@ public class OptimizationEnvironmentHandler implements Runnable {
             throw new IllegalStateException("Network got to large, aborting optimization");
         }
 
-        this.environment.setControllers(solutions);
+        return solutions;
     }
 
     private boolean startGeneralizationIfNecessary() {
@@ -0,0 +1,104 @@
+package de.emaeuer.evaluation;
+
+import de.emaeuer.ann.impl.neuron.based.NeuralNetworkGroupEvaluator;
+import de.emaeuer.ann.impl.neuron.based.NeuronBasedNeuralNetwork;
+import de.emaeuer.environment.AgentController;
+import de.emaeuer.environment.LockstepEvaluator;
+import de.emaeuer.optimization.dannaco.Ant;
+
+import java.util.*;
+
+/**
+ * Groups the ants of one generation by their topology key and evaluates all ants of a group with one
+ * {@link NeuralNetworkGroupEvaluator}. Controllers which can't be grouped (other solutions, layer based neural networks
+ * or unique topologies) are evaluated individually.
+ */
+public class TopologyGroupLockstepEvaluator implements LockstepEvaluator {
+
+    private record Group(NeuralNetworkGroupEvaluator evaluator, int[] members, double[][] inputs, double[][] outputs) {}
+
+    private final List<AgentController> controllers;
+    private final List<Group> groups = new ArrayList<>();
+    private final List<Integer> individuals = new ArrayList<>();
+
+    private final double[][] actions;
+
+    public TopologyGroupLockstepEvaluator(List<AgentController> controllers) {
+        this.controllers = controllers;
+        this.actions = new double[controllers.size()][];
+
+        Map<Long, List<Integer>> candidates = new LinkedHashMap<>();
+        for (int i = 0; i < controllers.size(); i++) {
+            if (controllers.get(i) instanceof NeuralNetworkAgentController controller
+                    && controller.getSolution() instanceof Ant ant
+                    && ant.getNeuralNetwork() instanceof NeuronBasedNeuralNetwork) {
+                candidates.computeIfAbsent(ant.getTopologyData().getTopologyKey(), k -> new ArrayList<>()).add(i);
+            } else {
+                this.individuals.add(i);
+            }
+        }
+
+        candidates.values().forEach(this::createGroup);
+    }
+
+    private void createGroup(List<Integer> candidates) {
+        NeuronBasedNeuralNetwork template = getNeuralNetwork(candidates.get(0));
+
+        // equal topology keys don't guarantee the same evaluation order of recurrent connections
+        List<Integer> members = new ArrayList<>();
+        for (int candidate : candidates) {
+            if (candidate == candidates.get(0) || NeuralNetworkGroupEvaluator.haveSameStructure(template, getNeuralNetwork(candidate))) {
+                members.add(candidate);
+            } else {
+                this.individuals.add(candidate);
+            }
+        }
+
+        if (members.size() == 1) {
+            this.individuals.add(members.get(0));
+            return;
+        }
+
+        NeuralNetworkGroupEvaluator evaluator = new NeuralNetworkGroupEvaluator(members.stream()
+                .map(this::getNeuralNetwork)
+                .toList());
+        double[][] outputs = new double[members.size()][evaluator.getNumberOfOutputs()];
+
+        int[] memberIndices = members.stream()
+                .mapToInt(Integer::intValue)
+                .toArray();
+        for (int i = 0; i < memberIndices.length; i++) {
+            this.actions[memberIndices[i]] = outputs[i];
+        }
+
+        this.groups.add(new Group(evaluator, memberIndices, new double[members.size()][], outputs));
+    }
+
+    private NeuronBasedNeuralNetwork getNeuralNetwork(int controllerIndex) {
+        NeuralNetworkAgentController controller = (NeuralNetworkAgentController) this.controllers.get(controllerIndex);
+        return (NeuronBasedNeuralNetwork) controller.getSolution().getNeuralNetwork();
+    }
+
+    @Override
+    public double[][] getActions(double[][] agentData) {
+        for (Group group : this.groups) {
+            for (int i = 0; i < group.members().length; i++) {
+                group.inputs()[i] = agentData[group.members()[i]];
+            }
+            group.evaluator().process(group.inputs(), group.outputs());
+        }
+
+        for (int individual : this.individuals) {
+            if (agentData[individual] != null) {
+                this.actions[individual] = this.controllers.get(individual).getAction(agentData[individual]);
+            }
+        }
+
+        return this.actions;
+    }
+
+    @Override
+    public void finishEvaluation() {
+        this.groups.forEach(g -> g.evaluator().storeActivations());
+    }
+}
@@ -0,0 +1,118 @@
+package de.emaeuer.evaluation;
+
+import de.emaeuer.ann.NeuralNetwork;
+import de.emaeuer.ann.NeuronID;
+import de.emaeuer.ann.configuration.NeuralNetworkConfiguration;
+import de.emaeuer.ann.impl.neuron.based.NeuronBasedNeuralNetworkBuilder;
+import de.emaeuer.configuration.ConfigurationHandler;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FitnessCacheTest {
+
+    private static final double PRECISION = 0.001;
+
+    private static final NeuronID FIRST_INPUT = new NeuronID(0, 0);
+    private static final NeuronID SECOND_INPUT = new NeuronID(0, 1);
+    // the neuron based network always has a (possibly empty) hidden layer
+    private static final NeuronID OUTPUT = new NeuronID(2, 0);
+
+    private NeuralNetwork createNetworkWithoutConnections() {
+        ConfigurationHandler<NeuralNetworkConfiguration> config = new ConfigurationHandler<>(NeuralNetworkConfiguration.class);
+        config.setValue(NeuralNetworkConfiguration.INPUT_LAYER_SIZE, 2);
+        config.setValue(NeuralNetworkConfiguration.OUTPUT_LAYER_SIZE, 1);
+
+        return NeuronBasedNeuralNetworkBuilder.buildWithConfiguration(config)
+                .implicitBias()
+                .inputLayer()
+                .outputLayer()
+                .finish();
+    }
+
+    private NeuralNetwork createNetwork(double firstWeight, double secondWeight) {
+        NeuralNetwork nn = createNetworkWithoutConnections();
+        nn.modify()
+                .addConnection(FIRST_INPUT, OUTPUT, firstWeight)
+                .addConnection(SECOND_INPUT, OUTPUT, secondWeight);
+        return nn;
+    }
+
+    /*
+     ##########################################################
+     ##################### Test Methods #######################
+     ##########################################################
+    */
+
+    @Test
+    public void testKeyIsIndependentOfConnectionOrder() {
+        FitnessCache cache = new FitnessCache(10, PRECISION);
+
+        NeuralNetwork reversed = createNetworkWithoutConnections();
+        reversed.modify()
+                .addConnection(SECOND_INPUT, OUTPUT, 0.5)
+                .addConnection(FIRST_INPUT, OUTPUT, 0.25);
+
+        assertEquals(cache.createKey(createNetwork(0.25, 0.5)), cache.createKey(reversed));
+        assertEquals(cache.createKey(createNetwork(0.25, 0.5)).hashCode(), cache.createKey(reversed).hashCode());
+    }
+
+    @Test
+    public void testKeyDependsOnTopologyWeightsAndBiases() {
+        FitnessCache cache = new FitnessCache(10, PRECISION);
+        FitnessCache.Key key = cache.createKey(createNetwork(0.25, 0.5));
+
+        // swapped weights
+        assertNotEquals(key, cache.createKey(createNetwork(0.5, 0.25)));
+
+        // missing connection
+        NeuralNetwork missingConnection = createNetworkWithoutConnections();
+        missingConnection.modify().addConnection(FIRST_INPUT, OUTPUT, 0.25);
+        assertNotEquals(key, cache.createKey(missingConnection));
+
+        // different bias
+        NeuralNetwork otherBias = createNetwork(0.25, 0.5);
+        otherBias.modify().setBiasOfNeuron(OUTPUT, otherBias.getBiasOfNeuron(OUTPUT) + 1);
+        assertNotEquals(key, cache.createKey(otherBias));
+    }
+
+    @Test
+    public void testWeightsAreQuantized() {
+        FitnessCache cache = new FitnessCache(10, PRECISION);
+        FitnessCache.Key key = cache.createKey(createNetwork(0.25, 0.5));
+
+        // differences below half of the precision are rounded away
+        assertEquals(key, cache.createKey(createNetwork(0.25 + 0.4 * PRECISION, 0.5 - 0.4 * PRECISION)));
+        assertNotEquals(key, cache.createKey(createNetwork(0.25 + 2 * PRECISION, 0.5)));
+
+        cache.put(key, 3);
+        assertEquals(3, cache.get(cache.createKey(createNetwork(0.25 + 0.4 * PRECISION, 0.5))));
+        assertNull(cache.get(cache.createKey(createNetwork(0.25 + 2 * PRECISION, 0.5))));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntryIsEvicted() {
+        FitnessCache cache = new FitnessCache(2, PRECISION);
+        FitnessCache.Key first = cache.createKey(createNetwork(0.1, 0.1));
+        FitnessCache.Key second = cache.createKey(createNetwork(0.2, 0.2));
+        FitnessCache.Key third = cache.createKey(createNetwork(0.3, 0.3));
+
+        cache.put(first, 1);
+        cache.put(second, 2);
+        assertEquals(2, cache.size());
+
+        // the access makes the second entry the least recently used one
+        assertEquals(1, cache.get(first));
+        cache.put(third, 3);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.get(first));
+        assertNull(cache.get(second));
+        assertEquals(3, cache.get(third));
+    }
+
+    @Test
+    public void testInvalidSize() {
+        assertThrows(IllegalArgumentException.class, () -> new FitnessCache(0, PRECISION));
+    }
+}
@@ -0,0 +1,115 @@
+package de.emaeuer.evaluation;
+
+import de.emaeuer.ann.configuration.NeuralNetworkConfiguration;
+import de.emaeuer.configuration.ConfigurationHandler;
+import de.emaeuer.configuration.ConfigurationHelper;
+import de.emaeuer.environment.balance.onedim.configuration.CartPoleConfiguration;
+import de.emaeuer.environment.configuration.EnvironmentConfiguration;
+import de.emaeuer.optimization.configuration.OptimizationConfiguration;
+import de.emaeuer.optimization.configuration.OptimizationRunState;
+import de.emaeuer.optimization.configuration.OptimizationState;
+import de.emaeuer.optimization.dannaco.configuration.DannacoConfiguration;
+import de.emaeuer.state.StateHandler;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OptimizationEnvironmentHandlerTest {
+
+    private ConfigurationHandler<EvaluationConfiguration> createCartPoleConfiguration(boolean randomStartAngle) {
+        ConfigurationHandler<EvaluationConfiguration> config = new ConfigurationHandler<>(EvaluationConfiguration.class);
+        // unreachable fitness to prevent the end of the run
+        config.setValue(EvaluationConfiguration.MAX_FITNESS_SCORE, 100.0);
+
+        ConfigurationHandler<EnvironmentConfiguration> environmentConfig = ConfigurationHelper.extractEmbeddedConfiguration(config, EnvironmentConfiguration.class, EvaluationConfiguration.ENVIRONMENT_CONFIGURATION);
+        environmentConfig.setValue(EnvironmentConfiguration.ENVIRONMENT_IMPLEMENTATION_NAME, "ONE_DIMENSIONAL_CART_POLE");
+        environmentConfig.setValue(EnvironmentConfiguration.MAX_STEP_NUMBER, 50.0);
+        ConfigurationHelper.extractEmbeddedConfiguration(environmentConfig, CartPoleConfiguration.class, EnvironmentConfiguration.ENVIRONMENT_IMPLEMENTATION)
+                .setValue(CartPoleConfiguration.RANDOM_START_ANGLE, randomStartAngle);
+
+        ConfigurationHandler<OptimizationConfiguration> optimizationConfig = ConfigurationHelper.extractEmbeddedConfiguration(config, OptimizationConfiguration.class, EvaluationConfiguration.OPTIMIZATION_CONFIGURATION);
+        optimizationConfig.setValue(OptimizationConfiguration.MAX_NUMBER_OF_EVALUATIONS, 100000);
+        optimizationConfig.setValue(OptimizationConfiguration.NUMBER_OF_RUNS, 1);
+
+        ConfigurationHandler<NeuralNetworkConfiguration> networkConfig = ConfigurationHelper.extractEmbeddedConfiguration(optimizationConfig, NeuralNetworkConfiguration.class, OptimizationConfiguration.NEURAL_NETWORK_CONFIGURATION);
+        networkConfig.setValue(NeuralNetworkConfiguration.INPUT_LAYER_SIZE, 4);
+        networkConfig.setValue(NeuralNetworkConfiguration.OUTPUT_LAYER_SIZE, 1);
+
+        // a coarse precision makes cache hits likely
+        config.setValue(EvaluationConfiguration.FITNESS_CACHE_SIZE, 1000);
+        config.setValue(EvaluationConfiguration.FITNESS_CACHE_PRECISION, 1.0);
+        return config;
+    }
+
+    private OptimizationEnvironmentHandler createHandler(ConfigurationHandler<EvaluationConfiguration> config, StateHandler<OptimizationState> state) {
+        OptimizationEnvironmentHandler handler = new OptimizationEnvironmentHandler();
+        handler.setConfiguration(config);
+        handler.setOptimizationState(state);
+        handler.initialize();
+        return handler;
+    }
+
+    private int getValueOfCurrentRun(StateHandler<OptimizationState> state, OptimizationRunState key) {
+        //noinspection unchecked
+        StateHandler<OptimizationRunState> runState = state.getValue(OptimizationState.STATE_OF_CURRENT_RUN, StateHandler.class);
+        return runState.getValue(key, Number.class).intValue();
+    }
+
+    /**
+     * Runs the optimization for the given number of updates and returns the number of cached evaluations of the run
+     */
+    private int runAndGetCachedEvaluations(ConfigurationHandler<EvaluationConfiguration> config, int numberOfUpdates) {
+        StateHandler<OptimizationState> state = new StateHandler<>(OptimizationState.class);
+        OptimizationEnvironmentHandler handler = createHandler(config, state);
+
+        for (int i = 0; i < numberOfUpdates; i++) {
+            handler.update();
+        }
+
+        assertFalse(handler.stoppedBecauseOfException());
+        return getValueOfCurrentRun(state, OptimizationRunState.CACHED_EVALUATION_NUMBER);
+    }
+
+    /*
+     ##########################################################
+     ##################### Test Methods #######################
+     ##########################################################
+    */
+
+    @Test
+    public void testCachedEvaluationsAreReported() {
+        assertTrue(runAndGetCachedEvaluations(createCartPoleConfiguration(false), 2000) > 0);
+    }
+
+    @Test
+    public void testCacheIsDisabledForNondeterministicEnvironment() {
+        assertEquals(0, runAndGetCachedEvaluations(createCartPoleConfiguration(true), 2000));
+    }
+
+    @Test
+    public void testSteadyStateLimitsSolutionsInFlight() {
+        int solutionsInFlight = 5;
+
+        ConfigurationHandler<EvaluationConfiguration> config = createCartPoleConfiguration(false);
+        config.setValue(EvaluationConfiguration.FITNESS_CACHE_SIZE, 0);
+        ConfigurationHandler<OptimizationConfiguration> optimizationConfig = ConfigurationHelper.extractEmbeddedConfiguration(config, OptimizationConfiguration.class, EvaluationConfiguration.OPTIMIZATION_CONFIGURATION);
+        ConfigurationHandler<DannacoConfiguration> dannacoConfig = ConfigurationHelper.extractEmbeddedConfiguration(optimizationConfig, DannacoConfiguration.class, OptimizationConfiguration.IMPLEMENTATION_CONFIGURATION);
+        dannacoConfig.setValue(DannacoConfiguration.STEADY_STATE, true);
+        dannacoConfig.setValue(DannacoConfiguration.ANTS_PER_ITERATION, solutionsInFlight);
+
+        StateHandler<OptimizationState> state = new StateHandler<>(OptimizationState.class);
+        OptimizationEnvironmentHandler handler = createHandler(config, state);
+
+        int maxNumberOfAgents = 0;
+        for (int i = 0; i < 500; i++) {
+            handler.update();
+            maxNumberOfAgents = Math.max(maxNumberOfAgents, handler.getAgents().size());
+            assertTrue(handler.getAgents().size() <= solutionsInFlight);
+        }
+
+        assertFalse(handler.stoppedBecauseOfException());
+        assertEquals(solutionsInFlight, maxNumberOfAgents);
+        // the finished agents were replaced by new ones
+        assertTrue(getValueOfCurrentRun(state, OptimizationRunState.EVALUATION_NUMBER) > solutionsInFlight);
+    }
+}
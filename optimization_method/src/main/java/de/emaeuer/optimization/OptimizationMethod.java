@@ -23,6 +23,7 @@ public abstract class OptimizationMethod {
     private int runCounter = 0;
     private int generationCounter = 0;
     private int evaluationCounter = 0;
+    private int cachedEvaluationCounter = 0;
 
     private final ConfigurationHandler<OptimizationConfiguration> configuration;
     private final StateHandler<OptimizationState> generalState;
@@ -43,7 +44,8 @@ public abstract class OptimizationMethod {
         this.generalState = generalState;
         this.runState = new StateHandler<>(OptimizationRunState.class, generalState);
         this.generalState.execute(t -> t.addNewValue(OptimizationState.STATE_OF_CURRENT_RUN, this.runState));
-        this.rng = new RandomUtil(configuration.getValue(OptimizationConfiguration.SEED, Integer.class));
+        this.rng = new RandomUtil(configuration.getValue(OptimizationConfiguration.SEED, Integer.class),
+                configuration.getValue(OptimizationConfiguration.SEED_COMPATIBLE_RANDOM, Boolean.class));
 
         this.averageHandler = new RunDataHandler(this.generalState, this.configuration.getValue(OptimizationConfiguration.MAX_NUMBER_OF_EVALUATIONS, Integer.class));
 
@@ -69,7 +71,38 @@ public abstract class OptimizationMethod {
         return solutions;
     }
 
+    /**
+     * Counts a single solution which was created outside of an iteration (see {@link SteadyStateOptimizationMethod})
+     * as evaluation
+     */
+    protected void countSingleEvaluation() {
+        this.evaluationCounter++;
+        this.runState.execute(t -> t.addNewValue(OptimizationRunState.EVALUATION_NUMBER, this.evaluationCounter));
+    }
+
+    /**
+     * Updates the state like after an iteration because the implementation was updated with a single solution (see
+     * {@link SteadyStateOptimizationMethod})
+     */
+    protected void updateAfterSingleSolution() {
+        this.generationCounter++;
+        updateAfterIteration();
+    }
+
+    /**
+     * Reports solutions whose fitness was taken from a cache instead of being evaluated. They are still counted as
+     * evaluations.
+     */
+    public void reportCachedEvaluations(int numberOfCachedEvaluations) {
+        this.cachedEvaluationCounter += numberOfCachedEvaluations;
+        this.runState.execute(t -> t.addNewValue(OptimizationRunState.CACHED_EVALUATION_NUMBER, this.cachedEvaluationCounter));
+    }
+
     public void update() {
+        updateAfterIteration();
+    }
+
+    private void updateAfterIteration() {
         // do nothing if the optimization finished (maximum fitness or max number of evaluations reached)
         if (this.optimizationFinished || this.evaluationCounter == 0) {
             return;
@@ -109,6 +142,7 @@ public abstract class OptimizationMethod {
         this.runFinished = false;
         this.generationCounter = 0;
         this.evaluationCounter = 0;
+        this.cachedEvaluationCounter = 0;
     }
 
     private void updateGeneralState() {
@@ -122,8 +156,8 @@ public abstract class OptimizationMethod {
         });
 
         if (this.currentlyBestSolution != null && this.currentlyBestSolution.getNeuralNetwork() != null) {
-            double numberOfHiddenNodes = NeuralNetworkUtil.countHiddenNodes(this.currentlyBestSolution.getNeuralNetwork());
-            double numberOfConnections = NeuralNetworkUtil.countConnections(this.currentlyBestSolution.getNeuralNetwork());
+            double numberOfHiddenNodes = this.currentlyBestSolution.getNeuralNetwork().getNumberOfHiddenNeurons();
+            double numberOfConnections = this.currentlyBestSolution.getNeuralNetwork().getNumberOfConnections();
 
             this.generalState.execute(t -> {
                 t.addNewValue(OptimizationState.HIDDEN_NODES_DISTRIBUTION, numberOfHiddenNodes);
@@ -145,6 +179,7 @@ public abstract class OptimizationMethod {
             t.resetValue(OptimizationRunState.FITNESS_VALUES);
             t.resetValue(OptimizationRunState.GENERALIZATION_CAPABILITY);
             t.resetValue(OptimizationRunState.EVALUATION_NUMBER);
+            t.resetValue(OptimizationRunState.CACHED_EVALUATION_NUMBER);
             t.resetValue(OptimizationRunState.USED_CONNECTIONS);
             t.resetValue(OptimizationRunState.USED_HIDDEN_NODES);
         });
@@ -155,8 +190,8 @@ public abstract class OptimizationMethod {
         int numberOfConnections = -1;
 
         if (this.currentlyBestSolution != null && this.currentlyBestSolution.getNeuralNetwork() != null) {
-            numberOfHiddenNodes = NeuralNetworkUtil.countHiddenNodes(this.currentlyBestSolution.getNeuralNetwork());
-            numberOfConnections = NeuralNetworkUtil.countConnections(this.currentlyBestSolution.getNeuralNetwork());
+            numberOfHiddenNodes = this.currentlyBestSolution.getNeuralNetwork().getNumberOfHiddenNeurons();
+            numberOfConnections = this.currentlyBestSolution.getNeuralNetwork().getNumberOfConnections();
         }
 
         RunSummary summary = new RunSummary(getBestFitness(), this.evaluationCounter, numberOfHiddenNodes, numberOfConnections);
@@ -206,8 +241,8 @@ public abstract class OptimizationMethod {
 
         for (Solution solution : getCurrentSolutions()) {
             double fitness = solution.getFitness();
-            double hiddenNodeCount = NeuralNetworkUtil.countHiddenNodes(solution.getNeuralNetwork());
-            double connectionCount = NeuralNetworkUtil.countConnections(solution.getNeuralNetwork());
+            double hiddenNodeCount = solution.getNeuralNetwork().getNumberOfHiddenNeurons();
+            double connectionCount = solution.getNeuralNetwork().getNumberOfConnections();
 
             fitnessValues.add(fitness);
             hiddenNodeNumbers.add(hiddenNodeCount);
@@ -231,6 +266,22 @@ public abstract class OptimizationMethod {
 
     protected abstract List<? extends Solution> generateSolutions();
 
+    /**
+     * Fitness a solution of the current iteration must exceed to be selected by this optimization method. The
+     * evaluation of solutions which can't reach it may be stopped early (racing).
+     */
+    public double getAdmissionThreshold() {
+        return Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * @return the number of the best solutions of the current iteration which can at most be selected or
+     * {@link Integer#MAX_VALUE} if the rank of a solution doesn't limit its selection
+     */
+    public int getNumberOfSelectableSolutions() {
+        return Integer.MAX_VALUE;
+    }
+
     public int getEvaluationCounter() {
         return this.evaluationCounter;
     }
@@ -7,6 +7,10 @@ public interface Solution {
 
     RealVector process(RealVector input);
 
+    void process(double[] input, double[] output);
+
+    double[][] processBatch(double[][] inputs);
+
     double getFitness();
 
     void setFitness(double fitness);
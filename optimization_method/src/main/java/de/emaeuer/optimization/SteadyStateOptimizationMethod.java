@@ -0,0 +1,35 @@
+package de.emaeuer.optimization;
+
+/**
+ * Optimization method which can evaluate its solutions continuously instead of in iterations. Each evaluated solution
+ * is returned immediately and replaced by a new one.
+ */
+public interface SteadyStateOptimizationMethod {
+
+    /**
+     * @return true if the steady state mode is enabled by the configuration of this optimization method
+     */
+    boolean isSteadyState();
+
+    /**
+     * @return the maximal number of solutions which are evaluated at the same time
+     */
+    int getNumberOfSolutionsInFlight();
+
+    /**
+     * Creates a single solution which is returned by {@link #updateSolution(Solution)} after its evaluation. The
+     * solution is counted as evaluation like the solutions of an iteration.
+     *
+     * @return the next solution or null if the optimization finished
+     */
+    Solution nextSolution();
+
+    /**
+     * Returns an evaluated solution. If the implementation updated itself with this solution the state is updated like
+     * after an iteration.
+     *
+     * @return true if the implementation was updated
+     */
+    boolean updateSolution(Solution solution);
+
+}
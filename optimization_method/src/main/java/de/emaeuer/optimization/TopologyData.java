@@ -1,38 +1,48 @@
 package de.emaeuer.optimization;
 
 import de.emaeuer.ann.NeuralNetwork;
-import de.emaeuer.ann.util.NeuralNetworkUtil;
 
 import java.util.Objects;
 
 public final class TopologyData {
 
     private final NeuralNetwork instance;
-    private String topologyKey;
+    private long topologyKey;
     private int topologyGroupID;
 
     public TopologyData(NeuralNetwork instance, int topologyGroupID) {
         this.instance = instance;
-        this.topologyKey = NeuralNetworkUtil.getTopologySummary(instance);
+        this.topologyKey = instance.getTopologyFingerprint();
         this.topologyGroupID = topologyGroupID;
     }
 
+    private TopologyData(NeuralNetwork instance, long topologyKey, int topologyGroupID) {
+        this.instance = instance;
+        this.topologyKey = topologyKey;
+        this.topologyGroupID = topologyGroupID;
+    }
+
+    /**
+     * Copies the neural network and keeps the topology key. Depending on the configuration of the neural network the
+     * topology is shared with the copy until one of them is modified.
+     */
     public TopologyData copy() {
-        TopologyData copy = new TopologyData(this.instance.copy(), this.topologyGroupID);
-        copy.topologyKey = this.topologyKey;
-        return copy;
+        return new TopologyData(this.instance.copy(), this.topologyKey, this.topologyGroupID);
     }
 
     public NeuralNetwork getInstance() {
         return instance;
     }
 
-    public String getTopologyKey() {
+    /**
+     * @return the topology fingerprint of the neural network (see {@link NeuralNetwork#getTopologyFingerprint()})
+     */
+    public long getTopologyKey() {
         return topologyKey;
     }
 
-    public String refreshTopologyKey() {
-        this.topologyKey = NeuralNetworkUtil.getTopologySummary(instance);
+    public long refreshTopologyKey() {
+        this.topologyKey = instance.getTopologyFingerprint();
         return topologyKey;
     }
     public int getTopologyGroupID() {
@@ -49,7 +59,7 @@ public final class TopologyData {
         if (obj == null || obj.getClass() != this.getClass()) return false;
         var that = (TopologyData) obj;
         return Objects.equals(this.instance, that.instance) &&
-                Objects.equals(this.topologyKey, that.topologyKey) &&
+                this.topologyKey == that.topologyKey &&
                 this.topologyGroupID == that.topologyGroupID;
     }
 
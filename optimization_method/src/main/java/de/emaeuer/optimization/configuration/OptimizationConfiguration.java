@@ -11,6 +11,7 @@ import java.util.function.BiConsumer;
 
 public enum OptimizationConfiguration implements DefaultConfiguration<OptimizationConfiguration> {
     SEED("Seed for generating the environment", new IntegerConfigurationValue(9369319), true),
+    SEED_COMPATIBLE_RANDOM("Use the random generator of previous versions to reproduce their runs", new BooleanConfigurationValue(false)),
     NEURAL_NETWORK_CONFIGURATION("Neural network configuration", new EmbeddedConfiguration<>(new ConfigurationHandler<>(NeuralNetworkConfiguration.class, "NEURAL_NETWORK"))),
     MAX_NUMBER_OF_EVALUATIONS("Maximal number of evaluations", new IntegerConfigurationValue(20000, 10, Integer.MAX_VALUE)),
     NUMBER_OF_RUNS("Number of runs", new IntegerConfigurationValue(10, 1, Integer.MAX_VALUE)),
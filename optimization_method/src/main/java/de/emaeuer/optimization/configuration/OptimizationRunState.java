@@ -6,6 +6,7 @@ import de.emaeuer.state.value.*;
 public enum OptimizationRunState implements StateParameter<OptimizationRunState> {
     RUN_NUMBER("Number of run", NumberStateValue.class, true),
     EVALUATION_NUMBER("Number of evaluations", NumberStateValue.class, true),
+    CACHED_EVALUATION_NUMBER("Number of evaluations taken from the fitness cache", NumberStateValue.class, true),
     FITNESS_VALUE("Highest fitness value of run", NumberStateValue.class, false),
     USED_HIDDEN_NODES("Used hidden nodes", CollectionDistributionStateValue.class, true),
     USED_CONNECTIONS("Used connections", CollectionDistributionStateValue.class, true),
@@ -5,8 +5,17 @@ import de.emaeuer.optimization.Solution;
 import de.emaeuer.optimization.TopologyData;
 import org.apache.commons.math3.linear.RealVector;
 
+import java.util.Comparator;
+
 public class Ant implements Solution {
 
+    /**
+     * Order of the population: the best ant (highest generalization capability and fitness) comes first
+     */
+    public static final Comparator<Ant> BEST_FIRST = Comparator.comparingDouble(Ant::getGeneralizationCapability)
+            .thenComparingDouble(Ant::getFitness)
+            .reversed();
+
     private double fitness = 0;
     private double generalizationCapability = 0;
 
@@ -25,6 +34,16 @@ public class Ant implements Solution {
         return this.solution.getInstance().process(input);
     }
 
+    @Override
+    public void process(double[] input, double[] output) {
+        this.solution.getInstance().process(input, output);
+    }
+
+    @Override
+    public double[][] processBatch(double[][] inputs) {
+        return this.solution.getInstance().processBatch(inputs);
+    }
+
     public double getFitness() {
         return this.fitness;
     }
@@ -7,21 +7,21 @@ import de.emaeuer.configuration.ConfigurationHandler;
 import de.emaeuer.configuration.ConfigurationHelper;
 import de.emaeuer.optimization.OptimizationMethod;
 import de.emaeuer.optimization.Solution;
+import de.emaeuer.optimization.SteadyStateOptimizationMethod;
 import de.emaeuer.optimization.configuration.OptimizationConfiguration;
 import de.emaeuer.optimization.configuration.OptimizationRunState;
 import de.emaeuer.optimization.configuration.OptimizationState;
 import de.emaeuer.optimization.dannaco.configuration.DannacoConfiguration;
-import de.emaeuer.optimization.dannaco.population.AbstractPopulation;
-import de.emaeuer.optimization.dannaco.population.PopulationFactory;
+import de.emaeuer.optimization.dannaco.population.IslandModel;
 import de.emaeuer.optimization.dannaco.state.DannacoRunState;
 import de.emaeuer.optimization.dannaco.state.DannacoState;
 import de.emaeuer.state.StateHandler;
 
 import java.util.*;
 
-public class DannacoHandler extends OptimizationMethod {
+public class DannacoHandler extends OptimizationMethod implements SteadyStateOptimizationMethod {
 
-    private AbstractPopulation<?> population;
+    private IslandModel population;
 
     private final ConfigurationHandler<DannacoConfiguration> configuration;
     private final StateHandler<DannacoRunState> runState;
@@ -49,40 +49,104 @@ public class DannacoHandler extends OptimizationMethod {
     }
 
     private void initialize() {
+        // each colony gets its own base network
+        this.population = new IslandModel(this.configuration, this::buildBaseNetwork, getRNG());
+    }
+
+    private NeuralNetwork buildBaseNetwork() {
         // build basic neural network with just the necessary network neurons and connections
-        NeuralNetwork baseNetwork = NeuronBasedNeuralNetworkBuilder.buildWithConfiguration(ConfigurationHelper.extractEmbeddedConfiguration(getOptimizationConfiguration(), NeuralNetworkConfiguration.class, OptimizationConfiguration.NEURAL_NETWORK_CONFIGURATION))
+        return NeuronBasedNeuralNetworkBuilder.buildWithConfiguration(ConfigurationHelper.extractEmbeddedConfiguration(getOptimizationConfiguration(), NeuralNetworkConfiguration.class, OptimizationConfiguration.NEURAL_NETWORK_CONFIGURATION))
                 .implicitBias()
                 .inputLayer()
                 .fullyConnectToNextLayer()
                 .outputLayer()
                 .finish();
-
-        this.population = PopulationFactory.create(configuration, baseNetwork, getRNG());
     }
 
     @Override
     public void resetAndRestart() {
         super.resetAndRestart();
 
+        // the old population must not be constructed any further
+        this.population.discardPipelinedAnts();
+
         this.runState.execute(t -> t.resetValue(DannacoRunState.CONNECTION_WEIGHTS_SCATTERED));
 
         initialize();
     }
 
+    @Override
+    public void updateAfterRunEnd() {
+        super.updateAfterRunEnd();
+        this.population.discardPipelinedAnts();
+    }
+
     @Override
     protected List<? extends Solution> generateSolutions() {
         return this.population.nextGeneration();
     }
 
+    @Override
+    public boolean isSteadyState() {
+        return this.configuration.getValue(DannacoConfiguration.STEADY_STATE, Boolean.class);
+    }
+
+    @Override
+    public int getNumberOfSolutionsInFlight() {
+        return this.configuration.getValue(DannacoConfiguration.ANTS_PER_ITERATION, Integer.class);
+    }
+
+    @Override
+    public double getAdmissionThreshold() {
+        return this.population.getAdmissionThreshold();
+    }
+
+    @Override
+    public int getNumberOfSelectableSolutions() {
+        return this.population.getNumberOfAdmittableAnts();
+    }
+
+    @Override
+    public Solution nextSolution() {
+        // do nothing if the optimization finished (maximum fitness or max number of evaluations reached)
+        if (isOptimizationFinished()) {
+            return null;
+        }
+
+        Ant ant = this.population.nextAnt();
+        countSingleEvaluation();
+        return ant;
+    }
+
+    @Override
+    public boolean updateSolution(Solution solution) {
+        if (isRunFinished()) {
+            return false;
+        }
+
+        if (!(solution instanceof Ant ant)) {
+            throw new IllegalArgumentException(String.format("DANN-ACO can't handle solutions of type %s", solution.getClass().getSimpleName()));
+        }
+
+        if (!this.population.addEvaluatedAnt(ant)) {
+            return false;
+        }
+
+        updateAfterPheromoneUpdate();
+        updateAfterSingleSolution();
+        return true;
+    }
+
     @Override
     public void update() {
         this.population.updatePheromone();
+        updateAfterPheromoneUpdate();
 
-        Ant bestOfThisIteration = this.population.getCurrentAnts()
-                .stream()
-                .max(Comparator.comparingDouble(Ant::getGeneralizationCapability)
-                        .thenComparingDouble(Ant::getFitness))
-                .orElse(null);
+        super.update();
+    }
+
+    private void updateAfterPheromoneUpdate() {
+        Ant bestOfThisIteration = this.population.getRankedCurrentAnts().getFirst();
 
         this.population.exportPheromoneMatrixState(getEvaluationCounter(), this.runState);
         this.population.exportCurrentGroups(getEvaluationCounter(), this.runState);
@@ -95,8 +159,6 @@ public class DannacoHandler extends OptimizationMethod {
             bestCopy.setGeneralizationCapability(bestOfThisIteration.getGeneralizationCapability());
             setCurrentlyBestSolution(bestCopy);
         }
-
-        super.update();
     }
 
     @Override
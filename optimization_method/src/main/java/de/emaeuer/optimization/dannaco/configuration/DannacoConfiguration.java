@@ -3,6 +3,7 @@ package de.emaeuer.optimization.dannaco.configuration;
 import de.emaeuer.configuration.ConfigurationHandler;
 import de.emaeuer.configuration.DefaultConfiguration;
 import de.emaeuer.configuration.value.*;
+import de.emaeuer.optimization.dannaco.population.MigrationTopologies;
 import de.emaeuer.optimization.dannaco.population.PopulationUpdateStrategies;
 
 import java.util.function.BiConsumer;
@@ -25,7 +26,21 @@ public enum DannacoConfiguration implements DefaultConfiguration<DannacoConfigur
             }),
     ELITISM("Use elitism", new BooleanConfigurationValue(false)),
     ENABLE_NEURON_ISOLATION("Enable neuron isolation", new BooleanConfigurationValue(false)),
-    REUSE_SPLIT_KNOWLEDGE("Link the first connection of a split to the knowledge of the old connection", new BooleanConfigurationValue(false));
+    REUSE_SPLIT_KNOWLEDGE("Link the first connection of a split to the knowledge of the old connection", new BooleanConfigurationValue(false)),
+    TOPOLOGY_COLLISION_CHECK("Check topology fingerprints for collisions (slow)", new BooleanConfigurationValue(false)),
+    STEADY_STATE("Update the pheromone as soon as enough ants were evaluated instead of waiting for the whole iteration (ants per iteration are evaluated at the same time)", new BooleanConfigurationValue(false)),
+    PARALLEL_CONSTRUCTION("Construct the ants of an iteration in parallel (reproducible but different from sequential)", new BooleanConfigurationValue(false)),
+    PIPELINED_CONSTRUCTION("Construct the ants of the next iteration while the current iteration is evaluated (the ants are constructed without the update of the current iteration)", new BooleanConfigurationValue(false)),
+    MIGRATION_INTERVAL("Number of iterations between two migrations of the colonies", new IntegerConfigurationValue(10, 1, 1000)),
+    NUMBER_OF_MIGRANTS("Number of best ants each colony sends per migration", new IntegerConfigurationValue(1, 1, 10)),
+    MIGRATION_TOPOLOGY("Colonies which receive the migrants of a colony", new StringConfigurationValue(MigrationTopologies.RING.name(), MigrationTopologies.getNames())),
+    NUMBER_OF_COLONIES("Number of colonies which are optimized in parallel (island model)", new IntegerConfigurationValue(1, 1, 64),
+            (v, h) -> {
+                boolean isIslandModel = Integer.parseInt(v.getStringRepresentation()) > 1;
+                h.disableConfiguration(MIGRATION_INTERVAL, !isIslandModel);
+                h.disableConfiguration(NUMBER_OF_MIGRANTS, !isIslandModel);
+                h.disableConfiguration(MIGRATION_TOPOLOGY, !isIslandModel);
+            });
 
 
     private final String name;
@@ -0,0 +1,86 @@
+package de.emaeuer.optimization.dannaco.pheromone;
+
+import de.emaeuer.ann.util.NeuralNetworkUtil.Connection;
+import de.emaeuer.optimization.util.FenwickTree;
+import de.emaeuer.optimization.util.LongLongHashMap;
+
+import java.util.List;
+
+/**
+ * Candidates for the topology decision of all templates with the same topology group and topology key. The
+ * validity of a candidate only depends on the topology and is determined once. The weights depend on the pheromone and
+ * are updated if the knowledge of the corresponding connection or the usage of the topology changes.
+ */
+final class DecisionCandidates {
+
+    /**
+     * @param connectionID id of the connection in the topology group or -1 if it has no mapping
+     * @param exists true if the connection exists and can be removed or split
+     * @param splitIsValid true if the connection exists and can be split
+     * @param removeIsValid true if the connection exists and can be removed
+     */
+    record Candidate(Connection connection, long connectionID, boolean exists, boolean splitIsValid, boolean removeIsValid) {}
+
+    private static final int NO_CANDIDATE = -1;
+
+    private final Candidate[] candidates;
+    private final double[] splitProbabilities;
+    private final FenwickTree weights;
+
+    // maps the connection ids to the index of the candidate
+    private final LongLongHashMap candidateIndices;
+
+    DecisionCandidates(List<Candidate> candidates) {
+        this.candidates = candidates.toArray(Candidate[]::new);
+        this.splitProbabilities = new double[this.candidates.length];
+        this.weights = new FenwickTree(new double[this.candidates.length]);
+        this.candidateIndices = new LongLongHashMap(this.candidates.length);
+
+        for (int i = 0; i < this.candidates.length; i++) {
+            // the knowledge of unmapped connections never changes
+            if (this.candidates[i].connectionID() != NO_CANDIDATE) {
+                this.candidateIndices.put(this.candidates[i].connectionID(), i);
+            }
+        }
+    }
+
+    int size() {
+        return this.candidates.length;
+    }
+
+    Candidate get(int index) {
+        return this.candidates[index];
+    }
+
+    /**
+     * @return the index of the candidate with the connection id or -1 if no candidate belongs to the connection
+     */
+    int indexOf(long connectionID) {
+        return (int) this.candidateIndices.get(connectionID, NO_CANDIDATE);
+    }
+
+    double getSplitProbability(int index) {
+        return this.splitProbabilities[index];
+    }
+
+    void update(int index, double weight, double splitProbability) {
+        this.weights.set(index, Math.max(0, weight));
+        this.splitProbabilities[index] = splitProbability;
+    }
+
+    double getWeight(int index) {
+        return this.weights.get(index);
+    }
+
+    double getTotalWeight() {
+        return this.weights.getTotal();
+    }
+
+    /**
+     * @param target value in [0, total weight)
+     * @return the index of the candidate which is selected proportionally to its weight
+     */
+    int select(double target) {
+        return this.weights.find(target);
+    }
+}
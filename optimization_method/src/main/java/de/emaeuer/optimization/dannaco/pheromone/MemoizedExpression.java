@@ -0,0 +1,84 @@
+package de.emaeuer.optimization.dannaco.pheromone;
+
+import de.emaeuer.configuration.value.CompiledExpression;
+import de.emaeuer.optimization.dannaco.configuration.DannacoParameter;
+
+/**
+ * Compiled pheromone expression which is precomputed for all numbers of values between 0 and the population size if
+ * it doesn't depend on other parameters than the population size and the number of values. Otherwise (or if the
+ * number of values exceeds the population size) the expression is evaluated.
+ */
+public final class MemoizedExpression {
+
+    private static final int NUMBER_OF_PARAMETERS = DannacoParameter.values().length;
+
+    private final CompiledExpression expression;
+    private final int populationSize;
+
+    // null if the expression depends on other parameters
+    private final double[] table;
+
+    public MemoizedExpression(CompiledExpression expression, int populationSize) {
+        this.expression = expression;
+        this.populationSize = populationSize;
+        this.table = dependsOnlyOnNumberOfValues(expression) ? createTable() : null;
+    }
+
+    /**
+     * Evaluates the expression for the population size and the number of values
+     */
+    public double evaluate(int numberOfValues) {
+        if (this.table != null && numberOfValues >= 0 && numberOfValues < this.table.length) {
+            return this.table[numberOfValues];
+        }
+        return this.expression.evaluate(createParameters(numberOfValues));
+    }
+
+    /**
+     * Evaluates the expression for the given parameters which have to contain the population size and the number of
+     * values (see {@link #createParameters(int)})
+     */
+    public double evaluate(double[] parameters) {
+        if (this.table != null) {
+            return evaluate((int) parameters[DannacoParameter.NUMBER_OF_VALUES.ordinal()]);
+        }
+        return this.expression.evaluate(parameters);
+    }
+
+    /**
+     * Creates the parameters for the evaluation with the population size and the number of values. All other
+     * parameters are 0.
+     */
+    public double[] createParameters(int numberOfValues) {
+        double[] parameters = new double[NUMBER_OF_PARAMETERS];
+        parameters[DannacoParameter.POPULATION_SIZE.ordinal()] = this.populationSize;
+        parameters[DannacoParameter.NUMBER_OF_VALUES.ordinal()] = numberOfValues;
+        return parameters;
+    }
+
+    /**
+     * @return true if the values of the expression are precomputed
+     */
+    public boolean isTabulated() {
+        return this.table != null;
+    }
+
+    /* ### Helper Methods ### */
+
+    private static boolean dependsOnlyOnNumberOfValues(CompiledExpression expression) {
+        for (DannacoParameter parameter : DannacoParameter.values()) {
+            if (parameter != DannacoParameter.POPULATION_SIZE && parameter != DannacoParameter.NUMBER_OF_VALUES && expression.dependsOn(parameter.ordinal())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private double[] createTable() {
+        double[] values = new double[this.populationSize + 1];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = this.expression.evaluate(createParameters(i));
+        }
+        return values;
+    }
+}
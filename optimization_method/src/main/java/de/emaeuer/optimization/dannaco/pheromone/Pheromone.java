@@ -8,14 +8,18 @@ import de.emaeuer.ann.impl.neuron.based.NeuronBasedNeuralNetwork;
 import de.emaeuer.ann.util.NeuralNetworkUtil;
 import de.emaeuer.ann.util.NeuralNetworkUtil.Connection;
 import de.emaeuer.configuration.ConfigurationHandler;
-import de.emaeuer.configuration.ConfigurationVariablesBuilder;
 import de.emaeuer.optimization.TopologyData;
 import de.emaeuer.optimization.dannaco.Ant;
 import de.emaeuer.optimization.dannaco.configuration.DannacoConfiguration;
 import de.emaeuer.optimization.dannaco.configuration.DannacoParameter;
+import de.emaeuer.optimization.dannaco.pheromone.DecisionCandidates.Candidate;
 import de.emaeuer.optimization.dannaco.state.DannacoRunState;
 import de.emaeuer.optimization.dannaco.state.DannacoState;
+import de.emaeuer.optimization.util.LongLongHashMap;
+import de.emaeuer.optimization.util.LongObjectHashMap;
 import de.emaeuer.optimization.util.RandomUtil;
+import de.emaeuer.optimization.util.RankedList;
+import de.emaeuer.optimization.util.WeightedSampler;
 import de.emaeuer.state.StateHandler;
 import de.emaeuer.state.value.AbstractStateValue;
 import de.emaeuer.state.value.data.DataPoint;
@@ -29,6 +33,7 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
 import static de.emaeuer.optimization.dannaco.configuration.DannacoConfiguration.*;
 
@@ -41,7 +46,26 @@ public class Pheromone {
         NOTHING
     }
 
-    private static record Decision(Connection connection, DecisionType type, double pheromoneValue) {}
+    private static record Decision(Connection connection, DecisionType type) {}
+
+    /**
+     * State of the construction of one ant. The random generator and the statistics are separated from the pheromone
+     * to allow the construction of multiple ants in parallel.
+     */
+    private static final class AntConstruction {
+        private final RandomUtil rng;
+
+        private TopologyData topology;
+        // null if no decision was made
+        private Decision decision;
+
+        private double sumOfDeviations = 0;
+        private long numberOfDeviations = 0;
+
+        private AntConstruction(RandomUtil rng) {
+            this.rng = rng;
+        }
+    }
 
     private static final Logger LOG = LogManager.getLogger(Pheromone.class);
 
@@ -51,26 +75,55 @@ public class Pheromone {
 
     private final NeuralNetwork baseNetwork;
 
-    private final List<Ant> solutions = new ArrayList<>();
-
-    // use this sorted flag because java has no sorted data structure which supports indexing
-    // --> sort solutions list only when necessary
-    private boolean solutionsAreSorted = true;
+    // the solutions are ranked on insertion, the template selection accesses them by rank
+    private final RankedList<Ant> solutions = new RankedList<>(Ant.BEST_FIRST);
 
     private double[] solutionWeights;
+    // the sampler at index i selects one of the i + 1 best solutions
+    private WeightedSampler[] templateSamplers;
+
+    // connections are identified by packed keys (see createConnectionKey)
+    private static final int NEURON_LAYER_BITS = 4;
+    private static final int NEURON_INDEX_BITS = 16;
+    private static final int CONNECTION_KEY_BITS = 2 * (NEURON_LAYER_BITS + NEURON_INDEX_BITS);
+    private static final long NO_MAPPING = TopologyGroup.NO_MAPPING;
 
     private final AtomicInteger topologyGroupCounter = new AtomicInteger(0);
-    private final Table<Integer, String, Integer> topologyGroupSuccessors = HashBasedTable.create();
-    private final Table<Integer, String, Integer> topologyPheromone = HashBasedTable.create();
+    // maps the group id and the key of the split connection to the id of the successor group
+    private final LongLongHashMap topologyGroupSuccessors = new LongLongHashMap();
+    private final Table<Integer, Long, Integer> topologyPheromone = HashBasedTable.create();
+
+    // only used if the collision check is enabled to verify that equal fingerprints belong to equal topologies
+    private final boolean checkTopologyCollisions;
+    private final Table<Integer, Long, String> topologySummaries = HashBasedTable.create();
 
     private final AtomicLong connectionMappingCounter = new AtomicLong(0);
-    private final Table<Integer, String, Long> connectionMapping = HashBasedTable.create();
-    private final Map<Long, Multiset<Double>> weightPheromone = new HashMap<>();
+    // maps the topology group ids to the groups which map connection keys to connection ids
+    private final LongObjectHashMap<TopologyGroup> topologyGroups = new LongObjectHashMap<>();
+    private TopologyGroup rootTopologyGroup;
+    // groups which may be unused because they lost their last ant or were created for ants which weren't added yet
+    private final Set<Integer> unusedTopologyGroupCandidates = new HashSet<>();
+    private final LongObjectHashMap<WeightStore> weightPheromone = new LongObjectHashMap<>();
+
+    // candidates of the topology decisions for each topology of the population (updated incrementally)
+    private final Table<Integer, Long, DecisionCandidates> decisionCandidates = HashBasedTable.create();
 
     private final RandomUtil rng;
 
+    // expressions which only depend on the population size and the number of values are precomputed
+    private final MemoizedExpression topologyPheromoneExpression;
+    private final MemoizedExpression connectionPheromoneExpression;
+    private final MemoizedExpression penaltyExpression;
+    private final MemoizedExpression deviationExpression;
+    private final MemoizedExpression splitProbabilityExpression;
+
     private final Map<String, Long> modificationCounts = new HashMap<>(4);
 
+    private String stateKeyPrefix = "";
+
+    // incremented by each change of the population of this pheromone
+    private int version = 0;
+
     //############################################################
     //################ Methods for initialization ################
     //############################################################
@@ -79,12 +132,25 @@ public class Pheromone {
         this.configuration = configuration;
         this.maximalPopulationSize = this.configuration.getValue(POPULATION_SIZE, Integer.class);
         this.baseNetwork = baseNetwork;
+        // the base network and the ants of the population are the templates of the constructed ants
+        this.baseNetwork.shareTopologyWithCopies();
         this.rng = rng;
+        this.checkTopologyCollisions = this.configuration.getValue(TOPOLOGY_COLLISION_CHECK, Boolean.class);
+
+        this.topologyPheromoneExpression = memoize(TOPOLOGY_PHEROMONE);
+        this.connectionPheromoneExpression = memoize(CONNECTION_PHEROMONE);
+        this.penaltyExpression = memoize(NUMBER_OF_VALUES_PENALTY);
+        this.deviationExpression = memoize(DEVIATION_FUNCTION);
+        this.splitProbabilityExpression = memoize(SPLIT_PROBABILITY);
 
         initializeMapping();
         initializeSolutionWeights();
     }
 
+    private MemoizedExpression memoize(DannacoConfiguration expression) {
+        return new MemoizedExpression(this.configuration.getCompiledExpression(expression), this.maximalPopulationSize);
+    }
+
     private void initializeMapping() {
         List<NeuronID> possibleSources = IntStream.range(0, this.baseNetwork.getDepth())
                 .mapToObj(this.baseNetwork::getNeuronsOfLayer)
@@ -97,22 +163,32 @@ public class Pheromone {
                 .collect(Collectors.toList());
 
         int groupID = this.topologyGroupCounter.getAndIncrement();
+        LongLongHashMap mapping = new LongLongHashMap(possibleSources.size() * possibleTargets.size());
 
         for (NeuronID possibleSource : possibleSources) {
             for (NeuronID possibleTarget : possibleTargets) {
                 Connection connection = new Connection(possibleSource, possibleTarget, 0);
                 if (checkConnectionRecurrence(connection, this.baseNetwork)) {
-                    String connectionKey = createConnectionKey(connection);
-                    this.connectionMapping.put(groupID, connectionKey, this.connectionMappingCounter.getAndIncrement());
+                    long connectionKey = createConnectionKey(connection);
+                    mapping.put(connectionKey, this.connectionMappingCounter.getAndIncrement());
                 }
             }
         }
+
+        this.rootTopologyGroup = TopologyGroup.createRoot(groupID, mapping);
+        registerTopologyGroup(this.rootTopologyGroup);
     }
 
     private void initializeSolutionWeights() {
         this.solutionWeights = IntStream.rangeClosed(1, this.maximalPopulationSize)
                 .mapToDouble(this::calculateWeightForRank)
                 .toArray();
+
+        // the seed compatible mode has to select the same templates as previous versions
+        boolean seedCompatible = this.rng == null || this.rng.isSeedCompatible();
+        this.templateSamplers = IntStream.rangeClosed(1, this.maximalPopulationSize)
+                .mapToObj(n -> WeightedSampler.forStaticWeights(Arrays.copyOf(this.solutionWeights, n), seedCompatible))
+                .toArray(WeightedSampler[]::new);
     }
 
     private double calculateWeightForRank(int rank) {
@@ -126,9 +202,12 @@ public class Pheromone {
     //############################################################
 
     public void removeAnt(Ant ant) {
+        this.version++;
+
         // remove all knowledge of this ant
         removeTemplateOfAnt(ant);
         removeWeightsOfAnt(ant);
+        refreshDecisionCandidates(ant);
 
         this.solutions.remove(ant);
     }
@@ -143,9 +222,19 @@ public class Pheromone {
             LOG.error("Tried to remove ant which isn't be in the population");
         } else if (oldValue == 1) {
             this.topologyPheromone.remove(antData.getTopologyGroupID(), antData.getTopologyKey());
+            this.topologySummaries.remove(antData.getTopologyGroupID(), antData.getTopologyKey());
+            this.decisionCandidates.remove(antData.getTopologyGroupID(), antData.getTopologyKey());
         } else {
             this.topologyPheromone.put(antData.getTopologyGroupID(), antData.getTopologyKey(), oldValue - 1);
         }
+
+        if (oldValue != null) {
+            TopologyGroup group = getExistingTopologyGroup(antData.getTopologyGroupID());
+            group.removeReference();
+            if (group.isUnused()) {
+                this.unusedTopologyGroupCandidates.add(group.getID());
+            }
+        }
     }
 
     private void removeWeightsOfAnt(Ant ant) {
@@ -154,7 +243,7 @@ public class Pheromone {
             Connection next = connections.next();
             // checking if population contains value is not necessary because if the value would be missing the procedure for adding
             // ants doesn't work properly --> error is justified
-            Multiset<Double> values = getPopulationValues(next.start(), next.end(), ant.getTopologyData().getTopologyGroupID());
+            WeightStore values = getPopulationValues(next.start(), next.end(), ant.getTopologyData().getTopologyGroupID());
             values.remove(next.weight());
 
             if (values.isEmpty()) {
@@ -165,18 +254,25 @@ public class Pheromone {
     }
 
     public void addAnt(Ant ant) {
+        this.version++;
+
         // add all weights of this ant
         addTemplateOfAnt(ant);
         addWeightsOfAnt(ant);
+        refreshDecisionCandidates(ant);
 
+        ant.getNeuralNetwork().shareTopologyWithCopies();
         this.solutions.add(ant);
-        this.solutionsAreSorted = false;
     }
 
     private void addTemplateOfAnt(Ant ant) {
         // increase counter of usage of this specific population
         TopologyData antData = ant.getTopologyData();
 
+        if (this.checkTopologyCollisions) {
+            checkTopologyCollision(antData);
+        }
+
         Integer oldValue = this.topologyPheromone.get(antData.getTopologyGroupID(), antData.getTopologyKey());
 
         if (oldValue == null) {
@@ -184,6 +280,124 @@ public class Pheromone {
         } else {
             this.topologyPheromone.put(antData.getTopologyGroupID(), antData.getTopologyKey(), oldValue + 1);
         }
+
+        getExistingTopologyGroup(antData.getTopologyGroupID()).addReference();
+    }
+
+    /**
+     * Prevents the collection of the topology group of an ant which isn't part of the population (e.g. because it is
+     * still evaluated) until it is released by {@link #releaseTopologyGroup(Ant)}
+     */
+    public void acquireTopologyGroup(Ant ant) {
+        getExistingTopologyGroup(ant.getTopologyData().getTopologyGroupID()).addReference();
+    }
+
+    public void releaseTopologyGroup(Ant ant) {
+        TopologyGroup group = getExistingTopologyGroup(ant.getTopologyData().getTopologyGroupID());
+        group.removeReference();
+        if (group.isUnused()) {
+            this.unusedTopologyGroupCandidates.add(group.getID());
+        }
+    }
+
+    /**
+     * Removes all topology groups which aren't used by an ant of the population together with their successor
+     * entries. Must only be called if no constructed ant which wasn't added to the population or acquired is used any
+     * more (e.g. before the construction of the next generation).
+     */
+    public void collectUnusedTopologyGroups() {
+        for (int groupID : this.unusedTopologyGroupCandidates) {
+            TopologyGroup group = this.topologyGroups.get(groupID);
+            if (group != null && group.isUnused() && !group.isRoot()) {
+                removeTopologyGroup(group);
+            }
+        }
+        this.unusedTopologyGroupCandidates.clear();
+    }
+
+    private void removeTopologyGroup(TopologyGroup group) {
+        this.topologyGroups.remove(group.getID());
+
+        // no ant of the population can perform a split in this group any more
+        group.getSuccessorKeys().forEach(this.topologyGroupSuccessors::remove);
+        group.getSuccessorKeys().clear();
+
+        if (group.getSuccessorKey() == NO_MAPPING) {
+            // the group wasn't created by a split
+            return;
+        }
+
+        // the next split in the parent group creates a new successor
+        this.topologyGroupSuccessors.remove(group.getSuccessorKey());
+        TopologyGroup parent = this.topologyGroups.get(group.getSuccessorKey() >>> CONNECTION_KEY_BITS);
+        if (parent != null) {
+            parent.getSuccessorKeys().remove(group.getSuccessorKey());
+        }
+    }
+
+    /**
+     * Creates a copy of an ant of another pheromone (e.g. of another colony) which can be added to this pheromone.
+     * Because the topology groups of both pheromones are independent the copy gets a new topology group with new
+     * connection ids for all connections of its hidden neurons.
+     */
+    public Ant importAnt(Ant foreignAnt) {
+        NeuralNetwork network = foreignAnt.getNeuralNetwork().copy();
+        TopologyGroup group = this.rootTopologyGroup;
+
+        if (network.getNumberOfHiddenNeurons() > 0) {
+            group = this.rootTopologyGroup.createImport(this.topologyGroupCounter.getAndIncrement());
+
+            Iterator<NeuronID> neurons = NeuralNetworkUtil.iterateNeurons(network);
+            while (neurons.hasNext()) {
+                NeuronID neuron = neurons.next();
+                if (!network.isInputNeuron(neuron) && !network.isOutputNeuron(neuron)) {
+                    createMappingsForNewConnections(network, group, neuron);
+                }
+            }
+
+            registerTopologyGroup(group);
+            // the group is unused until the ant is added to the population
+            this.unusedTopologyGroupCandidates.add(group.getID());
+        }
+
+        Ant ant = new Ant(new TopologyData(network, group.getID()));
+        ant.setFitness(foreignAnt.getFitness());
+        ant.setGeneralizationCapability(foreignAnt.getGeneralizationCapability());
+        return ant;
+    }
+
+    /**
+     * @return the best solutions of the population (at most the given number)
+     */
+    public List<Ant> getBestSolutions(int number) {
+        return this.solutions.asList().subList(0, Math.min(number, this.solutions.size()));
+    }
+
+    public int getNumberOfTopologyGroups() {
+        return this.topologyGroups.size();
+    }
+
+    public boolean containsTopologyGroup(int groupID) {
+        return this.topologyGroups.get(groupID) != null;
+    }
+
+    /**
+     * @return the version of this pheromone which changes if an ant is added or removed
+     */
+    public int getVersion() {
+        return this.version;
+    }
+
+    private void checkTopologyCollision(TopologyData antData) {
+        String summary = NeuralNetworkUtil.getTopologySummary(antData.getInstance());
+        String existingSummary = this.topologySummaries.get(antData.getTopologyGroupID(), antData.getTopologyKey());
+
+        if (existingSummary == null) {
+            this.topologySummaries.put(antData.getTopologyGroupID(), antData.getTopologyKey(), summary);
+        } else if (!existingSummary.equals(summary)) {
+            throw new IllegalStateException(String.format("Topology fingerprint %d of group %d belongs to different topologies %s and %s",
+                    antData.getTopologyKey(), antData.getTopologyGroupID(), existingSummary, summary));
+        }
     }
 
     private void addWeightsOfAnt(Ant ant) {
@@ -196,40 +410,123 @@ public class Pheromone {
                 .add(connection.weight());
     }
 
+    private void refreshDecisionCandidates(Ant ant) {
+        if (this.decisionCandidates.isEmpty()) {
+            return;
+        }
+
+        TopologyData antData = ant.getTopologyData();
+        int groupID = antData.getTopologyGroupID();
+
+        // the usage of the topology of the ant changed --> the split probabilities of all its candidates changed
+        DecisionCandidates candidatesOfAnt = this.decisionCandidates.get(groupID, antData.getTopologyKey());
+        if (candidatesOfAnt != null) {
+            double topologyPheromone = calculateTopologyPheromone(groupID, antData.getTopologyKey());
+            for (int i = 0; i < candidatesOfAnt.size(); i++) {
+                updateCandidate(candidatesOfAnt, i, topologyPheromone);
+            }
+        }
+
+        // the knowledge of all connections of the ant changed --> update the candidates which depend on them
+        LongStream.Builder changedConnections = LongStream.builder();
+        NeuralNetworkUtil.iterateNeuralNetworkConnections(ant.getNeuralNetwork())
+                .forEachRemaining(c -> changedConnections.add(getConnectionID(c.start(), c.end(), groupID)));
+        long[] changedConnectionIDs = changedConnections.build().toArray();
+
+        for (Table.Cell<Integer, Long, DecisionCandidates> cell : this.decisionCandidates.cellSet()) {
+            DecisionCandidates candidates = cell.getValue();
+            if (candidates == candidatesOfAnt) {
+                continue;
+            }
+
+            double topologyPheromone = calculateTopologyPheromone(cell.getRowKey(), cell.getColumnKey());
+            for (long connectionID : changedConnectionIDs) {
+                int index = candidates.indexOf(connectionID);
+                if (index >= 0) {
+                    updateCandidate(candidates, index, topologyPheromone);
+                }
+            }
+        }
+    }
+
     //############################################################
     //########### Methods for solution generation ################
     //############################################################
 
     public Ant createAntFromPopulation() {
+        AntConstruction construction = new AntConstruction(this.rng);
+
         // select random ant from this population and use its neural network as template
-        Ant templateAnt = selectTemplate();
-        TopologyData topology = templateAnt.getTopologyData().copy();
+        selectTopology(construction);
 
         // modify template depending on other values of this population
-        applyNeuralNetworkDynamics(topology);
-        adjustWeights(topology);
+        decideNeuralNetworkDynamics(construction);
+        applyNeuralNetworkDynamics(construction);
+        adjustWeights(construction);
 
-        return new Ant(topology);
+        return completeConstruction(construction);
     }
 
-    protected Ant selectTemplate() {
-        if (this.solutions.isEmpty()) {
-            return new Ant(this.baseNetwork.copy(), 0);
+    /**
+     * Creates the ants in parallel. Each ant uses its own random stream which only depends on the random generator of
+     * this pheromone and the index of the ant. Therefore the result doesn't depend on the number of threads. The
+     * topology modifications are applied sequentially because splits may create new topology groups.
+     */
+    public List<Ant> createAntsFromPopulation(int numberOfAnts) {
+        RandomUtil generationRng = this.rng.split();
+        prepareParallelConstruction();
+
+        List<AntConstruction> constructions = IntStream.range(0, numberOfAnts)
+                .parallel()
+                .mapToObj(i -> {
+                    AntConstruction construction = new AntConstruction(generationRng.createStream(i));
+                    selectTopology(construction);
+                    decideNeuralNetworkDynamics(construction);
+                    return construction;
+                })
+                .collect(Collectors.toList());
+
+        constructions.forEach(this::applyNeuralNetworkDynamics);
+        constructions.parallelStream().forEach(this::adjustWeights);
+
+        return constructions.stream()
+                .map(this::completeConstruction)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Performs all lazy modifications of this pheromone which would otherwise happen during the construction
+     */
+    private void prepareParallelConstruction() {
+        if (!this.weightPheromone.isEmpty()) {
+            this.solutions.forEach(s -> getDecisionCandidates(s.getTopologyData()));
         }
+    }
 
-        double[] weights = this.solutionWeights;
-        if (this.solutions.size() < this.maximalPopulationSize) {
-            weights = Arrays.copyOf(this.solutionWeights, this.solutions.size());
+    private Ant completeConstruction(AntConstruction construction) {
+        if (construction.decision != null) {
+            this.modificationCounts.compute(construction.decision.type().name(), (k, v) -> Objects.requireNonNullElse(v, 0L) + 1);
         }
 
-        int selectedIndex = rng.selectRandomElementFromVector(weights);
+        this.sum += construction.sumOfDeviations;
+        this.number += construction.numberOfDeviations;
+
+        return new Ant(construction.topology);
+    }
+
+    private void selectTopology(AntConstruction construction) {
+        Ant templateAnt = selectTemplate(construction.rng);
+        construction.topology = templateAnt.getTopologyData().copy();
+    }
 
-        if (!solutionsAreSorted) {
-            this.solutions.sort(Comparator.comparingDouble(Ant::getGeneralizationCapability)
-                    .thenComparingDouble(Ant::getFitness)
-                    .reversed());
+    private Ant selectTemplate(RandomUtil rng) {
+        if (this.solutions.isEmpty()) {
+            return new Ant(this.baseNetwork.copy(), 0);
         }
 
+        int numberOfCandidates = Math.min(this.solutions.size(), this.maximalPopulationSize);
+        int selectedIndex = this.templateSamplers[numberOfCandidates - 1].sample(rng);
+
         Ant templateAnt = this.solutions.get(selectedIndex);
 
         if (templateAnt != null) {
@@ -240,33 +537,35 @@ public class Pheromone {
         }
     }
 
-    protected void applyNeuralNetworkDynamics(TopologyData topology) {
+    private void decideNeuralNetworkDynamics(AntConstruction construction) {
         // if the weight pheromone is empty this is the first iteration and there shouldn't be dynamic
         if (this.weightPheromone.isEmpty()) {
             return;
         }
 
-        if (templateIsDynamic(topology)) {
-            Decision dynamicElement = makeDynamicDecision(topology);
+        if (templateIsDynamic(construction)) {
+            construction.decision = makeDynamicDecision(construction);
+        } else {
+            construction.decision = new Decision(null, DecisionType.NOTHING);
+        }
+    }
 
-            if (dynamicElement == null) {
-                return;
-            }
+    private void applyNeuralNetworkDynamics(AntConstruction construction) {
+        Decision dynamicElement = construction.decision;
 
-            this.modificationCounts.compute(dynamicElement.type.name(), (k, v) -> Objects.requireNonNullElse(v, 0L) + 1);
+        if (dynamicElement == null) {
+            return;
+        }
 
-            switch (dynamicElement.type()) {
-                case ADD -> addConnection(topology, dynamicElement.connection());
-                case SPLIT -> splitConnection(topology, dynamicElement.connection());
-                case REMOVE -> removeConnection(topology, dynamicElement.connection());
-            }
-        } else {
-            this.modificationCounts.compute(DecisionType.NOTHING.name(), (k, v) -> Objects.requireNonNullElse(v, 0L) + 1);
+        switch (dynamicElement.type()) {
+            case ADD -> addConnection(construction, dynamicElement.connection());
+            case SPLIT -> splitConnection(construction.topology, dynamicElement.connection());
+            case REMOVE -> removeConnection(construction.topology, dynamicElement.connection());
         }
     }
 
-    private boolean templateIsDynamic(TopologyData topology) {
-        return calculateTopologyPheromone(topology) > this.rng.getNextDouble(0, 1);
+    private boolean templateIsDynamic(AntConstruction construction) {
+        return calculateTopologyPheromone(construction.topology) > construction.rng.getNextDouble(0, 1);
     }
 
     private void removeConnection(TopologyData topology, Connection dynamicElement) {
@@ -275,13 +574,15 @@ public class Pheromone {
         topology.refreshTopologyKey();
     }
 
-    private void addConnection(TopologyData topology, Connection dynamicElement) {
+    private void addConnection(AntConstruction construction, Connection dynamicElement) {
+        TopologyData topology = construction.topology;
+
         LOG.debug("Adding connection {} to {} in group {}", dynamicElement.start(), dynamicElement.end(), topology.getTopologyGroupID());
         topology.getInstance().modify().addConnection(dynamicElement.start(), dynamicElement.end(), 0);
         topology.refreshTopologyKey();
 
         // depending on the order of topology and weight adjustment this value may be overwritten
-        adjustWeightValue(topology, dynamicElement);
+        adjustWeightValue(construction, dynamicElement);
     }
 
     private void splitConnection(TopologyData topology, Connection dynamicElement) {
@@ -292,8 +593,54 @@ public class Pheromone {
         createMappingsIfNecessary(topology, dynamicElement, splitResult);
     }
 
-    private Decision makeDynamicDecision(TopologyData topology) {
+    private Decision makeDynamicDecision(AntConstruction construction) {
+        DecisionCandidates candidates = getDecisionCandidates(construction.topology);
+        double totalWeight = candidates.getTotalWeight();
+
+        if (candidates.size() == 0 || totalWeight <= 0) {
+            return null;
+        }
+
+        int index = candidates.select(construction.rng.nextDouble() * totalWeight);
+        if (candidates.getWeight(index) <= 0) {
+            // only possible if the total weight is a rounding error
+            return null;
+        }
+
+        Candidate candidate = candidates.get(index);
+        DecisionType type;
+
+        if (!candidate.exists()) {
+            type = DecisionType.ADD;
+        } else if (candidate.splitIsValid() && candidate.removeIsValid()) {
+            type = candidates.getSplitProbability(index) > construction.rng.nextDouble() ? DecisionType.SPLIT : DecisionType.REMOVE;
+        } else {
+            type = candidate.splitIsValid() ? DecisionType.SPLIT : DecisionType.REMOVE;
+        }
+
+        return new Decision(candidate.connection(), type);
+    }
+
+    private DecisionCandidates getDecisionCandidates(TopologyData topology) {
+        int groupID = topology.getTopologyGroupID();
+        long topologyKey = topology.getTopologyKey();
+
+        DecisionCandidates candidates = this.decisionCandidates.get(groupID, topologyKey);
+
+        if (candidates == null) {
+            candidates = createDecisionCandidates(topology);
+            // only topologies of the population are cached because they are removed together with the last ant using them
+            if (this.topologyPheromone.contains(groupID, topologyKey)) {
+                this.decisionCandidates.put(groupID, topologyKey, candidates);
+            }
+        }
+
+        return candidates;
+    }
+
+    private DecisionCandidates createDecisionCandidates(TopologyData topology) {
         NeuralNetwork template = topology.getInstance();
+        int groupID = topology.getTopologyGroupID();
 
         List<NeuronID> possibleSources = IntStream.range(0, template.getDepth())
                 .mapToObj(template::getNeuronsOfLayer)
@@ -305,159 +652,145 @@ public class Pheromone {
                 .filter(Predicate.not(template::isInputNeuron))
                 .collect(Collectors.toList());
 
-        List<Decision> decisions = new ArrayList<>();
-        List<Double> pheromoneValues = new ArrayList<>();
+        List<Candidate> candidates = new ArrayList<>();
 
         for (NeuronID source : possibleSources) {
-            possibleTargets.stream()
-                    .map(t -> createDecision(new Connection(source, t, 0), topology))
-                    .filter(d -> d.type() != null)
-                    .filter(d -> d.pheromoneValue() > 0)
-                    .peek(d -> pheromoneValues.add(d.pheromoneValue()))
-                    .forEach(decisions::add);
+            for (NeuronID target : possibleTargets) {
+                // copy the ids because the ids of the template may change if it is modified
+                Connection connection = new Connection(new NeuronID(source), new NeuronID(target), 0);
+                long connectionID = getConnectionID(source, target, groupID);
+
+                if (template.neuronHasConnectionTo(source, target)) {
+                    // a connection can't be removed if it is the only output and neuron isolation is forbidden
+                    boolean splitIsValid = splitIsValid(connection, template);
+                    boolean removeIsValid = checkNeuronIsolation(connection, template);
+                    if (splitIsValid || removeIsValid) {
+                        candidates.add(new Candidate(connection, connectionID, true, splitIsValid, removeIsValid));
+                    }
+                } else if (checkConnectionRecurrence(connection, template)) {
+                    candidates.add(new Candidate(connection, connectionID, false, false, false));
+                }
+            }
         }
 
-        if (decisions.isEmpty()) {
-            return null;
+        DecisionCandidates result = new DecisionCandidates(candidates);
+
+        double topologyPheromone = calculateTopologyPheromone(groupID, topology.getTopologyKey());
+        for (int i = 0; i < result.size(); i++) {
+            updateCandidate(result, i, topologyPheromone);
         }
 
-        int decisionIndex = this.rng.selectRandomElementFromVector(pheromoneValues.stream().mapToDouble(d -> d).toArray());
-        return decisions.get(decisionIndex);
+        return result;
     }
 
-    private Decision createDecision(Connection connection, TopologyData topology) {
-        double pheromone = calculateConnectionPheromone(connection, topology.getTopologyGroupID());
-        boolean isSplit = isSplit(connection, topology);
-        DecisionType type = null;
-
-        NeuralNetwork template = topology.getInstance();
+    private void updateCandidate(DecisionCandidates candidates, int index, double topologyPheromone) {
+        Candidate candidate = candidates.get(index);
+        WeightStore populationKnowledge = getPopulationValues(candidate.connectionID());
+        double connectionPheromone = calculateConnectionPheromone(populationKnowledge);
 
-        if (!isValidDecision(connection, template, isSplit)) {
-            pheromone = 0;
-        } else if (template.neuronHasConnectionTo(connection.start(), connection.end()) && isSplit) {
-            pheromone = 1 - pheromone;
-            type = DecisionType.SPLIT;
-        } else if (template.neuronHasConnectionTo(connection.start(), connection.end())) {
-            // if the connection exists the pheromone for removing is 1 - pheromone value --> connections with a high pheromone value are less likely to be removed
-            pheromone = 1 - pheromone;
-            type = DecisionType.REMOVE;
-        } else {
+        if (!candidate.exists()) {
             // the connection doesn't exist and the pheromone value is the value for adding it
-            type = DecisionType.ADD;
+            candidates.update(index, connectionPheromone, 0);
+            return;
         }
 
-        return new Decision(connection, type, pheromone);
-    }
+        double splitProbability = calculateSplitProbability(candidate.connection(), populationKnowledge, connectionPheromone, topologyPheromone);
+        double boundedSplitProbability = Math.max(0, Math.min(1, splitProbability));
 
-    private boolean isSplit(Connection connection, TopologyData topology) {
-        if (topology.getInstance().neuronHasConnectionTo(connection.start(), connection.end())) {
-            return isSplitInsteadOfRemove(connection, topology);
+        // the candidate is weighted with the probability that the chosen type (split or remove) is valid
+        double validity;
+        if (candidate.splitIsValid() && candidate.removeIsValid()) {
+            validity = 1;
+        } else if (candidate.splitIsValid()) {
+            validity = boundedSplitProbability;
+        } else {
+            validity = 1 - boundedSplitProbability;
         }
 
-        return false;
+        // if the connection exists the pheromone for removing is 1 - pheromone value --> connections with a high pheromone value are less likely to be removed
+        candidates.update(index, (1 - connectionPheromone) * validity, splitProbability);
     }
 
-    private boolean isSplitInsteadOfRemove(Connection connection, TopologyData topology) {
-        int groupID = topology.getTopologyGroupID();
-
-        double topologyPheromone = calculateTopologyPheromone(topology);
-        double connectionPheromone = calculateConnectionPheromone(connection, groupID);
-
-        Multiset<Double> populationKnowledge = getPopulationValues(connection.start(), connection.end(), groupID);
+    private double calculateSplitProbability(Connection connection, WeightStore populationKnowledge, double connectionPheromone, double topologyPheromone) {
         int sizeOfPopulationKnowledge = populationKnowledge == null ? 0 : populationKnowledge.size();
 
         double sumOfDifferences = 0;
+        double deviation;
 
         if (populationKnowledge != null) {
-            double mean = populationKnowledge.stream()
-                    .mapToDouble(d -> d)
-                    .average()
-                    .orElse(0);
-
-            sumOfDifferences = populationKnowledge.stream()
-                    .mapToDouble(d -> d)
-                    .map(d -> Math.abs(mean - d))
-                    .sum();
+            sumOfDifferences = populationKnowledge.getSumOfDifferences(populationKnowledge.getMean());
+            deviation = calculateDeviation(populationKnowledge, connection.weight());
         } else {
-            populationKnowledge = HashMultiset.create();
+            deviation = calculateDeviation(0, 0);
         }
 
-        Map<String, Double> variables = ConfigurationVariablesBuilder.<DannacoParameter>build()
-                .with(DannacoParameter.POPULATION_SIZE, this.maximalPopulationSize)
-                .with(DannacoParameter.NUMBER_OF_VALUES, sizeOfPopulationKnowledge)
-                .with(DannacoParameter.SUM_OF_DIFFERENCES, sumOfDifferences)
-                .with(DannacoParameter.CONNECTION_PHEROMONE, connectionPheromone)
-                .with(DannacoParameter.TOPOLOGY_PHEROMONE, topologyPheromone)
-                .with(DannacoParameter.STANDARD_DEVIATION, calculateDeviation(populationKnowledge, connection.weight()))
-                .getVariables();
+        double[] parameters = this.splitProbabilityExpression.createParameters(sizeOfPopulationKnowledge);
+        parameters[DannacoParameter.SUM_OF_DIFFERENCES.ordinal()] = sumOfDifferences;
+        parameters[DannacoParameter.CONNECTION_PHEROMONE.ordinal()] = connectionPheromone;
+        parameters[DannacoParameter.TOPOLOGY_PHEROMONE.ordinal()] = topologyPheromone;
+        parameters[DannacoParameter.STANDARD_DEVIATION.ordinal()] = deviation;
 
-        return this.configuration.getValue(SPLIT_PROBABILITY, Double.class, variables) > this.rng.nextDouble();
+        return this.splitProbabilityExpression.evaluate(parameters);
     }
 
     private void createMappingsIfNecessary(TopologyData topology, Connection dynamicElement, NeuronID splitResult) {
-        String changedConnectionKey = createConnectionKey(dynamicElement);
+        long changedConnectionKey = createConnectionKey(dynamicElement);
         int oldGroupID = topology.getTopologyGroupID();
+        long successorKey = createSuccessorKey(oldGroupID, changedConnectionKey);
 
-        if (this.topologyGroupSuccessors.contains(oldGroupID, changedConnectionKey)) {
+        long successorGroupID = this.topologyGroupSuccessors.get(successorKey, NO_MAPPING);
+        if (successorGroupID != NO_MAPPING) {
             // the split was already performed for this topology group
-            topology.setTopologyGroupID(Objects.requireNonNull(this.topologyGroupSuccessors.get(oldGroupID, changedConnectionKey)));
+            topology.setTopologyGroupID((int) successorGroupID);
             return;
         }
 
-        topology.setTopologyGroupID(this.topologyGroupCounter.getAndIncrement());
+        TopologyGroup newGroup = getExistingTopologyGroup(oldGroupID).createSuccessor(this.topologyGroupCounter.getAndIncrement(), successorKey);
+        topology.setTopologyGroupID(newGroup.getID());
 
         // register newGroup as successor of old group
-        this.topologyGroupSuccessors.put(oldGroupID, changedConnectionKey, topology.getTopologyGroupID());
-
-        // create copy because the row is only a view and modifications would alter the mapping of the parent group
-        Map<String, Long> newMapping = new HashMap<>(this.connectionMapping.row(oldGroupID));
+        this.topologyGroupSuccessors.put(successorKey, newGroup.getID());
 
         // replace the id of the split connection with a new one (knowledge is not used in this topology or transferred to new connection
-        Long oldConnectionID = newMapping.put(changedConnectionKey, this.connectionMappingCounter.getAndIncrement());
+        long oldConnectionID = newGroup.get(changedConnectionKey);
+        newGroup.put(changedConnectionKey, this.connectionMappingCounter.getAndIncrement());
 
-        createMappingsForNewConnections(topology.getInstance(), newMapping, splitResult);
+        createMappingsForNewConnections(topology.getInstance(), newGroup, splitResult);
 
-        if (this.configuration.getValue(REUSE_SPLIT_KNOWLEDGE, Boolean.class)) {
-            newMapping.put(createConnectionKey(dynamicElement.start(), splitResult), oldConnectionID);
+        if (this.configuration.getValue(REUSE_SPLIT_KNOWLEDGE, Boolean.class) && oldConnectionID != NO_MAPPING) {
+            newGroup.put(createConnectionKey(dynamicElement.start(), splitResult), oldConnectionID);
         }
 
-        newMapping.forEach((k, v) -> this.connectionMapping.put(topology.getTopologyGroupID(), k, v));
+        registerTopologyGroup(newGroup);
+        // the group is unused until an ant of it is added to the population
+        this.unusedTopologyGroupCandidates.add(newGroup.getID());
+    }
+
+    private void registerTopologyGroup(TopologyGroup group) {
+        if (this.topologyGroups.put(group.getID(), group) != null) {
+            throw new IllegalStateException(String.format("Topology group %d was registered twice", group.getID()));
+        }
     }
 
-    private void createMappingsForNewConnections(NeuralNetwork template, Map<String, Long> newMapping, NeuronID splitResult) {
+    private void createMappingsForNewConnections(NeuralNetwork template, TopologyGroup newGroup, NeuronID splitResult) {
         Iterator<NeuronID> otherNeurons = NeuralNetworkUtil.iterateNeurons(template);
         while (otherNeurons.hasNext()) {
             NeuronID neuron = otherNeurons.next();
             Connection connection = new Connection(neuron, splitResult, 0);
 
             if (checkConnectionRecurrence(connection, template)) {
-                String connectionKey = createConnectionKey(connection);
-                newMapping.put(connectionKey, this.connectionMappingCounter.getAndIncrement());
+                long connectionKey = createConnectionKey(connection);
+                newGroup.put(connectionKey, this.connectionMappingCounter.getAndIncrement());
             }
 
             connection = new Connection(splitResult, neuron, 0);
             if (!template.isInputNeuron(neuron) && !neuron.equals(splitResult) && checkConnectionRecurrence(connection, template)) {
-                String connectionKey = createConnectionKey(connection);
-                newMapping.put(connectionKey, this.connectionMappingCounter.getAndIncrement());
+                long connectionKey = createConnectionKey(connection);
+                newGroup.put(connectionKey, this.connectionMappingCounter.getAndIncrement());
             }
         }
     }
 
-    private boolean isValidDecision(Connection connection, NeuralNetwork template, boolean isSplit) {
-        if (template.neuronHasConnectionTo(connection.start(), connection.end()) && isSplit) {
-            return splitIsValid(connection, template);
-        } else if (template.neuronHasConnectionTo(connection.start(), connection.end())) {
-            // a connection can't be removed if it is the only output and neuron isolation is forbidden
-            return checkNeuronIsolation(connection, template);
-        } else if (!template.neuronHasConnectionTo(connection.start(), connection.end())) {
-            // adding a connection may be invalid because it may be invalid
-            return checkConnectionRecurrence(connection, template);
-        }
-
-        // not defined cases are always invalid (e.g. split of unused connection)
-        return false;
-    }
-
     private boolean splitIsValid(Connection dynamicElement, NeuralNetwork nn) {
         // TODO a split of a connection between output neurons is valid but affords the creation of a hidden neuron
         return dynamicElement.start().getLayerIndex() != dynamicElement.end().getLayerIndex() || !nn.isOutputNeuron(dynamicElement.start());
@@ -505,18 +838,19 @@ public class Pheromone {
         return false;
     }
 
-    protected void adjustWeights(TopologyData topology) {
-        NeuralNetworkUtil.iterateNeuralNetworkConnections(topology.getInstance())
-                .forEachRemaining(c -> adjustWeightValue(topology, c));
+    private void adjustWeights(AntConstruction construction) {
+        NeuralNetworkUtil.iterateNeuralNetworkConnections(construction.topology.getInstance())
+                .forEachRemaining(c -> adjustWeightValue(construction, c));
     }
 
-    private void adjustWeightValue(TopologyData topology, Connection connection) {
-        double weight = calculateNewValueDependingOnPopulationKnowledge(connection.weight(), getPopulationValues(connection.start(), connection.end(), topology.getTopologyGroupID()));
+    private void adjustWeightValue(AntConstruction construction, Connection connection) {
+        TopologyData topology = construction.topology;
+        double weight = calculateNewValueDependingOnPopulationKnowledge(construction, connection.weight(), getPopulationValues(connection.start(), connection.end(), topology.getTopologyGroupID()));
 
         topology.getInstance().modify().setWeightOfConnection(connection.start(), connection.end(), weight);
     }
 
-    private double calculateNewValueDependingOnPopulationKnowledge(double srcValue, Collection<Double> populationValues) {
+    private double calculateNewValueDependingOnPopulationKnowledge(AntConstruction construction, double srcValue, WeightStore populationValues) {
         double value;
 
         double maxValue = this.baseNetwork.getMaxWeightValue();
@@ -524,14 +858,13 @@ public class Pheromone {
 
         if (populationValues == null || populationValues.isEmpty()) {
             // choose value randomly because no knowledge exists
-            value = this.rng.getNextDouble(minValue, maxValue);
+            value = construction.rng.getNextDouble(minValue, maxValue);
         } else {
             double deviation = calculateDeviation(populationValues, srcValue);
-            // select new value if it is out of bounds
-            do {
-                // repeat until a valid weight was chosen
-                value = this.rng.getNormalDistributedValue(srcValue, deviation);
-            } while (value < minValue || value > maxValue);
+            construction.sumOfDeviations += deviation;
+            construction.numberOfDeviations++;
+
+            value = construction.rng.getTruncatedNormalDistributedValue(srcValue, deviation, minValue, maxValue);
         }
 
         return value;
@@ -541,90 +874,110 @@ public class Pheromone {
     //#################### Util Methods ##########################
     //############################################################
 
+    // deviations which were used for the adjustment of weights
     private double sum = 0;
     private long number = 0;
 
-    private double calculateDeviation(Collection<Double> populationValues, double mean) {
-        double sumOfDifferences = populationValues.stream()
-                .mapToDouble(d -> d)
-                .map(d -> Math.abs(mean - d))
-                .sum();
-
-        ConfigurationVariablesBuilder<DannacoParameter> builder = ConfigurationVariablesBuilder.<DannacoParameter>build()
-                .with(DannacoParameter.POPULATION_SIZE, this.maximalPopulationSize)
-                .with(DannacoParameter.NUMBER_OF_VALUES, populationValues.size())
-                .with(DannacoParameter.SUM_OF_DIFFERENCES, sumOfDifferences);
-
-        double penalty = this.configuration.getValue(NUMBER_OF_VALUES_PENALTY, Double.class, builder.getVariables());
-
-        builder.with(DannacoParameter.NUMBER_OF_VALUES_PENALTY, penalty);
-
-        double deviation = this.configuration.getValue(DEVIATION_FUNCTION, Double.class, builder.getVariables());
+    private double calculateDeviation(WeightStore populationValues, double mean) {
+        return calculateDeviation(populationValues.size(), populationValues.getSumOfDifferences(mean));
+    }
 
-        this.sum += deviation;
-        this.number++;
+    private double calculateDeviation(int numberOfValues, double sumOfDifferences) {
+        double[] parameters = this.deviationExpression.createParameters(numberOfValues);
+        parameters[DannacoParameter.SUM_OF_DIFFERENCES.ordinal()] = sumOfDifferences;
+        parameters[DannacoParameter.NUMBER_OF_VALUES_PENALTY.ordinal()] = this.penaltyExpression.evaluate(parameters);
 
-        return deviation;
+        return this.deviationExpression.evaluate(parameters);
     }
 
     private double calculateTopologyPheromone(TopologyData topology) {
-        int numberOfUsages = Objects.requireNonNullElse(this.topologyPheromone.get(topology.getTopologyGroupID(), topology.getTopologyKey()), 0);
+        return calculateTopologyPheromone(topology.getTopologyGroupID(), topology.getTopologyKey());
+    }
 
-        Map<String, Double> variables = ConfigurationVariablesBuilder.<DannacoParameter>build()
-                .with(DannacoParameter.POPULATION_SIZE, this.maximalPopulationSize)
-                .with(DannacoParameter.NUMBER_OF_VALUES, numberOfUsages)
-                .getVariables();
+    private double calculateTopologyPheromone(int groupID, long topologyKey) {
+        int numberOfUsages = Objects.requireNonNullElse(this.topologyPheromone.get(groupID, topologyKey), 0);
 
-        return this.configuration.getValue(TOPOLOGY_PHEROMONE, Double.class, variables);
+        return this.topologyPheromoneExpression.evaluate(numberOfUsages);
     }
 
     protected double calculateConnectionPheromone(Connection connection, int groupID) {
         NeuronID start = connection.start();
         NeuronID end = connection.end();
 
-        Multiset<Double> populationKnowledge = getPopulationValues(start, end, groupID);
+        return calculateConnectionPheromone(getPopulationValues(start, end, groupID));
+    }
 
+    private double calculateConnectionPheromone(WeightStore populationKnowledge) {
         int sizeOfPopulationKnowledge = populationKnowledge == null ? 0 : populationKnowledge.size();
 
-        Map<String, Double> variables = ConfigurationVariablesBuilder.<DannacoParameter>build()
-                .with(DannacoParameter.POPULATION_SIZE, this.maximalPopulationSize)
-                .with(DannacoParameter.NUMBER_OF_VALUES, sizeOfPopulationKnowledge)
-                .getVariables();
-
-        return this.configuration.getValue(CONNECTION_PHEROMONE, Double.class, variables);
+        return this.connectionPheromoneExpression.evaluate(sizeOfPopulationKnowledge);
     }
 
-    private String createConnectionKey(Connection connection) {
+    private long createConnectionKey(Connection connection) {
         return createConnectionKey(connection.start(), connection.end());
     }
 
-    private String createConnectionKey(NeuronID start, NeuronID end) {
-        return String.format("%d:%d-%d:%d", start.getLayerIndex(), start.getNeuronIndex(),
-                end.getLayerIndex(), end.getNeuronIndex());
+    /**
+     * Packs the layer and neuron indices of both neurons into the lower 40 bits of a long
+     */
+    private long createConnectionKey(NeuronID start, NeuronID end) {
+        return (packNeuron(start) << (NEURON_LAYER_BITS + NEURON_INDEX_BITS)) | packNeuron(end);
+    }
+
+    private long packNeuron(NeuronID neuron) {
+        int layerIndex = neuron.getLayerIndex();
+        int neuronIndex = neuron.getNeuronIndex();
+
+        if (layerIndex >>> NEURON_LAYER_BITS != 0 || neuronIndex >>> NEURON_INDEX_BITS != 0) {
+            throw new IllegalArgumentException(String.format("Neuron %s can't be packed into a connection key", neuron));
+        }
+
+        return ((long) layerIndex << NEURON_INDEX_BITS) | neuronIndex;
+    }
+
+    private long createSuccessorKey(int groupID, long connectionKey) {
+        if (groupID >>> (Long.SIZE - CONNECTION_KEY_BITS) != 0) {
+            throw new IllegalStateException(String.format("Topology group id %d is too large to create a successor key", groupID));
+        }
+
+        return ((long) groupID << CONNECTION_KEY_BITS) | connectionKey;
     }
 
     public void exportPheromoneMatrixState(int evaluationNumber, StateHandler<DannacoRunState> state) {
         state.execute(s -> {
-            //noinspection unchecked safe cast for generic not possible
-            Map<String, AbstractStateValue<?, ?>> currentState = (Map<String, AbstractStateValue<?, ?>>) s.getValue(DannacoRunState.CONNECTION_WEIGHTS_SCATTERED, Map.class);
-
-            for (Map.Entry<Long, Multiset<Double>> connection : this.weightPheromone.entrySet()) {
-                currentState.putIfAbsent(connection.getKey().toString(), new ScatteredDataStateValue());
-                currentState.get(connection.getKey().toString()).newValue(new AbstractMap.SimpleEntry<>(evaluationNumber,
-                        Objects.requireNonNull(connection.getValue())
-                                .stream()
-                                .mapToDouble(d -> d)
-                                .boxed()
-                                .toArray(Double[]::new)));
-            }
-
+            addPheromoneMatrixState(evaluationNumber, s);
             s.export(DannacoRunState.CONNECTION_WEIGHTS_SCATTERED);
         });
     }
 
+    /**
+     * Adds the current weights to the state without exporting it (used to combine the state of multiple pheromones)
+     */
+    public void addPheromoneMatrixState(int evaluationNumber, StateHandler<DannacoRunState> state) {
+        //noinspection unchecked safe cast for generic not possible
+        Map<String, AbstractStateValue<?, ?>> currentState = (Map<String, AbstractStateValue<?, ?>>) state.getValue(DannacoRunState.CONNECTION_WEIGHTS_SCATTERED, Map.class);
+
+        this.weightPheromone.forEach((connectionID, values) -> {
+            String key = this.stateKeyPrefix + connectionID;
+            currentState.putIfAbsent(key, new ScatteredDataStateValue());
+            currentState.get(key).newValue(new AbstractMap.SimpleEntry<>(evaluationNumber,
+                    Arrays.stream(values.toArray())
+                            .boxed()
+                            .toArray(Double[]::new)));
+        });
+    }
+
     public void exportCurrentGroups(int evaluationNumber, StateHandler<DannacoRunState> state) {
         Map<String, DataPoint> value = new HashMap<>();
+        addCurrentGroups(evaluationNumber, value);
 
+        state.execute(s -> s.addNewValue(DannacoRunState.USED_GROUPS, value));
+    }
+
+    /**
+     * Adds the usage of the current topology groups to the map of group usages
+     */
+    public void addCurrentGroups(int evaluationNumber, Map<String, DataPoint> groupUsages) {
         for (Integer groupID : this.topologyPheromone.rowKeySet()) {
             double groupUsage = this.topologyPheromone.row(groupID)
                     .values()
@@ -632,10 +985,8 @@ public class Pheromone {
                     .mapToDouble(Integer::doubleValue)
                     .sum();
 
-            value.put(Integer.toString(groupID), new DataPoint(evaluationNumber, groupUsage));
+            groupUsages.put(this.stateKeyPrefix + groupID, new DataPoint(evaluationNumber, groupUsage));
         }
-
-        state.execute(s -> s.addNewValue(DannacoRunState.USED_GROUPS, value));
     }
 
     public void exportModificationCounts(StateHandler<DannacoState> state) {
@@ -643,41 +994,88 @@ public class Pheromone {
         this.modificationCounts.clear();
     }
 
+    /**
+     * Adds the modification counts since the last export to the given counts and resets them
+     */
+    public void transferModificationCounts(Map<String, Long> counts) {
+        this.modificationCounts.forEach((k, v) -> counts.merge(k, v, Long::sum));
+        this.modificationCounts.clear();
+    }
+
+    /**
+     * Sets the prefix of the keys of the exported connections and groups to distinguish multiple pheromones
+     */
+    public void setStateKeyPrefix(String prefix) {
+        this.stateKeyPrefix = prefix;
+    }
+
+    public double getSumOfDeviations() {
+        return this.sum;
+    }
+
+    public long getNumberOfDeviations() {
+        return this.number;
+    }
+
     public void exportDeviation(StateHandler<DannacoState> runState) {
         runState.execute(s -> s.addNewValue(DannacoState.AVERAGE_STANDARD_DEVIATION, this.sum / this.number));
     }
 
-    public Multiset<Double> getPopulationValues(NeuronID start, NeuronID end, int groupID) {
-        String connectionKey = createConnectionKey(start, end);
-        Long index = this.connectionMapping.get(groupID, connectionKey);
+    public WeightStore getPopulationValues(NeuronID start, NeuronID end, int groupID) {
+        long index = getConnectionID(start, end, groupID);
 
-        if (index == null) {
+        return getPopulationValues(index);
+    }
+
+    private WeightStore getPopulationValues(long connectionID) {
+        if (connectionID == NO_MAPPING) {
             return null;
         }
 
-        return this.weightPheromone.get(index);
+        return this.weightPheromone.get(connectionID);
     }
 
     private void removePopulationValues(NeuronID start, NeuronID end, int groupID) {
-        String connectionKey = createConnectionKey(start, end);
         // also remove mapping because no value is associated with index
-        long index = Objects.requireNonNull(this.connectionMapping.get(groupID, connectionKey),
-                String.format("Mapping for (%s, %s) doesn't exist", groupID, connectionKey));
-        this.weightPheromone.remove(index);
+        this.weightPheromone.remove(getExistingConnectionID(start, end, groupID));
     }
 
-    private Multiset<Double> getOrCreatePopulationValues(NeuronID start, NeuronID end, int groupID) {
-        String connectionKey = createConnectionKey(start, end);
-
-        Multiset<Double> result = getPopulationValues(start, end, groupID);
+    private WeightStore getOrCreatePopulationValues(NeuronID start, NeuronID end, int groupID) {
+        WeightStore result = getPopulationValues(start, end, groupID);
         if (result == null) {
-            long index = Objects.requireNonNull(this.connectionMapping.get(groupID, connectionKey),
-                    String.format("Mapping for (%s, %s) doesn't exist", groupID, connectionKey));
-
-            result = HashMultiset.create();
-            this.weightPheromone.put(index, result);
+            result = new WeightStore();
+            this.weightPheromone.put(getExistingConnectionID(start, end, groupID), result);
         }
 
         return result;
     }
+
+    private long getConnectionID(NeuronID start, NeuronID end, int groupID) {
+        TopologyGroup group = this.topologyGroups.get(groupID);
+
+        if (group == null) {
+            return NO_MAPPING;
+        }
+        return group.get(createConnectionKey(start, end));
+    }
+
+    private TopologyGroup getExistingTopologyGroup(int groupID) {
+        TopologyGroup group = this.topologyGroups.get(groupID);
+
+        if (group == null) {
+            throw new IllegalStateException(String.format("Topology group %d doesn't exist (anymore)", groupID));
+        }
+
+        return group;
+    }
+
+    private long getExistingConnectionID(NeuronID start, NeuronID end, int groupID) {
+        long index = getConnectionID(start, end, groupID);
+
+        if (index == NO_MAPPING) {
+            throw new IllegalStateException(String.format("Mapping for (%s, %s -> %s) doesn't exist", groupID, start, end));
+        }
+
+        return index;
+    }
 }
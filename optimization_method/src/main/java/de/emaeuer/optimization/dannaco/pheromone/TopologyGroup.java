@@ -0,0 +1,133 @@
+package de.emaeuer.optimization.dannaco.pheromone;
+
+import de.emaeuer.optimization.util.LongLongHashMap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Topology group of the pheromone with the mapping of its connection keys to connection ids. A group only stores the
+ * mappings which differ from its parent group (copy on write) and delegates all other lookups to the parent. Chains of
+ * groups which are longer than {@link #MAXIMAL_DEPTH} are flattened to bound the costs of a lookup.
+ * <p>
+ * The references count the ants of the population and the acquired ants which belong to this group. Groups without
+ * references can be removed from the pheromone, the mappings of their descendants stay valid because they refer to
+ * this object.
+ */
+final class TopologyGroup {
+
+    static final long NO_MAPPING = -1;
+
+    private static final int MAXIMAL_DEPTH = 8;
+
+    private final int id;
+
+    // null if this group is the root or was flattened
+    private final TopologyGroup parent;
+    private final int depth;
+    private final LongLongHashMap mapping;
+
+    private final boolean root;
+    // key of the split which created this group or NO_MAPPING if it wasn't created by a split
+    private final long successorKey;
+    // keys of the splits which created successors of this group
+    private final List<Long> successorKeys = new ArrayList<>(0);
+
+    private int references = 0;
+
+    private TopologyGroup(int id, TopologyGroup parent, LongLongHashMap mapping, long successorKey, boolean root) {
+        this.id = id;
+        this.root = root;
+        this.parent = parent;
+        this.depth = parent == null ? 0 : parent.depth + 1;
+        this.mapping = mapping;
+        this.successorKey = successorKey;
+    }
+
+    static TopologyGroup createRoot(int id, LongLongHashMap mapping) {
+        return new TopologyGroup(id, null, mapping, NO_MAPPING, true);
+    }
+
+    /**
+     * Creates a group for a topology which wasn't created in this pheromone (e.g. an ant of another colony). The
+     * group initially has the same mappings as this group.
+     */
+    TopologyGroup createImport(int id) {
+        return new TopologyGroup(id, this, new LongLongHashMap(), NO_MAPPING, false);
+    }
+
+    /**
+     * Creates a successor of this group which initially has the same mappings
+     */
+    TopologyGroup createSuccessor(int id, long successorKey) {
+        this.successorKeys.add(successorKey);
+
+        if (this.depth < MAXIMAL_DEPTH) {
+            return new TopologyGroup(id, this, new LongLongHashMap(), successorKey, false);
+        }
+
+        // the successor gets a flat copy of all mappings to keep the lookup chain short
+        LongLongHashMap flatMapping = new LongLongHashMap();
+        copyMappingsTo(flatMapping);
+        return new TopologyGroup(id, null, flatMapping, successorKey, false);
+    }
+
+    /**
+     * @return the connection id of the connection key or {@link #NO_MAPPING} if the key has no mapping
+     */
+    long get(long connectionKey) {
+        for (TopologyGroup group = this; group != null; group = group.parent) {
+            long connectionID = group.mapping.get(connectionKey, NO_MAPPING);
+            if (connectionID != NO_MAPPING) {
+                return connectionID;
+            }
+        }
+
+        return NO_MAPPING;
+    }
+
+    void put(long connectionKey, long connectionID) {
+        this.mapping.put(connectionKey, connectionID);
+    }
+
+    int getID() {
+        return this.id;
+    }
+
+    boolean isRoot() {
+        return this.root;
+    }
+
+    long getSuccessorKey() {
+        return this.successorKey;
+    }
+
+    List<Long> getSuccessorKeys() {
+        return this.successorKeys;
+    }
+
+    void addReference() {
+        this.references++;
+    }
+
+    void removeReference() {
+        if (this.references <= 0) {
+            throw new IllegalStateException(String.format("Topology group %d has no references which can be removed", this.id));
+        }
+        this.references--;
+    }
+
+    boolean isUnused() {
+        return this.references == 0;
+    }
+
+    /* ### Helper Methods ### */
+
+    private void copyMappingsTo(LongLongHashMap target) {
+        if (this.parent != null) {
+            this.parent.copyMappingsTo(target);
+        }
+        // mappings of this group overwrite those of the parents
+        this.mapping.forEach(target::put);
+    }
+}
@@ -0,0 +1,123 @@
+package de.emaeuer.optimization.dannaco.pheromone;
+
+import java.util.Arrays;
+
+/**
+ * Knowledge of the population about the weight of one connection. The weights are kept sorted in a primitive array
+ * together with their prefix sums, so the mean and the sum of absolute differences to an arbitrary value can be
+ * calculated in O(log n) without boxing. The prefix sums are updated by the modifications, hence reading doesn't
+ * modify the store and can happen concurrently.
+ * <p>
+ * Adding and removing a value is O(n) because the following values and prefix sums are shifted. The store holds at
+ * most one value per ant of the population (at most 100), so the shifts are cheaper than a balanced tree. A
+ * {@link de.emaeuer.optimization.util.FenwickTree} doesn't fit because the weights aren't known in advance.
+ */
+public class WeightStore {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private double[] values = new double[INITIAL_CAPACITY];
+    // prefixSums[i] is the sum of the i smallest values
+    private double[] prefixSums = new double[INITIAL_CAPACITY + 1];
+
+    private int size = 0;
+    private double sum = 0;
+
+    public void add(double value) {
+        if (this.size == this.values.length) {
+            this.values = Arrays.copyOf(this.values, this.size * 2);
+            this.prefixSums = Arrays.copyOf(this.prefixSums, this.values.length + 1);
+        }
+
+        int position = insertionPoint(value);
+        System.arraycopy(this.values, position, this.values, position + 1, this.size - position);
+        this.values[position] = value;
+
+        this.size++;
+        this.sum += value;
+        updatePrefixSums(position);
+    }
+
+    /**
+     * Removes one occurrence of the value (compared like {@link Double#equals(Object)})
+     *
+     * @return true if the value was contained
+     */
+    public boolean remove(double value) {
+        int position = insertionPoint(value);
+
+        if (position == this.size || Double.compare(this.values[position], value) != 0) {
+            return false;
+        }
+
+        System.arraycopy(this.values, position + 1, this.values, position, this.size - position - 1);
+
+        this.size--;
+        // recalculate the sum of an empty store to get rid of accumulated rounding errors
+        this.sum = this.size == 0 ? 0 : this.sum - value;
+        updatePrefixSums(position);
+        return true;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public double getMean() {
+        return this.size == 0 ? 0 : this.sum / this.size;
+    }
+
+    /**
+     * @return the sum of the absolute differences between all values and the given point
+     */
+    public double getSumOfDifferences(double point) {
+        if (this.size == 0) {
+            return 0;
+        }
+
+        // all values before the split position are smaller than the point
+        int split = insertionPoint(point);
+        double sumOfSmaller = this.prefixSums[split];
+        double sumOfGreater = this.prefixSums[this.size] - sumOfSmaller;
+
+        return (point * split - sumOfSmaller) + (sumOfGreater - point * (this.size - split));
+    }
+
+    public double[] toArray() {
+        return Arrays.copyOf(this.values, this.size);
+    }
+
+    /* ### Helper Methods ### */
+
+    /**
+     * @return the index of the first value which is greater than or equal to the given value
+     */
+    private int insertionPoint(double value) {
+        int low = 0;
+        int high = this.size;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (Double.compare(this.values[middle], value) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Recalculates the prefix sums which changed because of a modification at the given position
+     */
+    private void updatePrefixSums(int position) {
+        for (int i = position; i < this.size; i++) {
+            this.prefixSums[i + 1] = this.prefixSums[i] + this.values[i];
+        }
+    }
+}
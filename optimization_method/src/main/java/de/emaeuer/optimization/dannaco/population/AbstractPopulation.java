@@ -8,9 +8,12 @@ import de.emaeuer.optimization.dannaco.pheromone.Pheromone;
 import de.emaeuer.optimization.dannaco.state.DannacoRunState;
 import de.emaeuer.optimization.dannaco.state.DannacoState;
 import de.emaeuer.optimization.util.RandomUtil;
+import de.emaeuer.optimization.util.RankedList;
 import de.emaeuer.state.StateHandler;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import static de.emaeuer.optimization.dannaco.configuration.DannacoConfiguration.ANTS_PER_ITERATION;
@@ -20,6 +23,8 @@ public abstract class AbstractPopulation<T extends Collection<Ant>> {
     private final ConfigurationHandler<DannacoConfiguration> configuration;
 
     private final boolean useElitism;
+    private final boolean parallelConstruction;
+    private final boolean pipelinedConstruction;
 
     private final int maxSize;
     private final int updatesPerIteration;
@@ -30,6 +35,15 @@ public abstract class AbstractPopulation<T extends Collection<Ant>> {
     private final T population;
 
     private final List<Ant> currentAnts = new ArrayList<>();
+    // ranking of the current ants which is created once after their evaluation
+    private RankedList<Ant> rankedCurrentAnts = null;
+    // ants of the next generation which are constructed while the current generation is evaluated
+    private CompletableFuture<List<Ant>> pipelinedAnts = null;
+    // version of the pheromone the pipelined ants are valid for (the pheromone without the update of the current generation)
+    private int pipelinedVersion;
+
+    // number of ants which are missing for the next update of the steady state mode
+    private int remainingAntsOfWindow = 0;
 
     private final RandomUtil rng;
 
@@ -37,6 +51,10 @@ public abstract class AbstractPopulation<T extends Collection<Ant>> {
         this.configuration = configuration;
         this.maxSize = configuration.getValue(DannacoConfiguration.POPULATION_SIZE, Integer.class);
         this.useElitism = configuration.getValue(DannacoConfiguration.ELITISM, Boolean.class);
+        this.parallelConstruction = configuration.getValue(DannacoConfiguration.PARALLEL_CONSTRUCTION, Boolean.class);
+        // the steady state mode constructs single ants when they are needed
+        this.pipelinedConstruction = configuration.getValue(DannacoConfiguration.PIPELINED_CONSTRUCTION, Boolean.class)
+                && !configuration.getValue(DannacoConfiguration.STEADY_STATE, Boolean.class);
         this.updatesPerIteration = configuration.getValue(DannacoConfiguration.UPDATES_PER_ITERATION, Integer.class);
         this.population = emptyPopulation;
         this.rng = rng;
@@ -46,31 +64,162 @@ public abstract class AbstractPopulation<T extends Collection<Ant>> {
 
     public List<Ant> nextGeneration()  {
         this.currentAnts.clear();
+        this.rankedCurrentAnts = null;
 
-        // if pheromone matrix is empty create the necessary number of ants to fill the population completely
-        int antsPerIteration = this.configuration.getValue(ANTS_PER_ITERATION, Integer.class);
-        if (getSize() < getMaxSize()) {
-            antsPerIteration = Math.max(getMaxSize() - getSize(), antsPerIteration);
+        int antsPerIteration = calculateNumberOfAntsPerIteration();
+        List<Ant> pipelinedAnts = takePipelinedAnts(antsPerIteration);
+
+        // the ants of the last generation which weren't added to the population are discarded (the pipelined ants are kept)
+        pipelinedAnts.forEach(this.pheromone::acquireTopologyGroup);
+        this.pheromone.collectUnusedTopologyGroups();
+        pipelinedAnts.forEach(this.pheromone::releaseTopologyGroup);
+
+        if (pipelinedAnts.isEmpty()) {
+            this.currentAnts.addAll(constructAnts(antsPerIteration));
+        } else {
+            this.currentAnts.addAll(pipelinedAnts);
         }
 
-        IntStream.range(this.currentAnts.size(), antsPerIteration)
-                .mapToObj(i -> this.pheromone.createAntFromPopulation())
-                .forEach(this.currentAnts::add);
+        if (this.pipelinedConstruction) {
+            // the ants of the next generation are constructed while this generation is evaluated, hence they don't
+            // know the update with this generation (lagged construction)
+            this.pipelinedVersion = this.pheromone.getVersion();
+            int antsOfNextIteration = calculateNumberOfAntsPerIteration();
+            this.pipelinedAnts = CompletableFuture.supplyAsync(() -> constructAnts(antsOfNextIteration));
+        }
 
         return this.currentAnts;
     }
 
+    private List<Ant> constructAnts(int numberOfAnts) {
+        if (this.parallelConstruction) {
+            return this.pheromone.createAntsFromPopulation(numberOfAnts);
+        }
+
+        return IntStream.range(0, numberOfAnts)
+                .mapToObj(i -> this.pheromone.createAntFromPopulation())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return the pipelined ants or an empty list if they are stale and must be constructed again
+     */
+    private List<Ant> takePipelinedAnts(int antsPerIteration) {
+        if (this.pipelinedAnts == null) {
+            return Collections.emptyList();
+        }
+
+        boolean isUsable = hasUsablePipelinedAnts(antsPerIteration);
+        List<Ant> ants = this.pipelinedAnts.join();
+        this.pipelinedAnts = null;
+
+        return isUsable ? ants : Collections.emptyList();
+    }
+
+    /**
+     * Checks if the next generation can use the pipelined ants. They are stale if the pheromone changed by more than
+     * the update of the current generation (e.g. by immigrants) or if the size of the next generation changed. Waits
+     * for the pipelined construction.
+     */
+    public boolean hasUsablePipelinedAnts() {
+        return hasUsablePipelinedAnts(calculateNumberOfAntsPerIteration());
+    }
+
+    private boolean hasUsablePipelinedAnts(int antsPerIteration) {
+        if (this.pipelinedAnts == null) {
+            return false;
+        }
+
+        return this.pipelinedVersion == this.pheromone.getVersion()
+                && this.pipelinedAnts.join().size() == antsPerIteration;
+    }
+
+    /**
+     * Waits until the pipelined construction finished because the pheromone must not change during the construction
+     */
+    private void awaitPipelinedConstruction() {
+        if (this.pipelinedAnts != null) {
+            this.pipelinedAnts.join();
+        }
+    }
+
+    /**
+     * Waits for the pipelined construction and discards its ants. Must be called before this population is dropped
+     * (e.g. at the end of a run) because the construction would otherwise continue unobserved and its exceptions
+     * would be lost.
+     */
+    public void discardPipelinedAnts() {
+        CompletableFuture<List<Ant>> ants = this.pipelinedAnts;
+        this.pipelinedAnts = null;
+
+        if (ants != null) {
+            // rethrows an exception of the construction
+            ants.join();
+        }
+    }
+
+    /**
+     * Constructs a single ant for the steady state mode. The topology group of the ant is kept until the ant was
+     * returned by {@link #addEvaluatedAnt(Ant)}.
+     */
+    public Ant nextAnt() {
+        this.pheromone.collectUnusedTopologyGroups();
+
+        Ant ant = this.pheromone.createAntFromPopulation();
+        this.pheromone.acquireTopologyGroup(ant);
+        return ant;
+    }
+
+    /**
+     * Collects an evaluated ant of the steady state mode. The pheromone is updated as soon as the number of ants of an
+     * iteration was evaluated, the collected ants are the current ants until the next ant is returned.
+     *
+     * @return true if the pheromone was updated
+     */
+    public boolean addEvaluatedAnt(Ant ant) {
+        if (this.remainingAntsOfWindow == 0) {
+            // the ants of the last window were already used for an update
+            this.currentAnts.clear();
+            this.remainingAntsOfWindow = calculateNumberOfAntsPerIteration();
+        }
+
+        this.currentAnts.add(ant);
+        this.rankedCurrentAnts = null;
+        this.remainingAntsOfWindow--;
+
+        if (this.remainingAntsOfWindow > 0) {
+            return false;
+        }
+
+        updatePheromone();
+        // the groups of the ants which weren't added to the population can be collected now
+        this.currentAnts.forEach(this.pheromone::releaseTopologyGroup);
+        return true;
+    }
+
     public void updatePheromone() {
-        this.currentAnts.stream()
-                .sorted(Comparator.comparingDouble(Ant::getGeneralizationCapability)
-                        .thenComparingDouble(Ant::getFitness)
-                        .reversed())
+        awaitPipelinedConstruction();
+        updatePheromoneWithCurrentAnts();
+
+        // the pipelined ants miss this update on purpose, any further change makes them stale
+        this.pipelinedVersion = this.pheromone.getVersion();
+    }
+
+    protected void updatePheromoneWithCurrentAnts() {
+        getRankedCurrentAnts().stream()
                 .limit(calculateNumberOfAntsToAdd())
                 .map(this::addAnt)
                 .filter(Optional::isPresent)
                 .map(Optional::get)
                 .forEach(this.pheromone::addAnt);
 
+        removeSurplusAnts();
+    }
+
+    /**
+     * Removes the ants which exceed the maximal size of the population from the population and the pheromone
+     */
+    protected void removeSurplusAnts() {
         IntStream.range(0, Math.max(0, getSize() - getMaxSize()))
                 .mapToObj(i -> this.removeAnt())
                 .filter(Optional::isPresent)
@@ -78,6 +227,48 @@ public abstract class AbstractPopulation<T extends Collection<Ant>> {
                 .forEach(this.pheromone::removeAnt);
     }
 
+    /**
+     * Adds ants of other populations (e.g. of other colonies) like the ants of an iteration to this population and
+     * its pheromone
+     */
+    public void addImmigrants(List<Ant> immigrants) {
+        awaitPipelinedConstruction();
+
+        immigrants.stream()
+                .map(this.pheromone::importAnt)
+                .map(this::addAnt)
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .forEach(this.pheromone::addAnt);
+
+        removeSurplusAnts();
+    }
+
+    private int calculateNumberOfAntsPerIteration() {
+        // if pheromone matrix is empty create the necessary number of ants to fill the population completely
+        int antsPerIteration = this.configuration.getValue(ANTS_PER_ITERATION, Integer.class);
+        if (getSize() < getMaxSize()) {
+            antsPerIteration = Math.max(getMaxSize() - getSize(), antsPerIteration);
+        }
+        return antsPerIteration;
+    }
+
+    /**
+     * Fitness an ant of the current iteration must exceed to be added to this population. Ants which can't reach it
+     * don't have to be evaluated completely (racing).
+     */
+    public double getAdmissionThreshold() {
+        return Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * @return the number of the best ants of the current iteration which can at most be added to this population
+     */
+    public int getNumberOfAdmittableAnts() {
+        // only the best ants of the iteration are offered to the population
+        return calculateNumberOfAntsToAdd();
+    }
+
     protected int calculateNumberOfAntsToAdd() {
         if (getSize() < getMaxSize()) {
             return getMaxSize() - getSize();
@@ -127,27 +318,42 @@ public abstract class AbstractPopulation<T extends Collection<Ant>> {
         return currentAnts;
     }
 
+    /**
+     * Returns the current ants ordered by {@link Ant#BEST_FIRST}. The ranking is created on the first call after the
+     * evaluation of the ants and shared by all further calls of this iteration.
+     */
+    public RankedList<Ant> getRankedCurrentAnts() {
+        if (this.rankedCurrentAnts == null) {
+            this.rankedCurrentAnts = new RankedList<>(Ant.BEST_FIRST, this.currentAnts);
+        }
+        return this.rankedCurrentAnts;
+    }
+
     protected RandomUtil getRNG() {
         return rng;
     }
 
-    protected Pheromone getPheromone() {
+    public Pheromone getPheromone() {
         return pheromone;
     }
 
     public void exportPheromoneMatrixState(int evaluationCounter, StateHandler<DannacoRunState> state) {
+        awaitPipelinedConstruction();
         this.pheromone.exportPheromoneMatrixState(evaluationCounter, state);
     }
 
     public void exportCurrentGroups(int evaluationNumber, StateHandler<DannacoRunState> state) {
+        awaitPipelinedConstruction();
         this.pheromone.exportCurrentGroups(evaluationNumber, state);
     }
 
     public void exportModificationCounts(StateHandler<DannacoState> state) {
+        awaitPipelinedConstruction();
         this.pheromone.exportModificationCounts(state);
     }
 
     public void exportDeviation(StateHandler<DannacoState> state) {
+        awaitPipelinedConstruction();
         this.pheromone.exportDeviation(state);
     }
 }
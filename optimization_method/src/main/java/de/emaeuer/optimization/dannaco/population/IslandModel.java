@@ -0,0 +1,270 @@
+package de.emaeuer.optimization.dannaco.population;
+
+import de.emaeuer.ann.NeuralNetwork;
+import de.emaeuer.configuration.ConfigurationHandler;
+import de.emaeuer.optimization.dannaco.Ant;
+import de.emaeuer.optimization.dannaco.configuration.DannacoConfiguration;
+import de.emaeuer.optimization.dannaco.pheromone.Pheromone;
+import de.emaeuer.optimization.dannaco.state.DannacoRunState;
+import de.emaeuer.optimization.dannaco.state.DannacoState;
+import de.emaeuer.optimization.util.RandomUtil;
+import de.emaeuer.optimization.util.RankedList;
+import de.emaeuer.state.StateHandler;
+import de.emaeuer.state.value.data.DataPoint;
+
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static de.emaeuer.optimization.dannaco.configuration.DannacoConfiguration.*;
+
+/**
+ * Island model of multiple colonies which are optimized independently of each other. Each colony has its own
+ * population, pheromone and random generator and the colonies are constructed and updated in parallel. Every few
+ * iterations each colony sends its best ants to the colonies which are its neighbours in the migration topology.
+ * <p>
+ * A single colony behaves exactly like its population.
+ */
+public class IslandModel {
+
+    private final List<AbstractPopulation<?>> colonies;
+
+    private final int migrationInterval;
+    private final int numberOfMigrants;
+    private final MigrationTopologies migrationTopology;
+
+    private int iterationCounter = 0;
+
+    // colony of each ant which is evaluated in the steady state mode
+    private final Map<Ant, AbstractPopulation<?>> coloniesOfEvaluatedAnts = new IdentityHashMap<>();
+    private int nextColony = 0;
+
+    private final List<Ant> currentAnts = new ArrayList<>();
+    private RankedList<Ant> rankedCurrentAnts = null;
+
+    public IslandModel(ConfigurationHandler<DannacoConfiguration> configuration, Supplier<NeuralNetwork> baseNetworkSupplier, RandomUtil rng) {
+        this.migrationInterval = configuration.getValue(MIGRATION_INTERVAL, Integer.class);
+        this.numberOfMigrants = configuration.getValue(NUMBER_OF_MIGRANTS, Integer.class);
+        this.migrationTopology = MigrationTopologies.valueOf(configuration.getValue(MIGRATION_TOPOLOGY, String.class));
+
+        int numberOfColonies = configuration.getValue(NUMBER_OF_COLONIES, Integer.class);
+
+        if (numberOfColonies == 1) {
+            this.colonies = List.of(PopulationFactory.create(configuration, baseNetworkSupplier.get(), rng));
+        } else {
+            // the random generator of a colony only depends on the seed and the index of the colony
+            this.colonies = IntStream.range(0, numberOfColonies)
+                    .mapToObj(i -> PopulationFactory.create(configuration, baseNetworkSupplier.get(), rng.createStream(i)))
+                    .collect(Collectors.toUnmodifiableList());
+
+            for (int i = 0; i < numberOfColonies; i++) {
+                this.colonies.get(i).getPheromone().setStateKeyPrefix(i + ":");
+            }
+        }
+    }
+
+    public List<Ant> nextGeneration() {
+        if (isSingleColony()) {
+            return this.colonies.get(0).nextGeneration();
+        }
+
+        this.currentAnts.clear();
+        this.rankedCurrentAnts = null;
+
+        this.colonies.parallelStream()
+                .map(AbstractPopulation::nextGeneration)
+                .forEachOrdered(this.currentAnts::addAll);
+
+        return this.currentAnts;
+    }
+
+    public void updatePheromone() {
+        if (isSingleColony()) {
+            this.colonies.get(0).updatePheromone();
+            return;
+        }
+
+        this.colonies.parallelStream()
+                .forEach(AbstractPopulation::updatePheromone);
+
+        this.iterationCounter++;
+        if (this.iterationCounter % this.migrationInterval == 0) {
+            migrate();
+        }
+    }
+
+    /**
+     * Waits for the pipelined construction of all colonies and discards the constructed ants
+     */
+    public void discardPipelinedAnts() {
+        this.colonies.forEach(AbstractPopulation::discardPipelinedAnts);
+    }
+
+    /**
+     * Constructs the next ant of the steady state mode. The colonies construct the ants in turns.
+     */
+    public Ant nextAnt() {
+        AbstractPopulation<?> colony = this.colonies.get(this.nextColony);
+        this.nextColony = (this.nextColony + 1) % this.colonies.size();
+
+        Ant ant = colony.nextAnt();
+        if (!isSingleColony()) {
+            this.coloniesOfEvaluatedAnts.put(ant, colony);
+        }
+        return ant;
+    }
+
+    /**
+     * Returns an evaluated ant of the steady state mode to the colony which constructed it. If this completes an
+     * iteration of the colony its ants become the current ants.
+     *
+     * @return true if the pheromone of a colony was updated
+     */
+    public boolean addEvaluatedAnt(Ant ant) {
+        if (isSingleColony()) {
+            return this.colonies.get(0).addEvaluatedAnt(ant);
+        }
+
+        AbstractPopulation<?> colony = this.coloniesOfEvaluatedAnts.remove(ant);
+        if (colony == null) {
+            throw new IllegalArgumentException("The ant wasn't constructed by a colony of this island model");
+        } else if (!colony.addEvaluatedAnt(ant)) {
+            return false;
+        }
+
+        this.currentAnts.clear();
+        this.currentAnts.addAll(colony.getCurrentAnts());
+        this.rankedCurrentAnts = null;
+
+        // each colony completes an iteration in the time of one generation
+        this.iterationCounter++;
+        if (this.iterationCounter % (this.migrationInterval * this.colonies.size()) == 0) {
+            migrate();
+        }
+        return true;
+    }
+
+    private void migrate() {
+        // select all migrants before any colony is changed by immigrants
+        List<List<Ant>> emigrants = this.colonies.stream()
+                .map(c -> List.copyOf(c.getPheromone().getBestSolutions(this.numberOfMigrants)))
+                .collect(Collectors.toList());
+
+        // sequential because the immigrants are copied from the other colonies
+        for (int i = 0; i < this.colonies.size(); i++) {
+            this.colonies.get(i).addImmigrants(selectImmigrants(i, emigrants));
+        }
+    }
+
+    private List<Ant> selectImmigrants(int colony, List<List<Ant>> emigrants) {
+        int numberOfColonies = this.colonies.size();
+
+        return switch (this.migrationTopology) {
+            // each colony receives the ants of its predecessor
+            case RING -> emigrants.get((colony + numberOfColonies - 1) % numberOfColonies);
+            case FULLY_CONNECTED -> IntStream.range(0, numberOfColonies)
+                    .filter(i -> i != colony)
+                    .mapToObj(emigrants::get)
+                    .flatMap(List::stream)
+                    .collect(Collectors.toList());
+        };
+    }
+
+    public List<Ant> getCurrentAnts() {
+        return isSingleColony() ? this.colonies.get(0).getCurrentAnts() : this.currentAnts;
+    }
+
+    /**
+     * Returns the current ants of all colonies ordered by {@link Ant#BEST_FIRST}
+     */
+    public RankedList<Ant> getRankedCurrentAnts() {
+        if (isSingleColony()) {
+            return this.colonies.get(0).getRankedCurrentAnts();
+        } else if (this.rankedCurrentAnts == null) {
+            this.rankedCurrentAnts = new RankedList<>(Ant.BEST_FIRST, this.currentAnts);
+        }
+        return this.rankedCurrentAnts;
+    }
+
+    /**
+     * @return the lowest admission threshold of all colonies because each ant is offered to its own colony
+     */
+    public double getAdmissionThreshold() {
+        return this.colonies.stream()
+                .mapToDouble(AbstractPopulation::getAdmissionThreshold)
+                .min()
+                .orElse(Double.NEGATIVE_INFINITY);
+    }
+
+    public int getNumberOfAdmittableAnts() {
+        // the rank of an ant in its colony is unknown to the ants of the other colonies
+        return isSingleColony() ? this.colonies.get(0).getNumberOfAdmittableAnts() : Integer.MAX_VALUE;
+    }
+
+    public int getNumberOfColonies() {
+        return this.colonies.size();
+    }
+
+    public List<AbstractPopulation<?>> getColonies() {
+        return this.colonies;
+    }
+
+    private boolean isSingleColony() {
+        return this.colonies.size() == 1;
+    }
+
+    public void exportPheromoneMatrixState(int evaluationCounter, StateHandler<DannacoRunState> state) {
+        if (isSingleColony()) {
+            this.colonies.get(0).exportPheromoneMatrixState(evaluationCounter, state);
+            return;
+        }
+
+        state.execute(s -> {
+            this.colonies.forEach(c -> c.getPheromone().addPheromoneMatrixState(evaluationCounter, s));
+            s.export(DannacoRunState.CONNECTION_WEIGHTS_SCATTERED);
+        });
+    }
+
+    public void exportCurrentGroups(int evaluationNumber, StateHandler<DannacoRunState> state) {
+        if (isSingleColony()) {
+            this.colonies.get(0).exportCurrentGroups(evaluationNumber, state);
+            return;
+        }
+
+        Map<String, DataPoint> value = new HashMap<>();
+        this.colonies.forEach(c -> c.getPheromone().addCurrentGroups(evaluationNumber, value));
+
+        state.execute(s -> s.addNewValue(DannacoRunState.USED_GROUPS, value));
+    }
+
+    public void exportModificationCounts(StateHandler<DannacoState> state) {
+        if (isSingleColony()) {
+            this.colonies.get(0).exportModificationCounts(state);
+            return;
+        }
+
+        Map<String, Long> counts = new HashMap<>(4);
+        this.colonies.forEach(c -> c.getPheromone().transferModificationCounts(counts));
+
+        state.execute(s -> s.addNewValue(DannacoState.MODIFICATION_DISTRIBUTION, counts));
+    }
+
+    public void exportDeviation(StateHandler<DannacoState> state) {
+        if (isSingleColony()) {
+            this.colonies.get(0).exportDeviation(state);
+            return;
+        }
+
+        double sum = 0;
+        long number = 0;
+        for (AbstractPopulation<?> colony : this.colonies) {
+            Pheromone pheromone = colony.getPheromone();
+            sum += pheromone.getSumOfDeviations();
+            number += pheromone.getNumberOfDeviations();
+        }
+
+        double averageDeviation = sum / number;
+        state.execute(s -> s.addNewValue(DannacoState.AVERAGE_STANDARD_DEVIATION, averageDeviation));
+    }
+}
@@ -0,0 +1,14 @@
+package de.emaeuer.optimization.dannaco.population;
+
+import java.util.Arrays;
+
+public enum MigrationTopologies {
+    RING,
+    FULLY_CONNECTED;
+
+    public static String[] getNames() {
+        return Arrays.stream(MigrationTopologies.values())
+                .map(Enum::name)
+                .toArray(String[]::new);
+    }
+}
@@ -6,20 +6,29 @@ import de.emaeuer.optimization.dannaco.Ant;
 import de.emaeuer.optimization.dannaco.configuration.DannacoConfiguration;
 import de.emaeuer.optimization.dannaco.population.AbstractPopulation;
 import de.emaeuer.optimization.util.RandomUtil;
+import de.emaeuer.optimization.util.RankedList;
 
 import java.util.*;
 
-public class FitnessBasedPopulation extends AbstractPopulation<PriorityQueue<Ant>> {
+public class FitnessBasedPopulation extends AbstractPopulation<RankedList<Ant>> {
 
     public FitnessBasedPopulation(ConfigurationHandler<DannacoConfiguration> configuration, NeuralNetwork baseNetwork, RandomUtil rng) {
-        super(configuration, new PriorityQueue<>(Comparator.comparingDouble(Ant::getGeneralizationCapability).thenComparingDouble(Ant::getFitness)), baseNetwork, rng);
+        super(configuration, new RankedList<>(Ant.BEST_FIRST), baseNetwork, rng);
+    }
+
+    @Override
+    public double getAdmissionThreshold() {
+        // a full population only accepts ants which are better than its worst ant
+        return getPopulation().size() < getMaxSize()
+                ? Double.NEGATIVE_INFINITY
+                : getPopulation().getLast().getFitness();
     }
 
     @Override
     public Optional<Ant> addAnt(Ant ant) {
         checkAndSetIfGlobalBest(ant);
 
-        double minFitnessOfPopulation = Optional.ofNullable(getPopulation().peek())
+        double minFitnessOfPopulation = Optional.ofNullable(getPopulation().getLast())
                 .map(Ant::getFitness)
                 .orElse(0.0);
 
@@ -39,7 +48,7 @@ public class FitnessBasedPopulation extends AbstractPopulation<PriorityQueue<Ant
     public Optional<Ant> removeAnt() {
         // remove the worst solution if the population contains too many ants
         if (getPopulation().size() > getMaxSize()) {
-            return Optional.ofNullable(getPopulation().poll());
+            return Optional.ofNullable(getPopulation().removeLast());
         }
 
         return Optional.empty();
@@ -8,7 +8,6 @@ import de.emaeuer.optimization.dannaco.configuration.DannacoConfiguration;
 import de.emaeuer.optimization.util.RandomUtil;
 
 import java.util.*;
-import java.util.stream.IntStream;
 
 public class InnovationProtectingPopulation extends AgeBasedPopulation {
 
@@ -22,14 +21,11 @@ public class InnovationProtectingPopulation extends AgeBasedPopulation {
     }
 
     @Override
-    public void updatePheromone() {
+    protected void updatePheromoneWithCurrentAnts() {
         addedTopologies.clear();
 
-        getCurrentAnts().sort(Comparator.comparingDouble(Ant::getGeneralizationCapability)
-                .thenComparingDouble(Ant::getFitness)
-                .reversed());
         int remainingAntUpdates = calculateNumberOfAntsToAdd();
-        for (Ant ant : getCurrentAnts()) {
+        for (Ant ant : getRankedCurrentAnts()) {
             if (remainingAntUpdates <= 0) {
                 break;
             }
@@ -42,11 +38,13 @@ public class InnovationProtectingPopulation extends AgeBasedPopulation {
             }
         }
 
-        IntStream.range(0, Math.max(0, getSize() - getMaxSize()))
-                .mapToObj(i -> this.removeAnt())
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .forEach(getPheromone()::removeAnt);
+        removeSurplusAnts();
+    }
+
+    @Override
+    public int getNumberOfAdmittableAnts() {
+        // rejected ants are skipped, hence every ant of the iteration may be added
+        return Integer.MAX_VALUE;
     }
 
     @Override
@@ -5,7 +5,9 @@ import de.emaeuer.configuration.ConfigurationHandler;
 import de.emaeuer.optimization.dannaco.Ant;
 import de.emaeuer.optimization.dannaco.configuration.DannacoConfiguration;
 import de.emaeuer.optimization.dannaco.population.AbstractPopulation;
+import de.emaeuer.optimization.util.CumulativeSampler;
 import de.emaeuer.optimization.util.RandomUtil;
+import de.emaeuer.optimization.util.WeightedSampler;
 
 import java.util.*;
 
@@ -17,17 +19,21 @@ public class ProbabilityBasedPopulation extends AbstractPopulation<List<Ant>> {
         super(configuration, new ArrayList<>(), baseNetwork, rng);
     }
 
-    public void updatePheromone() {
-        getCurrentAnts().stream()
-                .sorted(Comparator.comparingDouble(Ant::getGeneralizationCapability)
-                        .thenComparingDouble(Ant::getFitness)
-                        .reversed())
+    @Override
+    protected void updatePheromoneWithCurrentAnts() {
+        getRankedCurrentAnts().stream()
                 .limit(calculateNumberOfAntsToAdd())
                 .map(this::addAnt)
                 .filter(Optional::isPresent)
                 .map(Optional::get)
                 .forEach(getPheromone()::addAnt);
 
+        removeSurplusAnts();
+    }
+
+    @Override
+    protected void removeSurplusAnts() {
+        // the ants were already removed from the population by the add method
         this.removedAnts.forEach(getPheromone()::removeAnt);
         this.removedAnts.clear();
     }
@@ -60,12 +66,16 @@ public class ProbabilityBasedPopulation extends AbstractPopulation<List<Ant>> {
 
     protected Ant determineAntToRemove() {
         double[] removeProbabilities = calculateRemoveProbabilities();
-        int indexToRemove = getRNG().selectRandomElementFromVector(removeProbabilities, true);
+        int indexToRemove = CumulativeSampler.ofInvertedWeights(removeProbabilities).sample(getRNG());
         Ant antToRemove = getPopulation().get(indexToRemove);
 
         // if elitism is used select new ant to remove if the global best ant should be removed
+        WeightedSampler elitismSampler = null;
         while (usesElitism() && antToRemove == getGlobalBest()) {
-            indexToRemove = getRNG().selectRandomElementFromVector(removeProbabilities);
+            if (elitismSampler == null) {
+                elitismSampler = new CumulativeSampler(removeProbabilities);
+            }
+            indexToRemove = elitismSampler.sample(getRNG());
             antToRemove = getPopulation().get(indexToRemove);
         }
 
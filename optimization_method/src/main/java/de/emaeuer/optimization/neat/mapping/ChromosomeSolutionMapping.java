@@ -18,6 +18,8 @@ public class ChromosomeSolutionMapping implements Solution {
 
     private NeuralNetwork mappedNN = null;
 
+    private double[] inputWithBias = null;
+
     public ChromosomeSolutionMapping(Chromosome chromosome, Activator activator, double maxFitness) {
         this.chromosome = chromosome;
         this.activator = (AnjiActivator) activator;
@@ -32,6 +34,29 @@ public class ChromosomeSolutionMapping implements Solution {
         return new ArrayRealVector(result);
     }
 
+    @Override
+    public void process(double[] input, double[] output) {
+        if (this.inputWithBias == null || this.inputWithBias.length != input.length + 1) {
+            this.inputWithBias = new double[input.length + 1];
+            // add bias as input which is always one
+            this.inputWithBias[0] = 1;
+        }
+        System.arraycopy(input, 0, this.inputWithBias, 1, input.length);
+
+        double[] result = activator.next(this.inputWithBias);
+        System.arraycopy(result, 0, output, 0, output.length);
+    }
+
+    @Override
+    public double[][] processBatch(double[][] inputs) {
+        // the anji network may be recurrent --> process the inputs sequentially
+        double[][] outputs = new double[inputs.length][];
+        for (int i = 0; i < inputs.length; i++) {
+            outputs[i] = process(new ArrayRealVector(inputs[i], false)).toArray();
+        }
+        return outputs;
+    }
+
     @Override
     public double getFitness() {
         return this.fitness;
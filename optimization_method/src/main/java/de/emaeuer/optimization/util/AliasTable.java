@@ -0,0 +1,97 @@
+package de.emaeuer.optimization.util;
+
+/**
+ * Alias table (method of Walker and Vose) which selects an index in O(1) with one random number
+ */
+public class AliasTable implements WeightedSampler {
+
+    private final double[] probabilities;
+    private final int[] aliases;
+
+    public AliasTable(double[] weights) {
+        int n = weights.length;
+        double sum = sumOfWeights(weights);
+
+        this.probabilities = new double[n];
+        this.aliases = new int[n];
+
+        double[] scaledWeights = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int numberOfSmall = 0;
+        int numberOfLarge = 0;
+
+        for (int i = 0; i < n; i++) {
+            scaledWeights[i] = weights[i] * n / sum;
+            if (scaledWeights[i] < 1) {
+                small[numberOfSmall++] = i;
+            } else {
+                large[numberOfLarge++] = i;
+            }
+        }
+
+        // fill the column of each small weight with the probability mass of a large weight
+        while (numberOfSmall > 0 && numberOfLarge > 0) {
+            int smallIndex = small[--numberOfSmall];
+            int largeIndex = large[--numberOfLarge];
+
+            this.probabilities[smallIndex] = scaledWeights[smallIndex];
+            this.aliases[smallIndex] = largeIndex;
+
+            scaledWeights[largeIndex] = (scaledWeights[largeIndex] + scaledWeights[smallIndex]) - 1;
+            if (scaledWeights[largeIndex] < 1) {
+                small[numberOfSmall++] = largeIndex;
+            } else {
+                large[numberOfLarge++] = largeIndex;
+            }
+        }
+
+        // the remaining columns are full (small weights may remain because of rounding errors)
+        while (numberOfLarge > 0) {
+            fillColumn(large[--numberOfLarge]);
+        }
+        while (numberOfSmall > 0) {
+            fillColumn(small[--numberOfSmall]);
+        }
+    }
+
+    @Override
+    public int sample(RandomUtil rng) {
+        double scaled = rng.nextDouble() * this.probabilities.length;
+        int column = Math.min((int) scaled, this.probabilities.length - 1);
+
+        return scaled - column < this.probabilities[column] ? column : this.aliases[column];
+    }
+
+    @Override
+    public int size() {
+        return this.probabilities.length;
+    }
+
+    /* ### Helper Methods ### */
+
+    private void fillColumn(int column) {
+        this.probabilities[column] = 1;
+        this.aliases[column] = column;
+    }
+
+    private static double sumOfWeights(double[] weights) {
+        if (weights.length == 0) {
+            throw new IllegalArgumentException("Can't sample from an empty vector");
+        }
+
+        double sum = 0;
+        for (double weight : weights) {
+            if (weight < 0 || !Double.isFinite(weight)) {
+                throw new IllegalArgumentException(String.format("The weight %f is invalid for sampling", weight));
+            }
+            sum += weight;
+        }
+
+        if (sum <= 0) {
+            throw new IllegalArgumentException("Can't sample from a vector without positive weights");
+        }
+
+        return sum;
+    }
+}
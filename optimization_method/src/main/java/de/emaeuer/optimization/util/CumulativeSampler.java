@@ -0,0 +1,83 @@
+package de.emaeuer.optimization.util;
+
+import java.util.Arrays;
+
+/**
+ * Selects an index with binary search in the cumulative weights. The selection is equal to the one of
+ * {@link RandomUtil#selectRandomElementFromVector(double[])} for the same random number.
+ */
+public class CumulativeSampler implements WeightedSampler {
+
+    private final double[] cumulativeWeights;
+    private final double sum;
+
+    public CumulativeSampler(double[] weights) {
+        this.cumulativeWeights = Arrays.copyOf(weights, weights.length);
+        this.sum = accumulate(this.cumulativeWeights);
+    }
+
+    private CumulativeSampler(double[] cumulativeWeights, double sum) {
+        this.cumulativeWeights = cumulativeWeights;
+        this.sum = sum;
+    }
+
+    /**
+     * Creates a sampler for the weights 1 - (w / sum of all weights) like
+     * {@link RandomUtil#selectRandomElementFromVector(double[], boolean)}
+     */
+    public static CumulativeSampler ofInvertedWeights(double[] weights) {
+        double sum = Arrays.stream(weights).sum();
+        double[] invertedWeights = new double[weights.length];
+
+        for (int i = 0; i < weights.length; i++) {
+            invertedWeights[i] = 1 - (weights[i] / sum);
+        }
+
+        return new CumulativeSampler(invertedWeights, accumulate(invertedWeights));
+    }
+
+    @Override
+    public int sample(RandomUtil rng) {
+        double selectionValue = rng.nextDouble() * this.sum;
+
+        // first index whose cumulative weight is greater than or equal to the selection value
+        int low = 0;
+        int high = this.cumulativeWeights.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (this.cumulativeWeights[middle] < selectionValue) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        if (low == this.cumulativeWeights.length) {
+            throw new IllegalArgumentException("Failed to select a random element with the selection value " + selectionValue);
+        }
+
+        return low;
+    }
+
+    @Override
+    public int size() {
+        return this.cumulativeWeights.length;
+    }
+
+    /* ### Helper Methods ### */
+
+    /**
+     * Replaces the weights by their cumulative sums
+     *
+     * @return the sum of the weights (calculated like {@link java.util.stream.DoubleStream#sum()})
+     */
+    private static double accumulate(double[] weights) {
+        double sum = Arrays.stream(weights).sum();
+
+        for (int i = 1; i < weights.length; i++) {
+            weights[i] += weights[i - 1];
+        }
+
+        return sum;
+    }
+}
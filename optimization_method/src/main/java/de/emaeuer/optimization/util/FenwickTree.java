@@ -0,0 +1,85 @@
+package de.emaeuer.optimization.util;
+
+import java.util.Arrays;
+
+/**
+ * Binary indexed tree over non-negative weights. Supports changing single weights and selecting an element
+ * proportionally to its weight in O(log n).
+ */
+public class FenwickTree {
+
+    private final double[] values;
+    // tree[i] (1-based) holds the sum of the values (i - lowestOneBit(i), i]
+    private final double[] tree;
+
+    public FenwickTree(double[] values) {
+        this.values = Arrays.copyOf(values, values.length);
+        this.tree = new double[values.length + 1];
+
+        // linear time construction
+        for (int i = 1; i <= values.length; i++) {
+            this.tree[i] += values[i - 1];
+            int parent = i + Integer.lowestOneBit(i);
+            if (parent <= values.length) {
+                this.tree[parent] += this.tree[i];
+            }
+        }
+    }
+
+    public int size() {
+        return this.values.length;
+    }
+
+    public double get(int index) {
+        return this.values[index];
+    }
+
+    public void set(int index, double value) {
+        double delta = value - this.values[index];
+        this.values[index] = value;
+
+        for (int i = index + 1; i < this.tree.length; i += Integer.lowestOneBit(i)) {
+            this.tree[i] += delta;
+        }
+    }
+
+    /**
+     * @return the sum of the first n values
+     */
+    public double getPrefixSum(int n) {
+        double sum = 0;
+        for (int i = n; i > 0; i -= Integer.lowestOneBit(i)) {
+            sum += this.tree[i];
+        }
+        return sum;
+    }
+
+    public double getTotal() {
+        return getPrefixSum(this.values.length);
+    }
+
+    /**
+     * @param target value in [0, total)
+     * @return the smallest index whose prefix sum (including the value at the index) is greater than the target
+     */
+    public int find(double target) {
+        int position = 0;
+        double remaining = target;
+
+        for (int step = Integer.highestOneBit(Math.max(1, this.values.length)); step > 0; step >>= 1) {
+            int next = position + step;
+            if (next < this.tree.length && this.tree[next] <= remaining) {
+                position = next;
+                remaining -= this.tree[next];
+            }
+        }
+
+        // rounding errors may result in a position without weight --> use the last positive value before
+        position = Math.min(position, this.values.length - 1);
+        while (position > 0 && this.values[position] <= 0) {
+            position--;
+        }
+
+        return position;
+    }
+}
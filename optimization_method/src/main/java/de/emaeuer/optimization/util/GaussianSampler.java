@@ -0,0 +1,110 @@
+package de.emaeuer.optimization.util;
+
+import org.apache.commons.math3.special.Erf;
+
+import java.util.SplittableRandom;
+
+/**
+ * Allocation free sampling of standard normal distributed values with the ziggurat method of Marsaglia and Tsang
+ * (128 layers) and of truncated standard normal distributed values by inversion of the distribution function.
+ */
+final class GaussianSampler {
+
+    private static final int NUMBER_OF_LAYERS = 128;
+    private static final double TAIL_START = 3.442619855899;
+    private static final double LAYER_VOLUME = 9.91256303526217e-3;
+    private static final double INTEGER_RANGE = 2147483648.0;
+
+    private static final double SQRT_2 = Math.sqrt(2);
+
+    private static final long[] LAYER_THRESHOLDS = new long[NUMBER_OF_LAYERS];
+    private static final double[] LAYER_WIDTHS = new double[NUMBER_OF_LAYERS];
+    private static final double[] LAYER_DENSITIES = new double[NUMBER_OF_LAYERS];
+
+    static {
+        double current = TAIL_START;
+        double previous = TAIL_START;
+        double q = LAYER_VOLUME / Math.exp(-0.5 * current * current);
+
+        LAYER_THRESHOLDS[0] = (long) ((current / q) * INTEGER_RANGE);
+        LAYER_THRESHOLDS[1] = 0;
+
+        LAYER_WIDTHS[0] = q / INTEGER_RANGE;
+        LAYER_WIDTHS[NUMBER_OF_LAYERS - 1] = current / INTEGER_RANGE;
+
+        LAYER_DENSITIES[0] = 1;
+        LAYER_DENSITIES[NUMBER_OF_LAYERS - 1] = Math.exp(-0.5 * current * current);
+
+        for (int i = NUMBER_OF_LAYERS - 2; i >= 1; i--) {
+            current = Math.sqrt(-2 * Math.log(LAYER_VOLUME / current + Math.exp(-0.5 * current * current)));
+            LAYER_THRESHOLDS[i + 1] = (long) ((current / previous) * INTEGER_RANGE);
+            previous = current;
+            LAYER_DENSITIES[i] = Math.exp(-0.5 * current * current);
+            LAYER_WIDTHS[i] = current / INTEGER_RANGE;
+        }
+    }
+
+    private GaussianSampler() {}
+
+    static double nextStandardNormal(SplittableRandom rng) {
+        while (true) {
+            // the layer and the value use different bits of the random number
+            long bits = rng.nextLong();
+            int layer = (int) (bits & (NUMBER_OF_LAYERS - 1));
+            int value = (int) (bits >> 32);
+
+            double x = value * LAYER_WIDTHS[layer];
+
+            if (Math.abs((long) value) < LAYER_THRESHOLDS[layer]) {
+                // the value is inside of the rectangle of the layer (most common case)
+                return x;
+            } else if (layer == 0) {
+                return sampleTail(rng, value > 0);
+            } else if (LAYER_DENSITIES[layer] + rng.nextDouble() * (LAYER_DENSITIES[layer - 1] - LAYER_DENSITIES[layer]) < Math.exp(-0.5 * x * x)) {
+                // the value is under the curve of the density function
+                return x;
+            }
+        }
+    }
+
+    /**
+     * Samples a standard normal distributed value in the interval [lower, upper] without rejection
+     */
+    static double nextTruncatedStandardNormal(SplittableRandom rng, double lower, double upper) {
+        if (lower > 0) {
+            // the distribution function is more precise for negative values
+            return -nextTruncatedStandardNormal(rng, -upper, -lower);
+        }
+
+        double lowerProbability = cumulativeProbability(lower);
+        double upperProbability = cumulativeProbability(upper);
+
+        double probability = lowerProbability + rng.nextDouble() * (upperProbability - lowerProbability);
+        double value = inverseCumulativeProbability(probability);
+
+        // rounding errors may result in values slightly outside of the interval
+        return Math.max(lower, Math.min(upper, value));
+    }
+
+    /* ### Helper Methods ### */
+
+    private static double sampleTail(SplittableRandom rng, boolean positive) {
+        double x;
+        double y;
+
+        do {
+            x = -Math.log(1 - rng.nextDouble()) / TAIL_START;
+            y = -Math.log(1 - rng.nextDouble());
+        } while (y + y < x * x);
+
+        return positive ? TAIL_START + x : -TAIL_START - x;
+    }
+
+    private static double cumulativeProbability(double x) {
+        return 0.5 * Erf.erfc(-x / SQRT_2);
+    }
+
+    private static double inverseCumulativeProbability(double probability) {
+        return SQRT_2 * Erf.erfInv(2 * probability - 1);
+    }
+}
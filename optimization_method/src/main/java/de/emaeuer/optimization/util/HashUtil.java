@@ -0,0 +1,19 @@
+package de.emaeuer.optimization.util;
+
+final class HashUtil {
+
+    private HashUtil() {}
+
+    /**
+     * Spreads the bits of the key (finalizer of splitmix64) because packed keys differ mostly in the lower bits
+     */
+    static int mix(long key) {
+        return (int) mixToLong(key);
+    }
+
+    static long mixToLong(long key) {
+        key = (key ^ (key >>> 30)) * 0xbf58476d1ce4e5b9L;
+        key = (key ^ (key >>> 27)) * 0x94d049bb133111ebL;
+        return key ^ (key >>> 31);
+    }
+}
@@ -0,0 +1,155 @@
+package de.emaeuer.optimization.util;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map (linear probing) from primitive long keys to primitive long values. Avoids boxing and the
+ * entry objects of {@link java.util.HashMap} for frequently accessed mappings.
+ */
+public class LongLongHashMap {
+
+    @FunctionalInterface
+    public interface LongLongConsumer {
+        void accept(long key, long value);
+    }
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final double LOAD_FACTOR = 0.5;
+
+    private long[] keys;
+    private long[] values;
+    private boolean[] occupied;
+
+    private int size = 0;
+
+    public LongLongHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongLongHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(DEFAULT_CAPACITY, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        this.keys = new long[capacity];
+        this.values = new long[capacity];
+        this.occupied = new boolean[capacity];
+    }
+
+    private LongLongHashMap(LongLongHashMap other) {
+        this.keys = Arrays.copyOf(other.keys, other.keys.length);
+        this.values = Arrays.copyOf(other.values, other.values.length);
+        this.occupied = Arrays.copyOf(other.occupied, other.occupied.length);
+        this.size = other.size;
+    }
+
+    public LongLongHashMap copy() {
+        return new LongLongHashMap(this);
+    }
+
+    /**
+     * @return the value of the key or the default value if the key is not contained
+     */
+    public long get(long key, long defaultValue) {
+        int slot = findSlot(key);
+        return this.occupied[slot] ? this.values[slot] : defaultValue;
+    }
+
+    public boolean containsKey(long key) {
+        return this.occupied[findSlot(key)];
+    }
+
+    public void put(long key, long value) {
+        int slot = findSlot(key);
+
+        if (!this.occupied[slot]) {
+            this.occupied[slot] = true;
+            this.keys[slot] = key;
+            this.size++;
+        }
+        this.values[slot] = value;
+
+        if (this.size > this.keys.length * LOAD_FACTOR) {
+            resize(this.keys.length << 1);
+        }
+    }
+
+    public boolean remove(long key) {
+        int slot = findSlot(key);
+
+        if (!this.occupied[slot]) {
+            return false;
+        }
+
+        this.occupied[slot] = false;
+        this.size--;
+        closeGap(slot);
+        return true;
+    }
+
+    public void forEach(LongLongConsumer consumer) {
+        for (int i = 0; i < this.keys.length; i++) {
+            if (this.occupied[i]) {
+                consumer.accept(this.keys[i], this.values[i]);
+            }
+        }
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /* ### Helper Methods ### */
+
+    private int findSlot(long key) {
+        int mask = this.keys.length - 1;
+        int slot = HashUtil.mix(key) & mask;
+
+        while (this.occupied[slot] && this.keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+
+        return slot;
+    }
+
+    /**
+     * Moves the following entries of the probe sequence back to keep them reachable after a removal (no tombstones)
+     */
+    private void closeGap(int gap) {
+        int mask = this.keys.length - 1;
+        int slot = (gap + 1) & mask;
+
+        while (this.occupied[slot]) {
+            int home = HashUtil.mix(this.keys[slot]) & mask;
+            // entry can be moved if its home slot is not between the gap and the current slot (cyclic)
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                this.keys[gap] = this.keys[slot];
+                this.values[gap] = this.values[slot];
+                this.occupied[gap] = true;
+                this.occupied[slot] = false;
+                gap = slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = this.keys;
+        long[] oldValues = this.values;
+        boolean[] oldOccupied = this.occupied;
+
+        this.keys = new long[capacity];
+        this.values = new long[capacity];
+        this.occupied = new boolean[capacity];
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldOccupied[i]) {
+                int slot = findSlot(oldKeys[i]);
+                this.occupied[slot] = true;
+                this.keys[slot] = oldKeys[i];
+                this.values[slot] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package de.emaeuer.optimization.util;
+
+import java.util.Objects;
+
+/**
+ * Open addressing hash map (linear probing) from primitive long keys to non null objects. Avoids boxing of the keys and
+ * the entry objects of {@link java.util.HashMap} for frequently accessed mappings.
+ *
+ * @param <V> type of the values
+ */
+public class LongObjectHashMap<V> {
+
+    @FunctionalInterface
+    public interface LongObjectConsumer<V> {
+        void accept(long key, V value);
+    }
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final double LOAD_FACTOR = 0.5;
+
+    private long[] keys = new long[DEFAULT_CAPACITY];
+    // a slot is occupied if its value is not null
+    private Object[] values = new Object[DEFAULT_CAPACITY];
+
+    private int size = 0;
+
+    /**
+     * @return the value of the key or null if the key is not contained
+     */
+    public V get(long key) {
+        //noinspection unchecked only values of type V are inserted
+        return (V) this.values[findSlot(key)];
+    }
+
+    /**
+     * @return the previous value of the key or null if the key was not contained
+     */
+    public V put(long key, V value) {
+        Objects.requireNonNull(value);
+        int slot = findSlot(key);
+
+        //noinspection unchecked only values of type V are inserted
+        V oldValue = (V) this.values[slot];
+        this.keys[slot] = key;
+        this.values[slot] = value;
+
+        if (oldValue == null && ++this.size > this.keys.length * LOAD_FACTOR) {
+            resize(this.keys.length << 1);
+        }
+
+        return oldValue;
+    }
+
+    /**
+     * @return the removed value or null if the key was not contained
+     */
+    public V remove(long key) {
+        int slot = findSlot(key);
+
+        //noinspection unchecked only values of type V are inserted
+        V oldValue = (V) this.values[slot];
+
+        if (oldValue != null) {
+            this.values[slot] = null;
+            this.size--;
+            closeGap(slot);
+        }
+
+        return oldValue;
+    }
+
+    public void forEach(LongObjectConsumer<? super V> consumer) {
+        for (int i = 0; i < this.keys.length; i++) {
+            if (this.values[i] != null) {
+                //noinspection unchecked only values of type V are inserted
+                consumer.accept(this.keys[i], (V) this.values[i]);
+            }
+        }
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /* ### Helper Methods ### */
+
+    private int findSlot(long key) {
+        int mask = this.keys.length - 1;
+        int slot = HashUtil.mix(key) & mask;
+
+        while (this.values[slot] != null && this.keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+
+        return slot;
+    }
+
+    /**
+     * Moves the following entries of the probe sequence back to keep them reachable after a removal (no tombstones)
+     */
+    private void closeGap(int gap) {
+        int mask = this.keys.length - 1;
+        int slot = (gap + 1) & mask;
+
+        while (this.values[slot] != null) {
+            int home = HashUtil.mix(this.keys[slot]) & mask;
+            // entry can be moved if its home slot is not between the gap and the current slot (cyclic)
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                this.keys[gap] = this.keys[slot];
+                this.values[gap] = this.values[slot];
+                this.values[slot] = null;
+                gap = slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = this.keys;
+        Object[] oldValues = this.values;
+
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = findSlot(oldKeys[i]);
+                this.keys[slot] = oldKeys[i];
+                this.values[slot] = oldValues[i];
+            }
+        }
+    }
+}
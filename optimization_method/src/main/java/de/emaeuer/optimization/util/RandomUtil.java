@@ -1,26 +1,75 @@
 package de.emaeuer.optimization.util;
 
-import org.apache.commons.math3.distribution.NormalDistribution;
 import org.apache.commons.math3.linear.RealVector;
 import org.apache.commons.math3.random.JDKRandomGenerator;
 
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.SplittableRandom;
 
+/**
+ * Random generator of the optimization and the environments. By default it is based on a {@link SplittableRandom} and
+ * samples normal distributed values with the ziggurat method. The seed compatible mode uses the generator of previous
+ * versions and reproduces their random numbers for the same seed.
+ */
 public class RandomUtil {
 
-    private final int seed;
-    private final JDKRandomGenerator rng;
+    private final long seed;
+    private final boolean seedCompatible;
 
+    // exactly one of both generators is used depending on the mode
+    private final JDKRandomGenerator compatibleRng;
+    private SplittableRandom rng;
+
+    /**
+     * Creates a seed compatible random generator
+     */
     public RandomUtil(int seed) {
+        this(seed, true);
+    }
+
+    public RandomUtil(long seed, boolean seedCompatible) {
         this.seed = seed;
-        this.rng = new JDKRandomGenerator(seed);
+        this.seedCompatible = seedCompatible;
+
+        if (seedCompatible) {
+            this.compatibleRng = new JDKRandomGenerator((int) seed);
+        } else {
+            this.compatibleRng = null;
+            this.rng = new SplittableRandom(seed);
+        }
+    }
+
+    /**
+     * Creates an independent child generator with the same mode. The child only depends on the current state of this
+     * generator which is advanced by one step.
+     */
+    public RandomUtil split() {
+        if (this.seedCompatible) {
+            return new RandomUtil(getNextInt(), true);
+        }
+        return new RandomUtil(this.rng.nextLong(), false);
+    }
+
+    /**
+     * Creates an independent generator with the same mode whose seed only depends on the seed of this generator and the
+     * index of the stream. The state of this generator is not changed.
+     */
+    public RandomUtil createStream(long index) {
+        if (this.seedCompatible) {
+            return new RandomUtil(HashUtil.mix((int) this.seed * 0x9e3779b97f4a7c15L + index), true);
+        }
+        return new RandomUtil(HashUtil.mixToLong(this.seed * 0x9e3779b97f4a7c15L + index), false);
+    }
+
+    public boolean isSeedCompatible() {
+        return this.seedCompatible;
     }
 
     public int selectRandomElementFromVector(int[] vector) {
         int sum = Arrays.stream(vector).sum();
-        int selectionValue = this.rng.nextInt(sum) + 1;
+        int selectionValue = nextInt(sum) + 1;
         int cumulatedSum = 0;
 
         for (int i = 0; i < vector.length; i++) {
@@ -39,7 +88,7 @@ public class RandomUtil {
 
     public int selectRandomElementFromVector(double[] vector) {
         double sum = Arrays.stream(vector).sum();
-        double selectionValue = this.rng.nextDouble() * sum;
+        double selectionValue = nextDouble() * sum;
         double cumulatedSum = 0;
 
         for (int i = 0; i < vector.length; i++) {
@@ -66,36 +115,81 @@ public class RandomUtil {
     public double getNormalDistributedValue(double mean, double deviation) {
         if (deviation <= 0) {
             return mean;
+        } else if (this.seedCompatible) {
+            // same calculation as NormalDistribution#sample() without creating a distribution object
+            return deviation * this.compatibleRng.nextGaussian() + mean;
         }
-        return new NormalDistribution(this.rng, mean, deviation).sample();
+        return deviation * GaussianSampler.nextStandardNormal(this.rng) + mean;
+    }
+
+    /**
+     * Samples a normal distributed value in the interval [min, max]. The seed compatible mode repeats the sampling until
+     * the value is inside of the interval, otherwise the value is sampled directly from the truncated distribution.
+     */
+    public double getTruncatedNormalDistributedValue(double mean, double deviation, double min, double max) {
+        if (min > max) {
+            throw new IllegalArgumentException(String.format("The interval [%f, %f] is empty", min, max));
+        } else if (deviation <= 0) {
+            return Math.max(min, Math.min(max, mean));
+        } else if (this.seedCompatible) {
+            double value;
+            do {
+                value = getNormalDistributedValue(mean, deviation);
+            } while (value < min || value > max);
+            return value;
+        }
+
+        return deviation * GaussianSampler.nextTruncatedStandardNormal(this.rng, (min - mean) / deviation, (max - mean) / deviation) + mean;
     }
 
     public int getNextInt() {
-        return this.rng.nextInt();
+        return this.seedCompatible ? this.compatibleRng.nextInt() : this.rng.nextInt();
     }
 
     public int getNextInt(int min, int max) {
-        return this.rng.nextInt(max - min) + min;
+        return nextInt(max - min) + min;
     }
 
     public double getNextDouble(double min, double max) {
-        return this.rng.nextDouble() * (max - min) + min;
+        return nextDouble() * (max - min) + min;
     }
 
     public double nextDouble() {
-        return this.rng.nextDouble();
+        return this.seedCompatible ? this.compatibleRng.nextDouble() : this.rng.nextDouble();
     }
 
     public void reset() {
-        this.rng.setSeed(this.seed);
+        reset(this.seed);
     }
 
     public void reset(int seed) {
-        this.rng.setSeed(seed);
+        reset((long) seed);
+    }
+
+    private void reset(long seed) {
+        if (this.seedCompatible) {
+            this.compatibleRng.setSeed((int) seed);
+        } else {
+            this.rng = new SplittableRandom(seed);
+        }
     }
 
     public void shuffleCollection(List<?> shuffledInput) {
-        Collections.shuffle(shuffledInput, this.rng);
+        if (this.seedCompatible) {
+            Collections.shuffle(shuffledInput, this.compatibleRng);
+            return;
+        }
+
+        // same algorithm as Collections#shuffle(List, Random)
+        for (int i = shuffledInput.size(); i > 1; i--) {
+            Collections.swap(shuffledInput, i - 1, this.rng.nextInt(i));
+        }
+    }
+
+    /* ### Helper Methods ### */
+
+    private int nextInt(int bound) {
+        return this.seedCompatible ? this.compatibleRng.nextInt(bound) : this.rng.nextInt(bound);
     }
 
 }
@@ -0,0 +1,149 @@
+package de.emaeuer.optimization.util;
+
+import java.util.*;
+
+/**
+ * Collection which keeps its elements sorted by a comparator and supports access by rank. Elements are inserted by
+ * binary search into a sorted array, equal elements keep the order of their insertion (like a stable sort). The
+ * values which are used by the comparator must not change while an element is contained.
+ */
+public class RankedList<T> extends AbstractCollection<T> {
+
+    private final Comparator<? super T> comparator;
+    private final List<T> elements = new ArrayList<>();
+
+    public RankedList(Comparator<? super T> comparator) {
+        this.comparator = comparator;
+    }
+
+    public RankedList(Comparator<? super T> comparator, Collection<? extends T> elements) {
+        this(comparator);
+        elements.forEach(this::add);
+    }
+
+    @Override
+    public boolean add(T element) {
+        this.elements.add(upperBound(element), element);
+        return true;
+    }
+
+    /**
+     * Removes the element if it is contained (elements are compared by identity)
+     */
+    @Override
+    public boolean remove(Object element) {
+        int index = indexOf(element);
+        if (index < 0) {
+            return false;
+        }
+
+        this.elements.remove(index);
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object element) {
+        return indexOf(element) >= 0;
+    }
+
+    /**
+     * Returns the rank of the element or -1 if it isn't contained
+     */
+    @SuppressWarnings("unchecked")
+    public int indexOf(Object element) {
+        try {
+            T value = (T) element;
+            // only the elements which are equal according to the comparator have to be checked
+            for (int i = lowerBound(value); i < this.elements.size() && this.comparator.compare(this.elements.get(i), value) == 0; i++) {
+                if (this.elements.get(i) == element) {
+                    return i;
+                }
+            }
+        } catch (ClassCastException e) {
+            // element can't be contained because the comparator doesn't support its type
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the element with the given rank (0 is the first element of the order)
+     */
+    public T get(int rank) {
+        return this.elements.get(rank);
+    }
+
+    public T getFirst() {
+        return this.elements.isEmpty() ? null : this.elements.get(0);
+    }
+
+    public T getLast() {
+        return this.elements.isEmpty() ? null : this.elements.get(this.elements.size() - 1);
+    }
+
+    public T removeLast() {
+        return this.elements.isEmpty() ? null : this.elements.remove(this.elements.size() - 1);
+    }
+
+    @Override
+    public void clear() {
+        this.elements.clear();
+    }
+
+    @Override
+    public int size() {
+        return this.elements.size();
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return Collections.unmodifiableList(this.elements).iterator();
+    }
+
+    /**
+     * Returns an unmodifiable view of the elements in their order
+     */
+    public List<T> asList() {
+        return Collections.unmodifiableList(this.elements);
+    }
+
+    /* ### Helper Methods ### */
+
+    /**
+     * Index of the first element which isn't less than the value
+     */
+    private int lowerBound(T value) {
+        int low = 0;
+        int high = this.elements.size();
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (this.comparator.compare(this.elements.get(middle), value) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Index of the first element which is greater than the value
+     */
+    private int upperBound(T value) {
+        int low = 0;
+        int high = this.elements.size();
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (this.comparator.compare(this.elements.get(middle), value) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+}
@@ -0,0 +1,20 @@
+package de.emaeuer.optimization.util;
+
+/**
+ * Selects indices proportionally to non-negative weights. The weights are prepared once, so sampling doesn't allocate
+ * memory.
+ */
+public interface WeightedSampler {
+
+    int sample(RandomUtil rng);
+
+    int size();
+
+    /**
+     * Creates a sampler for weights which don't change. The seed compatible mode uses cumulative weights to select the
+     * same indices as {@link RandomUtil#selectRandomElementFromVector(double[])}, otherwise an alias table is used.
+     */
+    static WeightedSampler forStaticWeights(double[] weights, boolean seedCompatible) {
+        return seedCompatible ? new CumulativeSampler(weights) : new AliasTable(weights);
+    }
+}
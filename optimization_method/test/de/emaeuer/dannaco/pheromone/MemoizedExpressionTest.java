@@ -0,0 +1,89 @@
+package de.emaeuer.dannaco.pheromone;
+
+import de.emaeuer.configuration.ConfigurationHandler;
+import de.emaeuer.configuration.value.CompiledExpression;
+import de.emaeuer.optimization.dannaco.configuration.DannacoConfiguration;
+import de.emaeuer.optimization.dannaco.configuration.DannacoParameter;
+import de.emaeuer.optimization.dannaco.pheromone.MemoizedExpression;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MemoizedExpressionTest {
+
+    private static final int POPULATION_SIZE = 10;
+
+    private CompiledExpression compile(DannacoConfiguration key, String expression) {
+        ConfigurationHandler<DannacoConfiguration> config = new ConfigurationHandler<>(DannacoConfiguration.class);
+        config.setValue(key, expression);
+        return config.getCompiledExpression(key);
+    }
+
+    private double[] createParameters(int numberOfValues, double otherValues) {
+        double[] parameters = new double[DannacoParameter.values().length];
+        for (DannacoParameter parameter : DannacoParameter.values()) {
+            parameters[parameter.ordinal()] = otherValues + parameter.ordinal();
+        }
+        parameters[DannacoParameter.POPULATION_SIZE.ordinal()] = POPULATION_SIZE;
+        parameters[DannacoParameter.NUMBER_OF_VALUES.ordinal()] = numberOfValues;
+        return parameters;
+    }
+
+    /*
+     ##########################################################
+     ##################### Test Methods #######################
+     ##########################################################
+    */
+
+    @Test
+    public void testTableEqualsEvaluation() {
+        // default expressions which only depend on the population size and the number of values
+        DannacoConfiguration[] keys = {DannacoConfiguration.TOPOLOGY_PHEROMONE, DannacoConfiguration.CONNECTION_PHEROMONE, DannacoConfiguration.NUMBER_OF_VALUES_PENALTY};
+
+        for (DannacoConfiguration key : keys) {
+            CompiledExpression expression = new ConfigurationHandler<>(DannacoConfiguration.class).getCompiledExpression(key);
+            MemoizedExpression memoized = new MemoizedExpression(expression, POPULATION_SIZE);
+
+            assertTrue(memoized.isTabulated(), key.name());
+            for (int n = 0; n <= POPULATION_SIZE; n++) {
+                double expected = expression.evaluate(memoized.createParameters(n));
+                assertEquals(expected, memoized.evaluate(n), 0, key.name());
+                // the other parameters are ignored by the expression
+                assertEquals(expected, memoized.evaluate(createParameters(n, 0.5)), 0, key.name());
+            }
+        }
+    }
+
+    @Test
+    public void testValuesBeyondPopulationSizeAreEvaluated() {
+        CompiledExpression expression = compile(DannacoConfiguration.CONNECTION_PHEROMONE, "0.75(n/k)^2+0.1");
+        MemoizedExpression memoized = new MemoizedExpression(expression, POPULATION_SIZE);
+
+        assertTrue(memoized.isTabulated());
+        for (int n = POPULATION_SIZE + 1; n < 3 * POPULATION_SIZE; n++) {
+            assertEquals(expression.evaluate(memoized.createParameters(n)), memoized.evaluate(n), 0);
+            assertEquals(expression.evaluate(memoized.createParameters(n)), memoized.evaluate(createParameters(n, 0)), 0);
+        }
+
+        assertEquals(expression.evaluate(memoized.createParameters(-1)), memoized.evaluate(-1), 0);
+    }
+
+    @Test
+    public void testExpressionsWithOtherParametersAreNotTabulated() {
+        // default expressions which depend on the sum of differences or the pheromone
+        DannacoConfiguration[] keys = {DannacoConfiguration.DEVIATION_FUNCTION, DannacoConfiguration.SPLIT_PROBABILITY};
+
+        for (DannacoConfiguration key : keys) {
+            CompiledExpression expression = new ConfigurationHandler<>(DannacoConfiguration.class).getCompiledExpression(key);
+            MemoizedExpression memoized = new MemoizedExpression(expression, POPULATION_SIZE);
+
+            assertFalse(memoized.isTabulated(), key.name());
+            for (int n = 0; n <= POPULATION_SIZE; n++) {
+                for (double otherValues : new double[]{0.25, 1, 3.5}) {
+                    double[] parameters = createParameters(n, otherValues);
+                    assertEquals(expression.evaluate(parameters), memoized.evaluate(parameters), 0, key.name());
+                }
+            }
+        }
+    }
+}
@@ -3,16 +3,25 @@ package de.emaeuer.dannaco.pheromone;
 import de.emaeuer.ann.NeuralNetwork;
 import de.emaeuer.ann.configuration.NeuralNetworkConfiguration;
 import de.emaeuer.ann.impl.neuron.based.NeuronBasedNeuralNetworkBuilder;
+import de.emaeuer.ann.util.NeuralNetworkUtil;
+import de.emaeuer.ann.util.NeuralNetworkUtil.Connection;
 import de.emaeuer.configuration.ConfigurationHandler;
 import de.emaeuer.optimization.dannaco.Ant;
 import de.emaeuer.optimization.dannaco.configuration.DannacoConfiguration;
+import de.emaeuer.optimization.dannaco.pheromone.Pheromone;
+import de.emaeuer.optimization.dannaco.population.AbstractPopulation;
+import de.emaeuer.optimization.dannaco.population.IslandModel;
+import de.emaeuer.optimization.dannaco.population.MigrationTopologies;
+import de.emaeuer.optimization.dannaco.population.PopulationUpdateStrategies;
 import de.emaeuer.optimization.dannaco.population.impl.AgeBasedPopulation;
 import de.emaeuer.optimization.dannaco.population.impl.FitnessBasedPopulation;
+import de.emaeuer.optimization.util.RandomUtil;
 import org.junit.jupiter.api.Test;
 
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -138,4 +147,419 @@ public class PopulationTest {
         assertTrue(ants.isEmpty());
     }
 
+    @Test
+    public void testFitnessBasedAdmissionThreshold() {
+        FitnessBasedPopulation population = new FitnessBasedPopulation(createConfiguration(3, false), createBaseNetwork(), null);
+
+        // every ant is admitted until the population is full
+        for (int i = 0; i < 3; i++) {
+            assertEquals(Double.NEGATIVE_INFINITY, population.getAdmissionThreshold());
+            population.addAnt(createAnt(i + 2));
+        }
+
+        assertEquals(2, population.getAdmissionThreshold());
+        assertFalse(population.addAnt(createAnt(population.getAdmissionThreshold())).isPresent());
+        assertTrue(population.addAnt(createAnt(3)).isPresent());
+        population.removeAnt();
+        assertEquals(3, population.getAdmissionThreshold());
+    }
+
+    @Test
+    public void testParallelConstructionIsIndependentOfThreads() throws Exception {
+        List<String> singleThreaded = constructAntsInParallel(1);
+        List<String> multiThreaded = constructAntsInParallel(4);
+
+        assertEquals(singleThreaded, multiThreaded);
+    }
+
+    private List<String> constructAntsInParallel(int numberOfThreads) throws Exception {
+        ConfigurationHandler<DannacoConfiguration> config = createConfiguration(5, false);
+        config.setValue(DannacoConfiguration.ANTS_PER_ITERATION, 20);
+        config.setValue(DannacoConfiguration.PARALLEL_CONSTRUCTION, true);
+
+        AgeBasedPopulation population = new AgeBasedPopulation(config, createBaseNetwork(), new RandomUtil(42));
+        List<String> constructedAnts = new ArrayList<>();
+
+        // parallel streams use the pool of the task which executes them
+        ForkJoinPool pool = new ForkJoinPool(numberOfThreads);
+        try {
+            for (int generation = 0; generation < 20; generation++) {
+                List<Ant> ants = pool.submit(population::nextGeneration).get();
+                for (int i = 0; i < ants.size(); i++) {
+                    Ant ant = ants.get(i);
+                    ant.setFitness((i * 7) % 11);
+                    constructedAnts.add(describeAnt(ant));
+                }
+                population.updatePheromone();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        return constructedAnts;
+    }
+
+    @Test
+    public void testSingleColonyIsEqualToPopulation() {
+        ConfigurationHandler<DannacoConfiguration> config = createConfiguration(5, false);
+        config.setValue(DannacoConfiguration.ANTS_PER_ITERATION, 20);
+
+        AgeBasedPopulation population = new AgeBasedPopulation(config, createBaseNetwork(), new RandomUtil(42));
+        IslandModel islandModel = new IslandModel(config, this::createBaseNetwork, new RandomUtil(42));
+
+        assertEquals(constructAnts(population::nextGeneration, population::updatePheromone),
+                constructAnts(islandModel::nextGeneration, islandModel::updatePheromone));
+    }
+
+    @Test
+    public void testIslandModelIsReproducible() {
+        assertEquals(constructAntsOfIslandModel(), constructAntsOfIslandModel());
+    }
+
+    private List<String> constructAntsOfIslandModel() {
+        ConfigurationHandler<DannacoConfiguration> config = createConfiguration(5, false);
+        config.setValue(DannacoConfiguration.ANTS_PER_ITERATION, 10);
+        config.setValue(DannacoConfiguration.NUMBER_OF_COLONIES, 3);
+        config.setValue(DannacoConfiguration.MIGRATION_INTERVAL, 2);
+        config.setValue(DannacoConfiguration.NUMBER_OF_MIGRANTS, 2);
+        config.setValue(DannacoConfiguration.MIGRATION_TOPOLOGY, MigrationTopologies.FULLY_CONNECTED.name());
+
+        IslandModel islandModel = new IslandModel(config, this::createBaseNetwork, new RandomUtil(42, false));
+        assertEquals(3, islandModel.getNumberOfColonies());
+
+        return constructAnts(() -> {
+            List<Ant> ants = islandModel.nextGeneration();
+            assertEquals(30, ants.size());
+            return ants;
+        }, islandModel::updatePheromone);
+    }
+
+    @Test
+    public void testRingMigrationSendsBestAntsToSuccessor() {
+        Map<Integer, List<Integer>> colonies = migrateBestAnts(MigrationTopologies.RING);
+
+        // colony i receives the best ants of colony i - 1
+        assertEquals(List.of(0, 2), colonies.get(0));
+        assertEquals(List.of(0, 1), colonies.get(1));
+        assertEquals(List.of(1, 2), colonies.get(2));
+    }
+
+    @Test
+    public void testFullyConnectedMigrationSendsBestAntsToAllColonies() {
+        Map<Integer, List<Integer>> colonies = migrateBestAnts(MigrationTopologies.FULLY_CONNECTED);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(List.of(0, 1, 2), colonies.get(i), "Failed for colony " + i);
+        }
+    }
+
+    /**
+     * Runs an island model of three colonies until the first migration. Only in the generation of the migration each
+     * colony constructs two ants which are better than all other ants.
+     *
+     * @return the colonies of the best ants in the pheromone of each colony after the migration (sorted)
+     */
+    private Map<Integer, List<Integer>> migrateBestAnts(MigrationTopologies topology) {
+        int antsPerColony = 10;
+        int migrationInterval = 3;
+
+        ConfigurationHandler<DannacoConfiguration> config = createConfiguration(6, false);
+        config.setValue(DannacoConfiguration.UPDATE_STRATEGY, PopulationUpdateStrategies.FITNESS.name());
+        config.setValue(DannacoConfiguration.ANTS_PER_ITERATION, antsPerColony);
+        config.setValue(DannacoConfiguration.NUMBER_OF_COLONIES, 3);
+        config.setValue(DannacoConfiguration.MIGRATION_INTERVAL, migrationInterval);
+        config.setValue(DannacoConfiguration.NUMBER_OF_MIGRANTS, 2);
+        config.setValue(DannacoConfiguration.MIGRATION_TOPOLOGY, topology.name());
+
+        IslandModel islandModel = new IslandModel(config, this::createBaseNetwork, new RandomUtil(42));
+        Map<Double, String> bestAnts = new HashMap<>();
+
+        for (int generation = 0; generation < migrationInterval; generation++) {
+            List<Ant> ants = islandModel.nextGeneration();
+            assertEquals(3 * antsPerColony, ants.size());
+
+            // the ants of the generation are ordered by their colony
+            for (int i = 0; i < ants.size(); i++) {
+                Ant ant = ants.get(i);
+                int colony = i / antsPerColony;
+                int index = i % antsPerColony;
+
+                if (generation == migrationInterval - 1 && index < 2) {
+                    ant.setFitness(100 + 10 * colony + index);
+                    bestAnts.put(ant.getFitness(), describeConnections(ant));
+                } else {
+                    ant.setFitness(index);
+                }
+            }
+
+            // nothing is migrated before the last update
+            for (AbstractPopulation<?> colony : islandModel.getColonies()) {
+                assertTrue(colony.getPheromone().getBestSolutions(6).stream().allMatch(a -> a.getFitness() < 100 || bestAnts.containsKey(a.getFitness())));
+            }
+            islandModel.updatePheromone();
+        }
+
+        Map<Integer, List<Integer>> coloniesOfBestAnts = new HashMap<>();
+        for (int i = 0; i < 3; i++) {
+            Set<Integer> origins = new TreeSet<>();
+            for (Ant ant : islandModel.getColonies().get(i).getPheromone().getBestSolutions(6)) {
+                if (ant.getFitness() >= 100) {
+                    // the immigrant is a copy of the emigrated ant
+                    assertEquals(bestAnts.get(ant.getFitness()), describeConnections(ant));
+                    origins.add((int) (ant.getFitness() - 100) / 10);
+                }
+            }
+            coloniesOfBestAnts.put(i, new ArrayList<>(origins));
+        }
+        return coloniesOfBestAnts;
+    }
+
+    @Test
+    public void testImportedAntGetsNewTopologyGroup() {
+        InspectablePopulation population = new InspectablePopulation(createConfiguration(5, false), createBaseNetwork(), new RandomUtil(42));
+        Pheromone pheromone = population.getPheromone();
+        int numberOfGroups = pheromone.getNumberOfTopologyGroups();
+
+        Ant foreignAnt = createAntWithHiddenNeuron(5);
+        Ant firstImport = pheromone.importAnt(foreignAnt);
+        Ant secondImport = pheromone.importAnt(foreignAnt);
+
+        int firstGroup = firstImport.getTopologyData().getTopologyGroupID();
+        int secondGroup = secondImport.getTopologyData().getTopologyGroupID();
+        assertNotEquals(0, firstGroup);
+        assertNotEquals(firstGroup, secondGroup);
+        assertTrue(pheromone.containsTopologyGroup(firstGroup));
+        assertTrue(pheromone.containsTopologyGroup(secondGroup));
+        assertEquals(numberOfGroups + 2, pheromone.getNumberOfTopologyGroups());
+
+        // the import is a copy with the same connections and fitness
+        assertNotSame(foreignAnt.getNeuralNetwork(), firstImport.getNeuralNetwork());
+        assertEquals(describeConnections(foreignAnt), describeConnections(firstImport));
+        assertEquals(foreignAnt.getFitness(), firstImport.getFitness());
+
+        // an ant without hidden neurons keeps the root group
+        assertEquals(0, pheromone.importAnt(createAnt(5)).getTopologyData().getTopologyGroupID());
+    }
+
+    @Test
+    public void testGroupOfRejectedImmigrantIsCollected() {
+        FitnessBasedPopulation population = new FitnessBasedPopulation(createConfiguration(3, false), createBaseNetwork(), new RandomUtil(42));
+        for (int i = 0; i < 3; i++) {
+            Ant ant = createAnt(i + 2);
+            population.addAnt(ant);
+            population.getPheromone().addAnt(ant);
+        }
+
+        Pheromone pheromone = population.getPheromone();
+        pheromone.collectUnusedTopologyGroups();
+        int numberOfGroups = pheromone.getNumberOfTopologyGroups();
+
+        // the immigrant is worse than all ants of the population
+        population.addImmigrants(List.of(createAntWithHiddenNeuron(1)));
+        assertEquals(numberOfGroups + 1, pheromone.getNumberOfTopologyGroups());
+        pheromone.collectUnusedTopologyGroups();
+        assertEquals(numberOfGroups, pheromone.getNumberOfTopologyGroups());
+
+        // the group of an added immigrant remains
+        population.addImmigrants(List.of(createAntWithHiddenNeuron(10)));
+        pheromone.collectUnusedTopologyGroups();
+        assertEquals(numberOfGroups + 1, pheromone.getNumberOfTopologyGroups());
+    }
+
+    private Ant createAntWithHiddenNeuron(double fitness) {
+        NeuralNetwork network = createBaseNetwork();
+        Connection connection = NeuralNetworkUtil.iterateNeuralNetworkConnections(network).next();
+        network.modify().splitConnection(connection.start(), connection.end());
+        assertEquals(1, network.getNumberOfHiddenNeurons());
+
+        Ant ant = new Ant(network, 0);
+        ant.setFitness(fitness);
+        return ant;
+    }
+
+    @Test
+    public void testPipelinedConstructionIsReproducible() {
+        assertEquals(constructPipelinedAnts(), constructPipelinedAnts());
+    }
+
+    private List<String> constructPipelinedAnts() {
+        ConfigurationHandler<DannacoConfiguration> config = createConfiguration(5, false);
+        config.setValue(DannacoConfiguration.ANTS_PER_ITERATION, 10);
+        config.setValue(DannacoConfiguration.PIPELINED_CONSTRUCTION, true);
+
+        AgeBasedPopulation population = new AgeBasedPopulation(config, createBaseNetwork(), new RandomUtil(42));
+        return constructAnts(() -> {
+            List<Ant> ants = population.nextGeneration();
+            assertEquals(10, ants.size());
+            return ants;
+        }, population::updatePheromone);
+    }
+
+    @Test
+    public void testStalePipelinedAntsAreRebuilt() {
+        ConfigurationHandler<DannacoConfiguration> config = createConfiguration(5, false);
+        config.setValue(DannacoConfiguration.ANTS_PER_ITERATION, 10);
+        config.setValue(DannacoConfiguration.PIPELINED_CONSTRUCTION, true);
+
+        FitnessBasedPopulation population = new FitnessBasedPopulation(config, createBaseNetwork(), new RandomUtil(42));
+        assertFalse(population.hasUsablePipelinedAnts());
+
+        // the pipelined ants miss the update of the current generation on purpose
+        for (int generation = 0; generation < 3; generation++) {
+            evaluateAndUpdate(population.nextGeneration(), population, generation);
+            assertTrue(population.hasUsablePipelinedAnts(), "Failed in generation " + generation);
+        }
+
+        // an immigrant which isn't added doesn't change the pheromone
+        population.addImmigrants(List.of(createAnt(-1)));
+        assertTrue(population.hasUsablePipelinedAnts());
+
+        // an immigrant which is added changes the pheromone after the construction of the pipelined ants
+        population.addImmigrants(List.of(createAnt(100)));
+        assertFalse(population.hasUsablePipelinedAnts());
+
+        assertEquals(10, population.nextGeneration().size());
+        assertTrue(population.hasUsablePipelinedAnts());
+
+        population.discardPipelinedAnts();
+        assertFalse(population.hasUsablePipelinedAnts());
+        assertEquals(10, population.nextGeneration().size());
+    }
+
+    @Test
+    public void testPipelinedAntsAreRebuiltIfGenerationSizeChanges() {
+        ConfigurationHandler<DannacoConfiguration> config = createConfiguration(15, false);
+        config.setValue(DannacoConfiguration.ANTS_PER_ITERATION, 10);
+        config.setValue(DannacoConfiguration.PIPELINED_CONSTRUCTION, true);
+
+        FitnessBasedPopulation population = new FitnessBasedPopulation(config, createBaseNetwork(), new RandomUtil(42));
+
+        // the first generation fills the population, hence the pipelined generation is too large
+        List<Ant> ants = population.nextGeneration();
+        assertEquals(15, ants.size());
+        evaluateAndUpdate(ants, population, 0);
+        assertEquals(15, population.getSize());
+        assertFalse(population.hasUsablePipelinedAnts());
+
+        assertEquals(10, population.nextGeneration().size());
+        assertTrue(population.hasUsablePipelinedAnts());
+    }
+
+    private void evaluateAndUpdate(List<Ant> ants, FitnessBasedPopulation population, int generation) {
+        for (int i = 0; i < ants.size(); i++) {
+            ants.get(i).setFitness((i * 7 + generation) % 11);
+        }
+        population.updatePheromone();
+    }
+
+    private List<String> constructAnts(Supplier<List<Ant>> nextGeneration, Runnable update) {
+        List<String> constructedAnts = new ArrayList<>();
+
+        for (int generation = 0; generation < 20; generation++) {
+            List<Ant> ants = nextGeneration.get();
+            for (int i = 0; i < ants.size(); i++) {
+                Ant ant = ants.get(i);
+                ant.setFitness((i * 7 + generation) % 11);
+                constructedAnts.add(describeAnt(ant));
+            }
+            update.run();
+        }
+
+        return constructedAnts;
+    }
+
+    @Test
+    public void testUnusedTopologyGroupsAreCollected() {
+        ConfigurationHandler<DannacoConfiguration> config = createConfiguration(5, false);
+        config.setValue(DannacoConfiguration.ANTS_PER_ITERATION, 20);
+
+        InspectablePopulation population = new InspectablePopulation(config, createBaseNetwork(), new RandomUtil(42));
+        int maximalGroupID = 0;
+
+        for (int generation = 0; generation < 50; generation++) {
+            List<Ant> ants = population.nextGeneration();
+            for (int i = 0; i < ants.size(); i++) {
+                Ant ant = ants.get(i);
+                ant.setFitness((i * 7 + generation) % 11);
+                maximalGroupID = Math.max(maximalGroupID, ant.getTopologyData().getTopologyGroupID());
+            }
+            population.updatePheromone();
+
+            // only the root group and the groups of the population remain
+            population.getPheromone().collectUnusedTopologyGroups();
+            Set<Integer> usedGroups = population.getPopulation()
+                    .stream()
+                    .map(a -> a.getTopologyData().getTopologyGroupID())
+                    .collect(Collectors.toCollection(HashSet::new));
+            usedGroups.add(0);
+
+            assertEquals(usedGroups.size(), population.getPheromone().getNumberOfTopologyGroups());
+        }
+
+        assertTrue(maximalGroupID + 1 > population.getPheromone().getNumberOfTopologyGroups());
+    }
+
+    @Test
+    public void testSteadyStateKeepsGroupsOfEvaluatedAnts() {
+        ConfigurationHandler<DannacoConfiguration> config = createConfiguration(5, false);
+        config.setValue(DannacoConfiguration.ANTS_PER_ITERATION, 3);
+
+        InspectablePopulation population = new InspectablePopulation(config, createBaseNetwork(), new RandomUtil(42));
+        Deque<Ant> antsInEvaluation = new ArrayDeque<>();
+        int numberOfUpdates = 0;
+
+        for (int i = 0; i < 500; i++) {
+            while (antsInEvaluation.size() < 4) {
+                antsInEvaluation.add(population.nextAnt());
+            }
+
+            Ant ant = antsInEvaluation.poll();
+            ant.setFitness((i * 7) % 11);
+            if (population.addEvaluatedAnt(ant)) {
+                numberOfUpdates++;
+                // the first update fills the population, all further ones need the ants of an iteration
+                assertEquals(numberOfUpdates == 1 ? 5 : 3, population.getCurrentAnts().size());
+            }
+
+            // the groups of the ants in evaluation must survive the collection
+            Pheromone pheromone = population.getPheromone();
+            pheromone.collectUnusedTopologyGroups();
+            for (Ant antInEvaluation : antsInEvaluation) {
+                int groupID = antInEvaluation.getTopologyData().getTopologyGroupID();
+                assertTrue(pheromone.containsTopologyGroup(groupID), String.format("Group %d was collected in iteration %d", groupID, i));
+            }
+            population.getPopulation()
+                    .forEach(a -> assertTrue(pheromone.containsTopologyGroup(a.getTopologyData().getTopologyGroupID())));
+        }
+
+        assertEquals(1 + (500 - 5) / 3, numberOfUpdates);
+        assertEquals(5, population.getSize());
+    }
+
+    private static class InspectablePopulation extends AgeBasedPopulation {
+
+        public InspectablePopulation(ConfigurationHandler<DannacoConfiguration> configuration, NeuralNetwork baseNetwork, RandomUtil rng) {
+            super(configuration, baseNetwork, rng);
+        }
+
+        @Override
+        public LinkedList<Ant> getPopulation() {
+            return super.getPopulation();
+        }
+    }
+
+    private String describeConnections(Ant ant) {
+        StringBuilder description = new StringBuilder();
+        NeuralNetworkUtil.iterateNeuralNetworkConnections(ant.getNeuralNetwork())
+                .forEachRemaining(c -> description.append(';').append(c));
+        return description.toString();
+    }
+
+    private String describeAnt(Ant ant) {
+        StringBuilder description = new StringBuilder(Integer.toString(ant.getTopologyData().getTopologyGroupID()));
+        NeuralNetworkUtil.iterateNeuralNetworkConnections(ant.getNeuralNetwork())
+                .forEachRemaining(c -> description.append(';').append(c));
+        return description.toString();
+    }
+
 }
@@ -0,0 +1,58 @@
+package de.emaeuer.dannaco.pheromone;
+
+import de.emaeuer.optimization.dannaco.pheromone.WeightStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WeightStoreTest {
+
+    /*
+     ##########################################################
+     ##################### Test Methods #######################
+     ##########################################################
+    */
+
+    @Test
+    public void testStatisticsMatchRescan() {
+        WeightStore store = new WeightStore();
+        List<Double> reference = new ArrayList<>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 2000; i++) {
+            if (!reference.isEmpty() && random.nextInt(3) == 0) {
+                double value = reference.remove(random.nextInt(reference.size()));
+                assertTrue(store.remove(value));
+            } else {
+                // few distinct values to create duplicates
+                double value = random.nextInt(20) * 0.25 - 2.5;
+                reference.add(value);
+                store.add(value);
+            }
+
+            double point = random.nextDouble() * 6 - 3;
+            assertEquals(reference.size(), store.size());
+            assertEquals(reference.stream().mapToDouble(d -> d).average().orElse(0), store.getMean(), 1e-9);
+            assertEquals(reference.stream().mapToDouble(d -> Math.abs(point - d)).sum(), store.getSumOfDifferences(point), 1e-9);
+        }
+
+        assertArrayEquals(reference.stream().mapToDouble(d -> d).sorted().toArray(), store.toArray());
+    }
+
+    @Test
+    public void testRemoveMissingValue() {
+        WeightStore store = new WeightStore();
+        store.add(1);
+
+        assertFalse(store.remove(2));
+        assertTrue(store.remove(1));
+        assertFalse(store.remove(1));
+        assertTrue(store.isEmpty());
+        assertEquals(0, store.getSumOfDifferences(5));
+    }
+
+}
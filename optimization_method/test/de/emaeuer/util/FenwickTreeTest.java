@@ -0,0 +1,78 @@
+package de.emaeuer.util;
+
+import de.emaeuer.optimization.util.FenwickTree;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FenwickTreeTest {
+
+    /*
+     ##########################################################
+     ##################### Test Methods #######################
+     ##########################################################
+    */
+
+    @Test
+    public void testPrefixSums() {
+        double[] values = new double[37];
+        Random random = new Random(42);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextDouble();
+        }
+
+        FenwickTree tree = new FenwickTree(values);
+
+        // modify some values after the construction
+        for (int i = 0; i < 100; i++) {
+            int index = random.nextInt(values.length);
+            values[index] = random.nextInt(4) == 0 ? 0 : random.nextDouble();
+            tree.set(index, values[index]);
+        }
+
+        double sum = 0;
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(sum, tree.getPrefixSum(i), 1e-9);
+            assertEquals(values[i], tree.get(i));
+            sum += values[i];
+        }
+        assertEquals(sum, tree.getTotal(), 1e-9);
+    }
+
+    @Test
+    public void testFind() {
+        FenwickTree tree = new FenwickTree(new double[] {0.5, 0, 1.5, 0, 2, 0});
+
+        assertEquals(0, tree.find(0));
+        assertEquals(0, tree.find(0.49));
+        assertEquals(2, tree.find(0.5));
+        assertEquals(2, tree.find(1.99));
+        assertEquals(4, tree.find(2));
+        assertEquals(4, tree.find(3.99));
+
+        // rounding errors beyond the total select the last element with a weight
+        assertEquals(4, tree.find(4));
+
+        tree.set(4, 0);
+        assertEquals(2, tree.find(1.999999));
+    }
+
+    @Test
+    public void testFindIsProportional() {
+        double[] values = {1, 0, 3, 6};
+        FenwickTree tree = new FenwickTree(values);
+        Random random = new Random(42);
+
+        int[] counts = new int[values.length];
+        for (int i = 0; i < 100000; i++) {
+            counts[tree.find(random.nextDouble() * tree.getTotal())]++;
+        }
+
+        assertEquals(0, counts[1]);
+        assertEquals(0.1, counts[0] / 100000.0, 0.01);
+        assertEquals(0.3, counts[2] / 100000.0, 0.01);
+        assertEquals(0.6, counts[3] / 100000.0, 0.01);
+    }
+}
@@ -0,0 +1,76 @@
+package de.emaeuer.util;
+
+import de.emaeuer.optimization.util.LongLongHashMap;
+import de.emaeuer.optimization.util.LongObjectHashMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PrimitiveHashMapTest {
+
+    /*
+     ##########################################################
+     ##################### Test Methods #######################
+     ##########################################################
+    */
+
+    @Test
+    public void testLongLongHashMap() {
+        LongLongHashMap map = new LongLongHashMap();
+        Map<Long, Long> reference = new HashMap<>();
+        Random random = new Random(42);
+
+        // small key range to provoke collisions, overwrites and removals
+        for (int i = 0; i < 20000; i++) {
+            long key = random.nextInt(500) * 0x10000L;
+            if (random.nextInt(3) == 0) {
+                assertEquals(reference.remove(key) != null, map.remove(key));
+            } else {
+                reference.put(key, (long) i);
+                map.put(key, i);
+            }
+        }
+
+        assertEquals(reference.size(), map.size());
+        for (long key = 0; key < 500; key++) {
+            assertEquals(reference.getOrDefault(key * 0x10000L, -1L), map.get(key * 0x10000L, -1));
+            assertEquals(reference.containsKey(key * 0x10000L), map.containsKey(key * 0x10000L));
+        }
+
+        Map<Long, Long> content = new HashMap<>();
+        map.forEach(content::put);
+        assertEquals(reference, content);
+
+        // the copy is independent of the original
+        LongLongHashMap copy = map.copy();
+        copy.put(-5, 3);
+        assertFalse(map.containsKey(-5));
+        assertEquals(map.size() + 1, copy.size());
+    }
+
+    @Test
+    public void testLongObjectHashMap() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        Map<Long, String> reference = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 20000; i++) {
+            long key = random.nextInt(500);
+            if (random.nextInt(3) == 0) {
+                assertEquals(reference.remove(key), map.remove(key));
+            } else {
+                assertEquals(reference.put(key, Integer.toString(i)), map.put(key, Integer.toString(i)));
+            }
+        }
+
+        assertEquals(reference.size(), map.size());
+        Map<Long, String> content = new HashMap<>();
+        map.forEach(content::put);
+        assertEquals(reference, content);
+    }
+
+}
@@ -0,0 +1,109 @@
+package de.emaeuer.util;
+
+import de.emaeuer.optimization.util.RandomUtil;
+import org.apache.commons.math3.distribution.NormalDistribution;
+import org.apache.commons.math3.random.JDKRandomGenerator;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RandomUtilTest {
+
+    private static final int NUMBER_OF_SAMPLES = 200000;
+
+    /*
+     ##########################################################
+     ##################### Test Methods #######################
+     ##########################################################
+    */
+
+    @Test
+    public void testSeedCompatibleNormalDistribution() {
+        RandomUtil rng = new RandomUtil(42, true);
+        JDKRandomGenerator reference = new JDKRandomGenerator(42);
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(new NormalDistribution(reference, 0.5, 2).sample(), rng.getNormalDistributedValue(0.5, 2));
+        }
+    }
+
+    @Test
+    public void testStandardNormalDistribution() {
+        RandomUtil rng = new RandomUtil(42, false);
+        NormalDistribution reference = new NormalDistribution();
+
+        double[] quantiles = {-3.5, -2, -1, 0, 0.5, 1.5, 3.5};
+        int[] counts = new int[quantiles.length];
+        double sum = 0;
+        double sumOfSquares = 0;
+
+        for (int i = 0; i < NUMBER_OF_SAMPLES; i++) {
+            double value = rng.getNormalDistributedValue(0, 1);
+            sum += value;
+            sumOfSquares += value * value;
+            for (int j = 0; j < quantiles.length; j++) {
+                if (value <= quantiles[j]) {
+                    counts[j]++;
+                }
+            }
+        }
+
+        assertEquals(0, sum / NUMBER_OF_SAMPLES, 0.01);
+        assertEquals(1, sumOfSquares / NUMBER_OF_SAMPLES, 0.01);
+        for (int j = 0; j < quantiles.length; j++) {
+            assertEquals(reference.cumulativeProbability(quantiles[j]), counts[j] / (double) NUMBER_OF_SAMPLES, 0.005);
+        }
+    }
+
+    @Test
+    public void testTruncatedNormalDistribution() {
+        assertTruncatedMean(0.8, 0.5, -1, 1);
+        assertTruncatedMean(0, 3, -1, 1);
+        // interval in the upper tail
+        assertTruncatedMean(-1, 0.5, 0.5, 1);
+        // interval in the lower tail
+        assertTruncatedMean(2, 0.3, -1, 0);
+    }
+
+    @Test
+    public void testStreams() {
+        RandomUtil first = new RandomUtil(42, false);
+        RandomUtil second = new RandomUtil(42, false);
+
+        // streams only depend on the seed and the index
+        first.nextDouble();
+        assertEquals(first.createStream(3).nextDouble(), second.createStream(3).nextDouble());
+        assertNotEquals(first.createStream(3).nextDouble(), first.createStream(4).nextDouble());
+
+        // split children depend on the state of the parent
+        RandomUtil child = second.split();
+        assertNotEquals(child.nextDouble(), second.split().nextDouble());
+        assertFalse(child.isSeedCompatible());
+        assertTrue(new RandomUtil(42).split().isSeedCompatible());
+    }
+
+    /*
+     ##########################################################
+     #################### Helper Methods ######################
+     ##########################################################
+    */
+
+    private void assertTruncatedMean(double mean, double deviation, double min, double max) {
+        RandomUtil rng = new RandomUtil(42, false);
+        NormalDistribution standard = new NormalDistribution();
+
+        double sum = 0;
+        for (int i = 0; i < NUMBER_OF_SAMPLES; i++) {
+            double value = rng.getTruncatedNormalDistributedValue(mean, deviation, min, max);
+            assertTrue(value >= min && value <= max);
+            sum += value;
+        }
+
+        double alpha = (min - mean) / deviation;
+        double beta = (max - mean) / deviation;
+        double expectedMean = mean + deviation * (standard.density(alpha) - standard.density(beta))
+                / (standard.cumulativeProbability(beta) - standard.cumulativeProbability(alpha));
+
+        assertEquals(expectedMean, sum / NUMBER_OF_SAMPLES, 0.005 * (max - min));
+    }
+}
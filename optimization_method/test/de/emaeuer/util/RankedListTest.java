@@ -0,0 +1,80 @@
+package de.emaeuer.util;
+
+import de.emaeuer.optimization.util.RandomUtil;
+import de.emaeuer.optimization.util.RankedList;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RankedListTest {
+
+    private static record Element(int key, int id) {}
+
+    private static final Comparator<Element> BY_KEY = Comparator.comparingInt(Element::key);
+
+    /*
+     ##########################################################
+     ##################### Test Methods #######################
+     ##########################################################
+    */
+
+    @Test
+    public void testOrderIsEqualToStableSort() {
+        RandomUtil rng = new RandomUtil(42, false);
+        RankedList<Element> ranked = new RankedList<>(BY_KEY);
+        List<Element> reference = new ArrayList<>();
+
+        for (int i = 0; i < 1000; i++) {
+            Element element = new Element(rng.getNextInt(0, 20), i);
+            ranked.add(element);
+            reference.add(element);
+
+            // remove some elements to check that the order of the remaining ones is preserved
+            if (i % 3 == 0) {
+                Element removed = reference.remove(rng.getNextInt(0, reference.size()));
+                assertTrue(ranked.remove(removed));
+            }
+        }
+
+        reference.sort(BY_KEY);
+        assertEquals(reference, ranked.asList());
+        for (int i = 0; i < reference.size(); i++) {
+            assertSame(reference.get(i), ranked.get(i));
+        }
+    }
+
+    @Test
+    public void testElementsAreComparedByIdentity() {
+        RankedList<Element> ranked = new RankedList<>(BY_KEY);
+        Element first = new Element(1, 0);
+        Element equal = new Element(1, 0);
+
+        ranked.add(first);
+
+        assertTrue(ranked.contains(first));
+        assertFalse(ranked.contains(equal));
+        assertFalse(ranked.remove(equal));
+        assertEquals(0, ranked.indexOf(first));
+    }
+
+    @Test
+    public void testFirstAndLast() {
+        RankedList<Element> ranked = new RankedList<>(BY_KEY.reversed());
+        assertNull(ranked.getFirst());
+        assertNull(ranked.removeLast());
+
+        Element low = new Element(1, 0);
+        Element high = new Element(5, 1);
+        ranked.add(low);
+        ranked.add(high);
+
+        assertSame(high, ranked.getFirst());
+        assertSame(low, ranked.getLast());
+        assertSame(low, ranked.removeLast());
+        assertEquals(1, ranked.size());
+    }
+}
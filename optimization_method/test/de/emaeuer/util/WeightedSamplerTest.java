@@ -0,0 +1,69 @@
+package de.emaeuer.util;
+
+import de.emaeuer.optimization.util.AliasTable;
+import de.emaeuer.optimization.util.CumulativeSampler;
+import de.emaeuer.optimization.util.RandomUtil;
+import de.emaeuer.optimization.util.WeightedSampler;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WeightedSamplerTest {
+
+    private static final double[] WEIGHTS = {0.1, 0, 2.5, 0.4, 1, 0, 3};
+
+    /*
+     ##########################################################
+     ##################### Test Methods #######################
+     ##########################################################
+    */
+
+    @Test
+    public void testCumulativeSamplerIsCompatible() {
+        RandomUtil rng = new RandomUtil(42);
+        RandomUtil reference = new RandomUtil(42);
+
+        CumulativeSampler sampler = new CumulativeSampler(WEIGHTS);
+        CumulativeSampler invertedSampler = CumulativeSampler.ofInvertedWeights(WEIGHTS);
+
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(reference.selectRandomElementFromVector(WEIGHTS), sampler.sample(rng));
+            assertEquals(reference.selectRandomElementFromVector(WEIGHTS, true), invertedSampler.sample(rng));
+        }
+    }
+
+    @Test
+    public void testAliasTable() {
+        assertProportionalSelection(new AliasTable(WEIGHTS));
+        assertEquals(0, new AliasTable(new double[] {5}).sample(new RandomUtil(42, false)));
+        assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[] {0, 0}));
+        assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[] {1, -1}));
+    }
+
+    @Test
+    public void testStaticWeights() {
+        assertTrue(WeightedSampler.forStaticWeights(WEIGHTS, true) instanceof CumulativeSampler);
+        assertProportionalSelection(WeightedSampler.forStaticWeights(WEIGHTS, false));
+    }
+
+    /*
+     ##########################################################
+     #################### Helper Methods ######################
+     ##########################################################
+    */
+
+    private void assertProportionalSelection(WeightedSampler sampler) {
+        RandomUtil rng = new RandomUtil(42, false);
+        int numberOfSamples = 200000;
+        int[] counts = new int[WEIGHTS.length];
+
+        for (int i = 0; i < numberOfSamples; i++) {
+            counts[sampler.sample(rng)]++;
+        }
+
+        double sum = 7;
+        for (int i = 0; i < WEIGHTS.length; i++) {
+            assertEquals(WEIGHTS[i] / sum, counts[i] / (double) numberOfSamples, 0.005);
+        }
+    }
+}
@@ -9,6 +9,7 @@ import de.emaeuer.optimization.util.RandomUtil;
 
 import java.util.*;
 import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 public abstract class AbstractEnvironment<T extends Enum<T> & DefaultConfiguration<T> & GeneralizationConfiguration<T>> {
 
@@ -19,6 +20,15 @@ public abstract class AbstractEnvironment<T extends Enum<T> & DefaultConfigurati
     private final List<AbstractElement> agentsToDraw = Collections.synchronizedList(new ArrayList<>());
 
     private final Map<AgentController, AgentController> originControllers = new IdentityHashMap<>();
+    // controllers whose agents finished since the last call of pollFinishedControllers
+    private final List<AgentController> finishedControllers = new ArrayList<>();
+
+    // racing: agents which can't exceed the threshold or the scores of the best finished agents are stopped
+    private double admissionThreshold = Double.NEGATIVE_INFINITY;
+    private int numberOfSelectableAgents = Integer.MAX_VALUE;
+    // the scores of the best finished agents (lowest first) which are at most the number of selectable agents
+    private final PriorityQueue<Double> bestFinishedScores = new PriorityQueue<>();
+    private final Set<AgentController> abortedControllers = Collections.newSetFromMap(new IdentityHashMap<>());
 
     private final BiConsumer<AbstractElement, AbstractEnvironment<T>> borderStrategy;
 
@@ -34,6 +44,13 @@ public abstract class AbstractEnvironment<T extends Enum<T> & DefaultConfigurati
 
     private final RandomUtil rng;
 
+    // agents which are evaluated by the same lockstep evaluator
+    private record LockstepBatch(LockstepEvaluator evaluator, List<LockstepAgent> agents, double[][] agentData) {}
+
+    private Function<List<AgentController>, LockstepEvaluator> lockstepEvaluatorFactory;
+    // the steady state evaluation adds one batch for each call of addControllers
+    private final List<LockstepBatch> lockstepBatches = new ArrayList<>();
+
     public AbstractEnvironment(BiConsumer<AbstractElement, AbstractEnvironment<T>> borderStrategy, ConfigurationHandler<EnvironmentConfiguration> configuration) {
         this.borderStrategy = borderStrategy;
         this.rng = new RandomUtil(configuration.getValue(EnvironmentConfiguration.SEED, Integer.class));
@@ -52,14 +69,207 @@ public abstract class AbstractEnvironment<T extends Enum<T> & DefaultConfigurati
         restart();
         this.agentControllers.addAll(controllers);
         initializeParticles(controllers);
+        addLockstepBatch(this.agentsToDraw);
+    }
+
+    /**
+     * Adds controllers to the running environment without restarting it (steady state evaluation). The agents of the
+     * new controllers start at the beginning while the other agents continue.
+     */
+    public void addControllers(List<AgentController> controllers) {
+        int numberOfElements = this.agentsToDraw.size();
+
+        this.agentControllers.addAll(controllers);
+        initializeParticles(controllers);
+
+        // the other agents continue with their lockstep evaluators
+        addLockstepBatch(new ArrayList<>(this.agentsToDraw.subList(numberOfElements, this.agentsToDraw.size())));
+        compactLockstepEvaluation();
+    }
+
+    /**
+     * Returns the controllers whose agents finished since the last call and removes them from the environment. Only
+     * environments which support the steady state evaluation report finished agents.
+     */
+    public List<AgentController> pollFinishedControllers() {
+        List<AgentController> finished = new ArrayList<>(this.finishedControllers);
+        this.finishedControllers.clear();
+
+        Set<AgentController> finishedSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        finishedSet.addAll(finished);
+        this.agentControllers.removeIf(finishedSet::contains);
+
+        return finished;
+    }
+
+    /**
+     * @return true if this environment reports each finished agent with {@link #controllerFinished(AgentController)}
+     * and supports new agents while others are still evaluated
+     */
+    public boolean supportsSteadyStateEvaluation() {
+        return false;
+    }
+
+    /**
+     * @return true if this environment can bound the score of an agent by its current state and stops hopeless agents
+     * with {@link #checkHopeless(AgentController, double)}
+     */
+    public boolean supportsRacing() {
+        return false;
+    }
+
+    /**
+     * @return true if an agent always reaches the same score with the same controller (the random generator of this
+     * environment is reset for each evaluation)
+     */
+    public boolean isDeterministic() {
+        return true;
+    }
+
+    protected void controllerFinished(AgentController controller) {
+        this.finishedControllers.add(controller);
+
+        if (this.numberOfSelectableAgents != Integer.MAX_VALUE && !this.abortedControllers.contains(controller)) {
+            this.bestFinishedScores.add(controller.getScore());
+            if (this.bestFinishedScores.size() > this.numberOfSelectableAgents) {
+                this.bestFinishedScores.poll();
+            }
+        }
+    }
+
+    /**
+     * Enables the racing of the agents. An agent is stopped if it can't exceed the admission threshold or if the
+     * number of selectable agents already finished with a higher score than it can reach.
+     *
+     * @param admissionThreshold score an agent must exceed to be selected
+     * @param numberOfSelectableAgents number of best agents which can at most be selected
+     */
+    public void setRacingThresholds(double admissionThreshold, int numberOfSelectableAgents) {
+        this.admissionThreshold = admissionThreshold;
+        this.numberOfSelectableAgents = numberOfSelectableAgents;
+        this.bestFinishedScores.clear();
+    }
+
+    /**
+     * Checks if the agent of the controller can't be selected any more and marks it as aborted in this case
+     *
+     * @param scoreUpperBound highest score the agent can reach if it continues
+     * @return true if the agent should be stopped
+     */
+    protected boolean checkHopeless(AgentController controller, double scoreUpperBound) {
+        if (isTestingGeneralization()) {
+            return false;
+        }
+
+        boolean isHopeless = scoreUpperBound < this.admissionThreshold;
+        if (this.bestFinishedScores.size() >= this.numberOfSelectableAgents) {
+            isHopeless |= scoreUpperBound < this.bestFinishedScores.peek();
+        }
+
+        if (isHopeless) {
+            this.abortedControllers.add(controller);
+        }
+        return isHopeless;
+    }
+
+    /**
+     * @return the controllers of the current agents which were stopped before their evaluation finished
+     */
+    public Set<AgentController> getAbortedControllers() {
+        return this.abortedControllers;
+    }
+
+    private void addLockstepBatch(List<AbstractElement> elements) {
+        if (this.lockstepEvaluatorFactory == null) {
+            return;
+        }
+
+        List<LockstepAgent> agents = elements.stream()
+                .filter(LockstepAgent.class::isInstance)
+                .map(LockstepAgent.class::cast)
+                .toList();
+
+        if (!agents.isEmpty()) {
+            List<AgentController> controllers = agents.stream()
+                    .map(LockstepAgent::getController)
+                    .toList();
+            this.lockstepBatches.add(new LockstepBatch(this.lockstepEvaluatorFactory.apply(controllers), agents, new double[agents.size()][]));
+        }
+    }
+
+    /**
+     * Finishes the lockstep evaluators whose agents are all dead. The remaining evaluators are merged into one as soon
+     * as the dead agents and the agents outside of the first evaluator are as many as the living agents. This way the
+     * costs of rebuilding the evaluators are proportional to the number of added agents.
+     */
+    private void compactLockstepEvaluation() {
+        Set<Object> livingElements = Collections.newSetFromMap(new IdentityHashMap<>());
+        livingElements.addAll(this.agentsToDraw);
+
+        int numberOfDeadAgents = 0;
+        int numberOfLivingAgents = 0;
+        int numberOfSeparatedAgents = 0;
+
+        Iterator<LockstepBatch> iterator = this.lockstepBatches.iterator();
+        while (iterator.hasNext()) {
+            LockstepBatch batch = iterator.next();
+            int numberOfLivingAgentsInBatch = (int) batch.agents()
+                    .stream()
+                    .filter(livingElements::contains)
+                    .count();
+
+            if (numberOfLivingAgentsInBatch == 0) {
+                batch.evaluator().finishEvaluation();
+                iterator.remove();
+                continue;
+            }
+
+            if (numberOfLivingAgents > 0) {
+                numberOfSeparatedAgents += numberOfLivingAgentsInBatch;
+            }
+            numberOfLivingAgents += numberOfLivingAgentsInBatch;
+            numberOfDeadAgents += batch.agents().size() - numberOfLivingAgentsInBatch;
+        }
+
+        if (this.lockstepBatches.size() > 1 && numberOfDeadAgents + numberOfSeparatedAgents >= numberOfLivingAgents) {
+            resetLockstepEvaluation();
+            addLockstepBatch(this.agentsToDraw);
+        }
     }
 
     public void step() {
+        if (!this.lockstepBatches.isEmpty()) {
+            stepInLockstep();
+            return;
+        }
+
         this.agentsToDraw.stream()
                 .peek(AbstractElement::step)
                 .forEach(this::checkBorderCase);
     }
 
+    private void stepInLockstep() {
+        for (LockstepBatch batch : this.lockstepBatches) {
+            for (int i = 0; i < batch.agents().size(); i++) {
+                batch.agentData()[i] = batch.agents().get(i).prepareStep();
+            }
+
+            double[][] actions = batch.evaluator().getActions(batch.agentData());
+
+            for (int i = 0; i < batch.agents().size(); i++) {
+                if (batch.agentData()[i] != null) {
+                    batch.agents().get(i).finishStep(actions[i]);
+                }
+            }
+        }
+
+        // elements which are not part of the lockstep evaluation are stepped individually
+        this.agentsToDraw.stream()
+                .filter(e -> !(e instanceof LockstepAgent))
+                .forEach(AbstractElement::step);
+        this.agentsToDraw.forEach(this::checkBorderCase);
+    }
+
     public void testGeneralization() {
         AgentController best = getAgents().stream()
                 .max(Comparator.comparingDouble(AgentController::getScore))
@@ -85,6 +295,7 @@ public abstract class AbstractEnvironment<T extends Enum<T> & DefaultConfigurati
     public void nextGeneralizationIteration() {
         this.rng.reset();
         this.agentsToDraw.clear();
+        resetLockstepEvaluation();
 
         if (finishedGeneralization() || getGeneralizationHandler().getNumberOfGeneralizationIterations() == 0 || getGeneralizationHandler().reachedEnd()) {
             setFinishedGeneralization(true);
@@ -101,6 +312,15 @@ public abstract class AbstractEnvironment<T extends Enum<T> & DefaultConfigurati
         setCurrentGeneralizationCapability(0);
         this.agentsToDraw.clear();
         this.agentControllers.clear();
+        this.finishedControllers.clear();
+        this.bestFinishedScores.clear();
+        this.abortedControllers.clear();
+        resetLockstepEvaluation();
+    }
+
+    private void resetLockstepEvaluation() {
+        this.lockstepBatches.forEach(b -> b.evaluator().finishEvaluation());
+        this.lockstepBatches.clear();
     }
 
     protected void checkBorderCase(AbstractElement particle) {
@@ -179,6 +399,14 @@ public abstract class AbstractEnvironment<T extends Enum<T> & DefaultConfigurati
         return originControllers;
     }
 
+    /**
+     * Enables the lockstep evaluation of all agents which implement {@link LockstepAgent}. The factory is called for
+     * every new list of controllers.
+     */
+    public void setLockstepEvaluatorFactory(Function<List<AgentController>, LockstepEvaluator> lockstepEvaluatorFactory) {
+        this.lockstepEvaluatorFactory = lockstepEvaluatorFactory;
+    }
+
     public GeneralizationHandler<T> getGeneralizationHandler() {
         return generalizationHandler;
     }
@@ -2,8 +2,20 @@ package de.emaeuer.environment;
 
 public interface AgentController {
 
+    /**
+     * Calculates the action for the given agent data. The returned array may be reused by the controller for the next
+     * call and has to be evaluated before the controller is used again.
+     */
     double[] getAction(double[] agentData);
 
+    void getAction(double[] agentData, double[] action);
+
+    /**
+     * Calculates the actions for multiple agent data sets at once. The result is the same as calling
+     * {@link #getAction(double[])} for every row in the given order.
+     */
+    double[][] getActions(double[][] agentData);
+
     double getScore();
 
     void setScore(double score);
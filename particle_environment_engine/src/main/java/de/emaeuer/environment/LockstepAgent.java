@@ -0,0 +1,23 @@
+package de.emaeuer.environment;
+
+/**
+ * Agent whose step can be split into the calculation of the controller input and the execution of the controller
+ * action. This allows environments to calculate the actions of all agents at once (see {@link LockstepEvaluator}).
+ */
+public interface LockstepAgent {
+
+    /**
+     * Executes the part of the step before the controller is queried.
+     *
+     * @return the input for the controller or null if the agent doesn't act in this step
+     */
+    double[] prepareStep();
+
+    /**
+     * Executes the remaining part of the step with the action calculated for the input of {@link #prepareStep()}.
+     */
+    void finishStep(double[] action);
+
+    AgentController getController();
+
+}
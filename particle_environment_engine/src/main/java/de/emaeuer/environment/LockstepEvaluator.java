@@ -0,0 +1,20 @@
+package de.emaeuer.environment;
+
+/**
+ * Calculates the actions of all agent controllers of one generation for a synchronous step at once. An evaluator is
+ * created for a fixed list of controllers and each row of the agent data belongs to the controller with the same index.
+ */
+public interface LockstepEvaluator {
+
+    /**
+     * @param agentData the input for each controller or null if the corresponding agent doesn't act in this step
+     * @return the action for each controller (the rows of inactive agents are undefined)
+     */
+    double[][] getActions(double[][] agentData);
+
+    /**
+     * Called after the last step of the controllers to hand the state of the evaluation back to the controllers.
+     */
+    void finishEvaluation();
+
+}
@@ -87,9 +87,11 @@ public class CartPoleEnvironment extends AbstractEnvironment<CartPoleGeneralizat
                 .map(Cart.class::cast)
                 .peek(Cart::incrementTimeStep)
                 .peek(this::checkReachedMaxStepNumber)
+                .peek(this::stopIfHopeless)
                 .filter(Cart::isDead)
                 .peek(Cart::calculateFitness)
                 .peek(this::normalizeFitness)
+                .peek(c -> controllerFinished(c.getController()))
                 .forEach(deadCarts::add);
 
         getAgentsToDraw().removeAll(deadCarts);
@@ -183,15 +185,43 @@ public class CartPoleEnvironment extends AbstractEnvironment<CartPoleGeneralizat
         }
     }
 
+    private void stopIfHopeless(Cart cart) {
+        if (this.currentPhase == Phases.NORMAL && supportsRacing() && !cart.isDead()
+                && checkHopeless(cart.getController(), normalize(cart.calculateFitnessUpperBound(getMaxStepNumber())))) {
+            cart.setDead(true);
+        }
+    }
+
     private void normalizeFitness(Cart cart) {
+        cart.getController().setScore(normalize(cart.getController().getScore()));
+    }
+
+    private double normalize(double fitness) {
         if (this.configuration.getValue(CartPoleConfiguration.PENALIZE_OSCILLATION, Boolean.class)) {
             // 10000 because of scaling in oscillation fitness function
-            cart.getController().setScore(cart.getController().getScore() / getMaxStepNumber() * 10000);
+            return fitness / getMaxStepNumber() * 10000;
         } else {
-            cart.getController().setScore(cart.getController().getScore() / getMaxStepNumber());
+            return fitness / getMaxStepNumber();
         }
     }
 
+    @Override
+    public boolean isDeterministic() {
+        // the random start angles don't use the random generator of the environment
+        return !this.configuration.getValue(CartPoleConfiguration.RANDOM_START_ANGLE, Boolean.class);
+    }
+
+    @Override
+    public boolean supportsRacing() {
+        // without the penalty every cart can still survive until the maximal step number
+        return this.configuration.getValue(CartPoleConfiguration.PENALIZE_OSCILLATION, Boolean.class);
+    }
+
+    @Override
+    public boolean supportsSteadyStateEvaluation() {
+        return true;
+    }
+
     @Override
     public boolean environmentFinished() {
         return areAllCartsDead;
@@ -3,6 +3,7 @@ package de.emaeuer.environment.balance.onedim.elements;
 import com.google.common.collect.EvictingQueue;
 import com.google.common.primitives.Doubles;
 import de.emaeuer.environment.AgentController;
+import de.emaeuer.environment.LockstepAgent;
 import de.emaeuer.environment.balance.onedim.CartPoleEnvironment;
 import de.emaeuer.environment.balance.onedim.GeneralCartPoleData;
 import de.emaeuer.environment.elements.AbstractElement;
@@ -14,7 +15,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Queue;
 
-public class Cart extends AbstractElement {
+public class Cart extends AbstractElement implements LockstepAgent {
 
     public static double TRACK_DISPLAY_SCALING = 100;
 
@@ -45,16 +46,27 @@ public class Cart extends AbstractElement {
 
     @Override
     public void step() {
+        double[] input = prepareStep();
+
+        if (input != null) {
+            finishStep(this.controller.getAction(input));
+        }
+    }
+
+    @Override
+    public double[] prepareStep() {
         if (isDead() || this.environment == null) {
-            return;
+            return null;
         }
 
         // calculate the data of the agent
-        double[] input = createNetworkInput();
+        return createNetworkInput();
+    }
 
-        // get the action of the agent controller
-        double activation = this.controller.getAction(input)[0];
-        activation = adjustActivation(activation, controller);
+    @Override
+    public void finishStep(double[] action) {
+        // the action was calculated by the agent controller
+        double activation = adjustActivation(action[0], controller);
 
         if (data.twoPoles()) {
             updateCartTwoPolesState(activation);
@@ -91,6 +103,25 @@ public class Cart extends AbstractElement {
         this.controller.setScore(this.fitness);
     }
 
+    /**
+     * Calculates the highest fitness this cart can reach if it survives until the maximal step number
+     */
+    public double calculateFitnessUpperBound(double maxStepNumber) {
+        if (!data.penalizeOscillation()) {
+            return maxStepNumber + 1;
+        } else if (this.step <= 1000) {
+            // the recorded oscillations can still become arbitrarily small
+            return Double.POSITIVE_INFINITY;
+        }
+
+        // the oscillations aren't recorded any more
+        double oscillations = 0;
+        for (double oscillation : this.lastOscillations) {
+            oscillations += oscillation;
+        }
+        return ((maxStepNumber + 1) / 10000.0) + 0.9 * (0.75 / oscillations);
+    }
+
     private double adjustActivation(double activation, AgentController controller) {
         // 10 and -10 are arbitrary bounds in case of unlimited values
         double maxActivation = Math.min(controller.getMaxAction(), 10);
@@ -368,6 +399,7 @@ public class Cart extends AbstractElement {
         this.poleOneAngle = poleOneAngle;
     }
 
+    @Override
     public AgentController getController() {
         return this.controller;
     }
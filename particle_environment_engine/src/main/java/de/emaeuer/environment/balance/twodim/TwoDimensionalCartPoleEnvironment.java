@@ -66,6 +66,7 @@ public class TwoDimensionalCartPoleEnvironment extends AbstractEnvironment<TwoDi
                 .peek(this::checkReachedMaxStepNumber)
                 .filter(TwoDimensionalCart::isDead)
                 .peek(c -> c.getController().setScore(c.getController().getScore() / getMaxStepNumber()))
+                .peek(c -> controllerFinished(c.getController()))
                 .forEach(deadCarts::add);
 
         getAgentsToDraw().removeAll(deadCarts);
@@ -85,6 +86,11 @@ public class TwoDimensionalCartPoleEnvironment extends AbstractEnvironment<TwoDi
         }
     }
 
+    @Override
+    public boolean supportsSteadyStateEvaluation() {
+        return true;
+    }
+
     @Override
     public boolean environmentFinished() {
         return areAllCartsDead;
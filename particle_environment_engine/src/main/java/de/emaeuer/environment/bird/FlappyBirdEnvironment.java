@@ -127,6 +127,7 @@ public class FlappyBirdEnvironment extends AbstractEnvironment<FlappyBirdGeneral
                 .peek(this::checkBird)
                 .filter(FlappyBird::isDead)
                 .peek(b -> b.setScore(b.getScore() / getMaxStepNumber()))
+                .peek(b -> controllerFinished(b.getController()))
                 .peek(b -> getOriginControllers().remove(b.getController()))
                 .forEach(deadBirds::add);
 
@@ -1,6 +1,7 @@
 package de.emaeuer.environment.bird.elements;
 
 import de.emaeuer.environment.AgentController;
+import de.emaeuer.environment.LockstepAgent;
 import de.emaeuer.environment.bird.elements.shape.FlappyBirdShape;
 import de.emaeuer.environment.elements.AbstractElement;
 import de.emaeuer.environment.bird.FlappyBirdEnvironment;
@@ -10,7 +11,7 @@ import de.emaeuer.environment.math.Vector2D;
 import java.util.ArrayList;
 import java.util.List;
 
-public class FlappyBird extends AbstractElement {
+public class FlappyBird extends AbstractElement implements LockstepAgent {
 
     private FlappyBirdEnvironment environment;
 
@@ -36,17 +37,28 @@ public class FlappyBird extends AbstractElement {
 
     @Override
     public void step() {
+        double[] input = prepareStep();
+
+        if (input != null) {
+            finishStep(this.controller.getAction(input));
+        }
+    }
+
+    @Override
+    public double[] prepareStep() {
         if (isDead() || this.environment == null) {
-            return;
+            return null;
         }
 
         super.step();
 
-        double[] input = createInput();
+        return createInput();
+    }
 
-        // get the action of the agent controller
-        double activation = this.controller.getAction(input)[0];
-        activation = adjustActivation(activation, controller);
+    @Override
+    public void finishStep(double[] action) {
+        // the action was calculated by the agent controller
+        double activation = adjustActivation(action[0], controller);
 
         if (activation == 1) {
             jump();
@@ -96,6 +108,7 @@ public class FlappyBird extends AbstractElement {
         return activation > middle ? 1 : 0;
     }
 
+    @Override
     public AgentController getController() {
         return controller;
     }
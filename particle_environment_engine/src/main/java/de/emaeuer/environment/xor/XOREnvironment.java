@@ -109,10 +109,14 @@ public class XOREnvironment extends AbstractEnvironment<XORGeneralizationConfigu
         double maxError = (1 - this.targetPrecision) * dataSet.size();
         double error = 0;
 
-        for (XorTestData stimulus : dataSet) {
-            double activation = controller.getAction(stimulus.input())[0];
-            activation = adjustActivation(activation, controller);
-            error += Math.max(Math.abs(activation - stimulus.target) - this.targetPrecision, 0);
+        double[][] inputs = dataSet.stream()
+                .map(XorTestData::input)
+                .toArray(double[][]::new);
+        double[][] actions = controller.getActions(inputs);
+
+        for (int i = 0; i < actions.length; i++) {
+            double activation = adjustActivation(actions[i][0], controller);
+            error += Math.max(Math.abs(activation - dataSet.get(i).target()) - this.targetPrecision, 0);
         }
 
         if (error > maxError) {
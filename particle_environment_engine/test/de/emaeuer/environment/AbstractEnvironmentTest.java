@@ -0,0 +1,365 @@
+package de.emaeuer.environment;
+
+import de.emaeuer.configuration.ConfigurationHandler;
+import de.emaeuer.configuration.ConfigurationHelper;
+import de.emaeuer.environment.balance.onedim.configuration.CartPoleConfiguration;
+import de.emaeuer.environment.balance.onedim.elements.Cart;
+import de.emaeuer.environment.configuration.EnvironmentConfiguration;
+import de.emaeuer.environment.factory.EnvironmentFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AbstractEnvironmentTest {
+
+    private static class TestController implements AgentController {
+
+        private int numberOfActions = 0;
+        private double score = 0;
+        private double generalizationCapability = 0;
+
+        @Override
+        public double[] getAction(double[] agentData) {
+            this.numberOfActions++;
+            return new double[]{0};
+        }
+
+        @Override
+        public void getAction(double[] agentData, double[] action) {
+            action[0] = getAction(agentData)[0];
+        }
+
+        @Override
+        public double[][] getActions(double[][] agentData) {
+            return Arrays.stream(agentData)
+                    .map(this::getAction)
+                    .toArray(double[][]::new);
+        }
+
+        @Override
+        public double getScore() {
+            return this.score;
+        }
+
+        @Override
+        public void setScore(double score) {
+            this.score = score;
+        }
+
+        @Override
+        public double getGeneralizationCapability() {
+            return this.generalizationCapability;
+        }
+
+        @Override
+        public void setGeneralizationCapability(double value) {
+            this.generalizationCapability = value;
+        }
+
+        @Override
+        public double getMaxAction() {
+            return 1;
+        }
+
+        @Override
+        public double getMinAction() {
+            return -1;
+        }
+
+        @Override
+        public AgentController copy() {
+            return new TestController();
+        }
+    }
+
+    /**
+     * Records the sizes of the created lockstep evaluators and the number of finished evaluations
+     */
+    private static class RecordingEvaluatorFactory {
+
+        private final List<Integer> createdEvaluatorSizes = new ArrayList<>();
+        private int numberOfFinishedEvaluations = 0;
+
+        private LockstepEvaluator create(List<AgentController> controllers) {
+            this.createdEvaluatorSizes.add(controllers.size());
+
+            return new LockstepEvaluator() {
+                @Override
+                public double[][] getActions(double[][] agentData) {
+                    double[][] actions = new double[agentData.length][];
+                    for (int i = 0; i < agentData.length; i++) {
+                        if (agentData[i] != null) {
+                            actions[i] = controllers.get(i).getAction(agentData[i]);
+                        }
+                    }
+                    return actions;
+                }
+
+                @Override
+                public void finishEvaluation() {
+                    numberOfFinishedEvaluations++;
+                }
+            };
+        }
+    }
+
+    private AbstractEnvironment<?> createEnvironment() {
+        ConfigurationHandler<EnvironmentConfiguration> config = new ConfigurationHandler<>(EnvironmentConfiguration.class);
+        config.setValue(EnvironmentConfiguration.ENVIRONMENT_IMPLEMENTATION_NAME, "ONE_DIMENSIONAL_CART_POLE");
+        return EnvironmentFactory.createEnvironment(config);
+    }
+
+    private AbstractEnvironment<?> createRacingEnvironment() {
+        ConfigurationHandler<EnvironmentConfiguration> config = new ConfigurationHandler<>(EnvironmentConfiguration.class);
+        config.setValue(EnvironmentConfiguration.ENVIRONMENT_IMPLEMENTATION_NAME, "ONE_DIMENSIONAL_CART_POLE");
+        config.setValue(EnvironmentConfiguration.MAX_STEP_NUMBER, 1200.0);
+
+        ConfigurationHandler<CartPoleConfiguration> cartPoleConfig = ConfigurationHelper.extractEmbeddedConfiguration(config, CartPoleConfiguration.class, EnvironmentConfiguration.ENVIRONMENT_IMPLEMENTATION);
+        cartPoleConfig.setValue(CartPoleConfiguration.PENALIZE_OSCILLATION, true);
+        // an upright pole stays upright while the cart moves with a constant velocity (the controllers apply no force)
+        cartPoleConfig.setValue(CartPoleConfiguration.POLE_ONE_ANGLE, 0.0);
+
+        return EnvironmentFactory.createEnvironment(config);
+    }
+
+    /**
+     * Sets the velocity of the cart of the controller. A higher velocity causes higher oscillations and a lower fitness.
+     */
+    private void setVelocity(AbstractEnvironment<?> environment, AgentController controller, double velocity) {
+        environment.getAgentsToDraw()
+                .stream()
+                .map(Cart.class::cast)
+                .filter(c -> c.getController() == controller)
+                .forEach(c -> c.setCartVelocity(velocity));
+    }
+
+    private void runUntilFinished(AbstractEnvironment<?> environment) {
+        while (!environment.environmentFinished()) {
+            environment.step();
+        }
+    }
+
+    /**
+     * @return the scores the carts with the given velocities reach without racing
+     */
+    private double[] calculateScoresWithoutRacing(double... velocities) {
+        AbstractEnvironment<?> environment = createRacingEnvironment();
+        List<TestController> controllers = createControllers(velocities.length);
+
+        environment.setControllers(new ArrayList<>(controllers));
+        for (int i = 0; i < velocities.length; i++) {
+            setVelocity(environment, controllers.get(i), velocities[i]);
+        }
+        runUntilFinished(environment);
+
+        assertTrue(environment.getAbortedControllers().isEmpty());
+        return controllers.stream()
+                .mapToDouble(AgentController::getScore)
+                .toArray();
+    }
+
+    private List<TestController> createControllers(int numberOfControllers) {
+        return IntStream.range(0, numberOfControllers)
+                .mapToObj(i -> new TestController())
+                .toList();
+    }
+
+    private void kill(AbstractEnvironment<?> environment, AgentController controller) {
+        environment.getAgentsToDraw()
+                .stream()
+                .map(Cart.class::cast)
+                .filter(c -> c.getController() == controller)
+                .forEach(c -> c.setDead(true));
+    }
+
+    private void assertStepsAllLivingAgents(AbstractEnvironment<?> environment, List<TestController> controllers) {
+        int[] numberOfActions = controllers.stream()
+                .mapToInt(c -> c.numberOfActions)
+                .toArray();
+        List<AgentController> livingControllers = environment.getAgentsToDraw()
+                .stream()
+                .map(Cart.class::cast)
+                .filter(c -> !c.isDead())
+                .map(Cart::getController)
+                .toList();
+
+        environment.step();
+
+        for (int i = 0; i < controllers.size(); i++) {
+            int expectedIncrement = livingControllers.contains(controllers.get(i)) ? 1 : 0;
+            assertEquals(numberOfActions[i] + expectedIncrement, controllers.get(i).numberOfActions);
+        }
+    }
+
+    /*
+     ##########################################################
+     ##################### Test Methods #######################
+     ##########################################################
+    */
+
+    @Test
+    public void testFinishedControllersArePolled() {
+        AbstractEnvironment<?> environment = createEnvironment();
+        List<TestController> controllers = createControllers(4);
+
+        environment.setControllers(new ArrayList<>(controllers.subList(0, 3)));
+        environment.step();
+        assertTrue(environment.pollFinishedControllers().isEmpty());
+
+        kill(environment, controllers.get(1));
+        environment.step();
+        assertEquals(List.of(controllers.get(1)), environment.pollFinishedControllers());
+        assertEquals(List.of(controllers.get(0), controllers.get(2)), environment.getAgents());
+        // each finished controller is only returned once
+        assertTrue(environment.pollFinishedControllers().isEmpty());
+
+        environment.addControllers(List.of(controllers.get(3)));
+        assertEquals(3, environment.getAgentsToDraw().size());
+        assertEquals(List.of(controllers.get(0), controllers.get(2), controllers.get(3)), environment.getAgents());
+
+        kill(environment, controllers.get(0));
+        kill(environment, controllers.get(3));
+        environment.step();
+        assertEquals(List.of(controllers.get(0), controllers.get(3)), environment.pollFinishedControllers());
+        assertEquals(List.of(controllers.get(2)), environment.getAgents());
+    }
+
+    @Test
+    public void testAddedControllersGetOwnLockstepEvaluator() {
+        AbstractEnvironment<?> environment = createEnvironment();
+        RecordingEvaluatorFactory factory = new RecordingEvaluatorFactory();
+        environment.setLockstepEvaluatorFactory(factory::create);
+
+        List<TestController> controllers = createControllers(6);
+        environment.setControllers(new ArrayList<>(controllers.subList(0, 4)));
+        assertEquals(List.of(4), factory.createdEvaluatorSizes);
+        assertStepsAllLivingAgents(environment, controllers);
+
+        // the evaluator of the other agents isn't rebuilt
+        environment.addControllers(List.of(controllers.get(4)));
+        assertEquals(List.of(4, 1), factory.createdEvaluatorSizes);
+        assertEquals(0, factory.numberOfFinishedEvaluations);
+        assertStepsAllLivingAgents(environment, controllers);
+
+        // the evaluator of the dead agent is finished
+        kill(environment, controllers.get(4));
+        assertStepsAllLivingAgents(environment, controllers);
+        environment.pollFinishedControllers();
+        environment.addControllers(List.of(controllers.get(5)));
+        assertEquals(List.of(4, 1, 1), factory.createdEvaluatorSizes);
+        assertEquals(1, factory.numberOfFinishedEvaluations);
+        assertStepsAllLivingAgents(environment, controllers);
+    }
+
+    @Test
+    public void testLockstepEvaluatorsAreMergedAfterManyDeaths() {
+        AbstractEnvironment<?> environment = createEnvironment();
+        RecordingEvaluatorFactory factory = new RecordingEvaluatorFactory();
+        environment.setLockstepEvaluatorFactory(factory::create);
+
+        List<TestController> controllers = createControllers(7);
+        environment.setControllers(new ArrayList<>(controllers.subList(0, 4)));
+        environment.addControllers(List.of(controllers.get(4)));
+        assertEquals(List.of(4, 1), factory.createdEvaluatorSizes);
+
+        // one dead and two separated agents are fewer than the five living agents
+        kill(environment, controllers.get(0));
+        assertStepsAllLivingAgents(environment, controllers);
+        environment.pollFinishedControllers();
+        environment.addControllers(List.of(controllers.get(5)));
+        assertEquals(List.of(4, 1, 1), factory.createdEvaluatorSizes);
+        assertEquals(0, factory.numberOfFinishedEvaluations);
+
+        // two dead and three separated agents are as many as the five living agents
+        kill(environment, controllers.get(1));
+        assertStepsAllLivingAgents(environment, controllers);
+        environment.pollFinishedControllers();
+        environment.addControllers(List.of(controllers.get(6)));
+        assertEquals(List.of(4, 1, 1, 1, 5), factory.createdEvaluatorSizes);
+        assertEquals(4, factory.numberOfFinishedEvaluations);
+        assertStepsAllLivingAgents(environment, controllers);
+    }
+
+    @Test
+    public void testRestartFinishesLockstepEvaluation() {
+        AbstractEnvironment<?> environment = createEnvironment();
+        RecordingEvaluatorFactory factory = new RecordingEvaluatorFactory();
+        environment.setLockstepEvaluatorFactory(factory::create);
+
+        List<TestController> controllers = createControllers(3);
+        environment.setControllers(new ArrayList<>(controllers.subList(0, 2)));
+        environment.addControllers(List.of(controllers.get(2)));
+        environment.restart();
+
+        assertEquals(2, factory.numberOfFinishedEvaluations);
+        assertTrue(environment.getAgents().isEmpty());
+        assertTrue(environment.pollFinishedControllers().isEmpty());
+    }
+
+    @Test
+    public void testRacingIsOnlySupportedWithOscillationPenalty() {
+        assertTrue(createRacingEnvironment().supportsRacing());
+        assertFalse(createEnvironment().supportsRacing());
+    }
+
+    @Test
+    public void testRacingStopsAgentsBelowAdmissionThreshold() {
+        double[] scores = calculateScoresWithoutRacing(0.01, 0.04);
+        assertTrue(scores[0] > scores[1]);
+        double threshold = (scores[0] + scores[1]) / 2;
+
+        AbstractEnvironment<?> environment = createRacingEnvironment();
+        List<TestController> controllers = createControllers(2);
+        environment.setRacingThresholds(threshold, Integer.MAX_VALUE);
+        environment.setControllers(new ArrayList<>(controllers));
+        setVelocity(environment, controllers.get(0), 0.01);
+        setVelocity(environment, controllers.get(1), 0.04);
+        runUntilFinished(environment);
+
+        assertEquals(Set.of(controllers.get(1)), environment.getAbortedControllers());
+        // the admitted agent isn't influenced
+        assertEquals(scores[0], controllers.get(0).getScore());
+        assertTrue(controllers.get(1).getScore() < threshold);
+        // the hopeless agent was stopped as soon as the oscillations weren't recorded any more
+        assertTrue(controllers.get(1).numberOfActions < controllers.get(0).numberOfActions);
+    }
+
+    @Test
+    public void testRacingStopsAgentsBelowBestFinishedAgents() {
+        double[] scores = calculateScoresWithoutRacing(0.02, 0.04, 0.01);
+
+        AbstractEnvironment<?> environment = createRacingEnvironment();
+        List<TestController> controllers = createControllers(3);
+        // only the best agent can be selected
+        environment.setRacingThresholds(Double.NEGATIVE_INFINITY, 1);
+
+        environment.setControllers(new ArrayList<>(controllers.subList(0, 1)));
+        setVelocity(environment, controllers.get(0), 0.02);
+        for (int i = 0; i < 100; i++) {
+            environment.step();
+        }
+
+        // the other agents are still running when the first one finishes
+        environment.addControllers(new ArrayList<>(controllers.subList(1, 3)));
+        setVelocity(environment, controllers.get(1), 0.04);
+        setVelocity(environment, controllers.get(2), 0.01);
+        runUntilFinished(environment);
+
+        assertEquals(Set.of(controllers.get(1)), environment.getAbortedControllers());
+        assertTrue(controllers.get(1).numberOfActions < controllers.get(2).numberOfActions);
+
+        // the admitted agent is the same as without racing
+        assertEquals(scores[0], controllers.get(0).getScore());
+        assertEquals(scores[2], controllers.get(2).getScore());
+        assertEquals(controllers.get(2), controllers.stream()
+                .max(Comparator.comparingDouble(AgentController::getScore))
+                .orElseThrow());
+    }
+}